@@ -173,6 +173,30 @@ public interface PvpPerformanceTrackerConfig extends Config
 		return false;
 	}
 
+	@ConfigItem(
+		keyName = "trackMultipleOpponents",
+		name = "Track multiple opponents",
+		description = "In multi-combat areas, track a separate fight for every player you engage, instead of only the first one." +
+			"<br>The overlay shows the fight against the last player you attacked.",
+		position = 110
+	)
+	default boolean trackMultipleOpponents()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "spectateOtherFights",
+		name = "Spectate other fights",
+		description = "Also track fights between two other players once they are targeting each other, up to 10 at once." +
+			"<br>Spectated fights are added to the fight history, but are never uploaded to PvP-Hub.",
+		position = 120
+	)
+	default boolean spectateOtherFights()
+	{
+		return false;
+	}
+
 	@ConfigItem(
 		keyName = "robeHitFilter",
 		name = "Hits on Robes Filter",
@@ -674,6 +698,18 @@ public interface PvpPerformanceTrackerConfig extends Config
 		return false;
 	}
 
+	@ConfigItem(
+		keyName = "showOverlayWinProbability",
+		name = "Overlay: Show Win Probability",
+		description = "The overlay will display each fighter's estimated chance to win, based on the expected damage of the attacks so far and your heals.<br>Max. of 5 lines on the overlay",
+		position = 10925,
+		section = overlaySection
+	)
+	default boolean showOverlayWinProbability()
+	{
+		return false;
+	}
+
 	@ConfigItem(
 			keyName = "showOverlayGhostBarrage",
 			name = "Overlay: Show Ghost Barrage",
@@ -63,6 +63,7 @@ public class PvpPerformanceTrackerOverlay extends Overlay
 
 	// weird overlay-only statistic that isn't on the panel nor considered its own "TrackedStatistic"
 	private final TableComponent ovlLastKoChanceLine; // Combined last KO chance
+	private final TableComponent ovlWinProbabilityLine; // Left: competitor's win probability, Right: opponent's
 
 	@Inject
 	private PvpPerformanceTrackerOverlay(PvpPerformanceTrackerPlugin plugin, PvpPerformanceTrackerConfig config)
@@ -86,6 +87,7 @@ public class PvpPerformanceTrackerOverlay extends Overlay
 
 		// weird overlay-only statistic that isn't on the panel
 		ovlLastKoChanceLine = PanelFactory.createOverlayStatsLine("pKO", 50, 50, NO_DATA, PvpColorScheme.neutralColor(), NO_DATA, PvpColorScheme.neutralColor());
+		ovlWinProbabilityLine = PanelFactory.createOverlayStatsLine("pWin", 50, 50, NO_DATA, PvpColorScheme.neutralColor(), NO_DATA, PvpColorScheme.neutralColor());
 
 		setLines();
 	}
@@ -124,6 +126,10 @@ public class PvpPerformanceTrackerOverlay extends Overlay
 			ovlLastKoChanceLine.updateRightCellText(NO_DATA);
 		}
 
+		Double winProbability = fight.getCompetitorWinProbability();
+		ovlWinProbabilityLine.updateLeftCellText(winProbability != null ? nfP1.format(winProbability) : NO_DATA);
+		ovlWinProbabilityLine.updateRightCellText(winProbability != null ? nfP1.format(1 - winProbability) : NO_DATA);
+
 		return panelComponent.render(graphics);
 	}
 
@@ -179,6 +185,10 @@ public class PvpPerformanceTrackerOverlay extends Overlay
 		{
 			panelComponent.getChildren().add(ovlLastKoChanceLine);
 		}
+		if (config.showOverlayWinProbability())
+		{
+			panelComponent.getChildren().add(ovlWinProbabilityLine);
+		}
 		if (config.showOverlayGhostBarrage())
 		{
 			panelComponent.getChildren().add(statisticLines.get(TrackedStatistic.GHOST_BARRAGES));
@@ -404,7 +404,11 @@ public class PvpPerformanceTrackerPanel extends PluginPanel
 		}
 		filteredFightCount++;
 
-		totalStatsPanel.addFight(fight.getPvpHubDisplayFight());
+		// spectated fights aren't the player's own, so they don't count towards their total stats.
+		if (!fight.isSpectated())
+		{
+			totalStatsPanel.addFight(fight.getPvpHubDisplayFight());
+		}
 		// run all of this on UI thread, since we're adding and removing containers in it.
 		SwingUtilities.invokeLater(() ->
 		{
@@ -442,7 +446,13 @@ public class PvpPerformanceTrackerPanel extends PluginPanel
 
 		totalStatsPanel.reset();
 		ArrayList<FightPerformance> displayFights = new ArrayList<>();
-		fights.forEach(f -> displayFights.add(f.getPvpHubDisplayFight()));
+		fights.forEach(f ->
+		{
+			if (!f.isSpectated())
+			{
+				displayFights.add(f.getPvpHubDisplayFight());
+			}
+		});
 		totalStatsPanel.addFights(displayFights);
 
 		// if we're adding more fights than we want to render at all, then reduce the number of fights we're adding
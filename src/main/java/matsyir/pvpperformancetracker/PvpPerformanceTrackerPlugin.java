@@ -39,9 +39,8 @@ import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import static java.util.Map.entry;
@@ -49,9 +48,8 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
 import javax.inject.Inject;
 import javax.swing.ImageIcon;
 import javax.swing.JDialog;
@@ -61,21 +59,38 @@ import javax.swing.SwingUtilities;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import matsyir.pvpperformancetracker.controllers.DamageCalcCache;
+import matsyir.pvpperformancetracker.controllers.DamageCalcContext;
+import matsyir.pvpperformancetracker.controllers.FightHistoryRecalculator;
+import matsyir.pvpperformancetracker.controllers.FightManager;
 import matsyir.pvpperformancetracker.controllers.FightPerformance;
 import matsyir.pvpperformancetracker.controllers.FightPerformanceSerializer;
+import matsyir.pvpperformancetracker.controllers.FightSimulator;
 import matsyir.pvpperformancetracker.controllers.Fighter;
+import matsyir.pvpperformancetracker.controllers.GearBonusCache;
+import matsyir.pvpperformancetracker.controllers.HitsplatMatcher;
+import matsyir.pvpperformancetracker.controllers.HitsplatRingBuffer;
+import matsyir.pvpperformancetracker.controllers.InteractionPairIndex;
+import matsyir.pvpperformancetracker.controllers.ItemStatsTable;
+import matsyir.pvpperformancetracker.controllers.PvpDamageCalc;
 import matsyir.pvpperformancetracker.controllers.PvpHubFightSync;
 import matsyir.pvpperformancetracker.controllers.PvpHubSyncRetryState;
 import matsyir.pvpperformancetracker.controllers.PvpHubUploader;
+import matsyir.pvpperformancetracker.controllers.ReflectedDamageIndex;
+import matsyir.pvpperformancetracker.controllers.TickEventBatch;
+import matsyir.pvpperformancetracker.controllers.TrackedFight;
 import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.AssumedPrayerTable;
+import matsyir.pvpperformancetracker.models.AssumedPrayers;
 import matsyir.pvpperformancetracker.models.CombatLevels;
-import matsyir.pvpperformancetracker.models.FightLogEntry;
+import matsyir.pvpperformancetracker.models.FightType;
+import matsyir.pvpperformancetracker.models.GameTickContext;
 import matsyir.pvpperformancetracker.models.HitsplatInfo;
 import matsyir.pvpperformancetracker.models.PrayerType;
 import matsyir.pvpperformancetracker.models.RangeAmmoData;
+import static matsyir.pvpperformancetracker.utils.NumberFormatter.*;
 import matsyir.pvpperformancetracker.utils.PvpColorScheme;
 import matsyir.pvpperformancetracker.utils.PvpHubPrivacy;
-import matsyir.pvpperformancetracker.utils.PvpUtils;
 import matsyir.pvpperformancetracker.views.TotalStatsPanel;
 import net.runelite.api.Actor;
 import net.runelite.api.ChatMessageType;
@@ -91,8 +106,11 @@ import net.runelite.api.events.GameTick;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.HitsplatApplied;
 import net.runelite.api.events.InteractingChanged;
+import net.runelite.api.events.PlayerChanged;
 import net.runelite.api.events.StatChanged;
+import net.runelite.api.events.VarbitChanged;
 import net.runelite.api.events.PlayerDespawned;
+import net.runelite.api.events.PlayerSpawned;
 import net.runelite.api.gameval.VarbitID;
 import net.runelite.api.gameval.VarPlayerID;
 import net.runelite.client.RuneLite;
@@ -152,6 +170,14 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 	private static final int PVP_HUB_SYNC_MAX_ATTEMPTS = 5;
 	private static final long PVP_HUB_SYNC_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
 	private static final long PVP_HUB_UPLOAD_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(5);
+	// how many ticks of hitsplats are kept buffered behind the current tick
+	private static final int MAX_HITSPLAT_WINDOW = 5;
+	// upper bound of fights tracked at once when tracking multiple opponents
+	private static final int MAX_CONCURRENT_FIGHTS = 50;
+	// upper bound of fights between other players spectated at once
+	private static final int MAX_SPECTATED_FIGHTS = 10;
+	// random replays of each fight for the fight history simulation
+	private static final int SIMULATIONS_PER_FIGHT = 10_000;
 
 	static
 	{
@@ -223,15 +249,38 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 	// custom fields/props
 	public ArrayDeque<FightPerformance> fightHistory;
 	public ArrayDeque<FightPerformance> sessionFightHistory;
-	@Getter
-	private FightPerformance currentFight;
+	// every ongoing fight, each with its own hitsplat buffer. The primary one is the "current fight" shown on the overlay.
+	private final FightManager fightManager = new FightManager(MAX_HITSPLAT_WINDOW, MAX_CONCURRENT_FIGHTS);
+	// fights between two other players, when spectating is enabled. Pairs are detected from who targets who.
+	private final FightManager spectatedFights = new FightManager(MAX_HITSPLAT_WINDOW, MAX_SPECTATED_FIGHTS);
+	private final InteractionPairIndex interactionPairs = new InteractionPairIndex();
 	private Map<Integer, ImageIcon> spriteCache; // sprite cache since a small amount of sprites is re-used a lot
 	// do not cache items in the same way since we could potentially cache a very large amount of them.
-	private final Map<Integer, List<HitsplatInfo>> hitsplatBuffer = new HashMap<>();
-	private final Map<Integer, List<HitsplatInfo>> incomingHitsplatsBuffer = new ConcurrentHashMap<>(); // Stores hitsplats *received* by players per tick.
+	// re-used every tick to hold the previous tick's hitsplats while they are being matched
+	private final List<HitsplatInfo> hitsplatsToProcess = new ArrayList<>();
+	// animation, stat and hitsplat events of the current tick, processed together in one deferred client thread pass
+	private final TickEventBatch tickEventBatch = new TickEventBatch();
+	private final Runnable tickEventFlusher = this::flushTickEvents;
+	private final ReflectedDamageIndex reflectedDamageIndex = new ReflectedDamageIndex();
 	private final Map<String, Integer> lastNonGmaulSpecTickByAttacker = new ConcurrentHashMap<>();
+	private final HitsplatMatcher hitsplatMatcher = new HitsplatMatcher(lastNonGmaulSpecTickByAttacker);
 	private final PvpHubSyncRetryState pendingPvpHubSyncs = new PvpHubSyncRetryState(PVP_HUB_SYNC_MAX_ATTEMPTS, PVP_HUB_SYNC_RETRY_DELAY_MILLIS);
 	private File pvpHubSyncedFightsDir;
+	// client state read by the handlers & overlay, re-taken when it changes rather than on every read.
+	@Getter
+	private GameTickContext tickContext = GameTickContext.EMPTY;
+	// equipment bonuses per item id, looked up through the item manager once per item for the whole session.
+	@Getter
+	private final ItemStatsTable itemStats = new ItemStatsTable(itemId -> PvpDamageCalc.loadItemStats(itemManager, itemId));
+	// summed gear bonuses for the live calcs, which all run on the client thread.
+	private final GearBonusCache gearBonuses = PvpDamageCalc.newGearBonusCache(itemStats);
+	// live damage calc contexts per fight type, only re-taken after the config or the local prayer level change.
+	private final Map<FightType, DamageCalcContext> damageCalcContexts = new EnumMap<>(FightType.class);
+	// re-runs the damage calcs over the fight history in the background, results are applied on the swing EDT.
+	private final FightHistoryRecalculator fightHistoryRecalculator =
+		new FightHistoryRecalculator(ForkJoinPool.commonPool(), SwingUtilities::invokeLater);
+	// replays the fight history with random rolls in the background, the report is shown from the swing EDT.
+	private final FightSimulator fightSimulator = new FightSimulator(ForkJoinPool.commonPool(), SwingUtilities::invokeLater);
 
 	// #################################################################################################################
 	// ##################################### Core RL plugin functions & RL Events ######################################
@@ -278,6 +327,13 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 		FightPerformanceSerializer.deserializeFightHistory(this::importFights);
 		executor.scheduleWithFixedDelay(this::syncPendingPvpHubFights, 60, 60, TimeUnit.SECONDS);
 
+		// the map regions can be read from here, the rest of the context is taken on the client thread.
+		if (client.getGameState() == GameState.LOGGED_IN)
+		{
+			tickContext = tickContext.withAtLmsIncludingFerox(readAtLmsIncludingFerox());
+			clientThread.invokeLater(this::refreshTickContext);
+		}
+
 		// add the panel's nav button depending on config
 		if (config.showFightHistoryPanel() &&
 			(!config.restrictToLms() || (client.getGameState() == GameState.LOGGED_IN && isAtLmsIncludingFerox())))
@@ -307,7 +363,18 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 	@Override
 	protected void shutDown() throws Exception
 	{
+		fightHistoryRecalculator.cancel();
+		fightSimulator.cancel();
+		// cancelled runs never report back, so put their menu items back to the idle state.
+		SwingUtilities.invokeLater(() ->
+		{
+			TotalStatsPanel.setRecalculateFightHistoryProgress(0, 0);
+			TotalStatsPanel.simulateFightHistoryMenuItem.setEnabled(true);
+		});
 		FightPerformanceSerializer.serializeSessionFightHistory();
+		log.debug("Gear bonus cache: {} hits, {} misses", gearBonuses.getHitCount(), gearBonuses.getMissCount());
+		log.debug("LMS result cache: {} results, {} hits, {} misses", PvpDamageCalc.LMS_RESULT_CACHE.size(),
+			PvpDamageCalc.LMS_RESULT_CACHE.getHitCount(), PvpDamageCalc.LMS_RESULT_CACHE.getMissCount());
 
 		clientToolbar.removeNavigation(navButton);
 		overlayManager.remove(overlay);
@@ -327,6 +394,14 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 	{
 		if (!event.getGroup().equals(CONFIG_KEY)) { return; }
 
+		// assumed levels, ring & ammo choices all feed into the damage calcs. The contexts are only used from the
+		// client thread, so drop them there.
+		clientThread.invoke(() ->
+		{
+			damageCalcContexts.clear();
+			DamageCalcCache.invalidate();
+		});
+
 		if (event.getKey().startsWith("statisticLineEnabled_"))
 		{
 			panel.enqueueRebuild();
@@ -448,11 +523,15 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 			return;
 		}
 
-		checkForFightEnd();
+		if (config.spectateOtherFights() && event.getSource() != client.getLocalPlayer() && event.getTarget() != client.getLocalPlayer())
+		{
+			checkForSpectatedFight(event.getSource(), event.getTarget());
+			return;
+		}
 
-		// if the client player already has a valid opponent AND the fight has started,
-		// or the event source/target aren't players, skip any processing.
-		if ((hasOpponent() && currentFight.fightStarted())
+		// if the client player already has a valid opponent AND the fight has started (unless additional
+		// opponents can be tracked), or the event source/target aren't players, skip any processing.
+		if ((hasOpponent() && getCurrentFight().fightStarted() && !canTrackAnotherOpponent())
 			|| !(event.getSource() instanceof Player)
 			|| !(event.getTarget() instanceof Player))
 		{
@@ -476,13 +555,43 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 		}
 
 		// start a new fight with the newfound opponent, if a new one.
-		if (!hasOpponent() || !currentFight.getOpponent().getName().equals(opponent.getName()))
+		if (fightManager.getFightByOpponent(opponent) != null || fightManager.getFightByOpponentName(opponent.getName()) != null)
+		{
+			return;
+		}
+
+		// when only tracking one opponent, the new fight replaces the current one, which hasn't started.
+		if (hasOpponent() && !canTrackAnotherOpponent())
 		{
-			currentFight = new FightPerformance(client.getLocalPlayer(), (Player)opponent);
-			overlay.setFight(currentFight);
-			hitsplatBuffer.clear();
-			incomingHitsplatsBuffer.clear();
+			fightManager.end(fightManager.getPrimary());
 		}
+
+		fightManager.start(new FightPerformance(client.getLocalPlayer(), (Player)opponent));
+		if (hasOpponent())
+		{
+			overlay.setFight(getCurrentFight());
+		}
+	}
+
+	// start spectating two other players once they are both targeting each other
+	private void checkForSpectatedFight(Actor source, Actor target)
+	{
+		if (!interactionPairs.recordInteraction(source, target)
+			|| spectatedFights.getFightByFighter(source) != null
+			|| spectatedFights.getFightByFighter(target) != null
+			|| fightManager.getFightByOpponent(source) != null
+			|| fightManager.getFightByOpponent(target) != null)
+		{
+			return;
+		}
+
+		spectatedFights.start(new FightPerformance((Player)source, (Player)target, true));
+	}
+
+	// Multiple opponents are only tracked in multi-combat, when enabled.
+	private boolean canTrackAnotherOpponent()
+	{
+		return config.trackMultipleOpponents() && client.getVarbitValue(VarbitID.MULTIWAY_INDICATOR) != 0;
 	}
 
 	@Subscribe
@@ -493,6 +602,9 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 			return;
 		}
 
+		// logging in or a map load: the regions, and possibly the LMS varbit & levels, have changed.
+		refreshTickContext();
+
 		sendUpdateChatMessage();
 
 		// hide or show panel depending if config is restricted to LMS and if player is at LMS
@@ -518,14 +630,22 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 	}
 
 	@Subscribe
-	public void onAnimationChanged(AnimationChanged event)
+	public void onVarbitChanged(VarbitChanged event)
 	{
-		if (!hasOpponent()) { return; }
+		if (event.getVarbitId() == VarbitID.BR_INGAME)
+		{
+			tickContext = tickContext.withInLmsMatch(event.getValue() != 0);
+		}
+	}
 
-		checkForFightEnd();
+	@Subscribe
+	public void onAnimationChanged(AnimationChanged event)
+	{
+		if (!isTrackingAnyFight()) { return; }
 
 		Actor actor = event.getActor();
-		if (!(actor instanceof Player) || actor.getName() == null)
+		if ((actor != client.getLocalPlayer() && fightManager.getFightByOpponent(actor) == null && spectatedFights.getFightByFighter(actor) == null)
+			|| actor.getName() == null)
 		{
 			return;
 		}
@@ -544,26 +664,10 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 
 		// delay the animation processing, since we will also want to use equipment data for expected
 		// damage, and equipment updates are loaded after the animation updates.
-		clientThread.invokeLater(() ->
+		if (tickEventBatch.recordAnimation(eventSource, animationData, animationTick, animationTime, recordedSoulreaperStacksVarp))
 		{
-			if (hasOpponent() && eventSource.getName() != null)
-			{
-				Actor interacting = eventSource.getInteracting();
-				if (!(interacting instanceof Player) || interacting.getName() == null)
-				{
-					return;
-				}
-
-				currentFight.checkForAttackAnimations(
-					eventSource,
-					interacting.getName(),
-					animationData,
-					animationTick,
-					animationTime,
-					new CombatLevels(client),
-					recordedSoulreaperStacksVarp);
-			}
-		});
+			clientThread.invokeLater(tickEventFlusher);
+		}
 	}
 
 	@Subscribe
@@ -571,11 +675,11 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 	public void onHitsplatApplied(HitsplatApplied event)
 	{
 		Actor target;
+		TrackedFight trackedFight;
 
-		// if there's no opponent, the target is not a player, or the hitsplat is not relevant to pvp damage,
-		// skip the hitsplat. Otherwise, add it to the fight, which will only include it if it is one of the
-		// Fighters in the fight being hit.
-		if (!hasOpponent() || !((target = event.getActor()) instanceof Player))
+		// if there's no opponent, the target is not one of the fights' players, or the hitsplat is not relevant
+		// to pvp damage, skip the hitsplat. Otherwise, add it to the fight.
+		if (!isTrackingAnyFight() || (trackedFight = getFightForHitsplat(target = event.getActor())) == null)
 		{
 			return;
 		}
@@ -600,7 +704,12 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 			}
 		}
 
-		currentFight.addDamageDealt(target.getName(), amount);
+		Fighter hitFighter = trackedFight.getFighters().getFighter(target);
+		if (hitFighter == null)
+		{
+			return;
+		}
+		trackedFight.getFight().addDamageDealt(hitFighter, amount);
 
 		// Exclude certain hitsplat types (like heal, burn, poison, venom, disease)
 		// from the buffer used for HP-before-hit calculations.
@@ -615,30 +724,31 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 			return; // Don't buffer these types for HP calc / matching
 		}
 
-		// Store hitsplats received by competitor or opponent for potential vengeance trigger lookup
-		Player player = client.getLocalPlayer();
-		if (target == player || (hasOpponent() && target == currentFight.getOpponent().getPlayer()))
+		// Buffer the hitsplat instead of processing immediately (unless excluded earlier)
+		// Vengeance damage hitsplats WILL be included here initially. Hitsplats received by the competitor or
+		// opponent in this buffer are also used for the vengeance/recoil trigger lookup.
+		int tick = client.getTickCount();
+		trackedFight.getHitsplatBuffer().add(tick, target, amount, hitType);
+
+		// Get the HP of the hit actors on the client thread, after all of this tick's hitsplats have been applied.
+		// Only one sample is taken per tick, no matter how many hitsplats land.
+		if (tickEventBatch.recordHitsplat(tick))
 		{
-			int currentTick = client.getTickCount();
-			incomingHitsplatsBuffer.computeIfAbsent(currentTick, k -> new CopyOnWriteArrayList<>()).add(new HitsplatInfo(event));
+			clientThread.invokeLater(tickEventFlusher);
 		}
+	}
 
-		// Buffer the hitsplat event instead of processing immediately (unless excluded earlier)
-		// Vengeance damage hitsplats WILL be included here initially.
-		HitsplatInfo info = new HitsplatInfo(event);
-		int tick = client.getTickCount();
-		List<HitsplatInfo> tickEvents = hitsplatBuffer.computeIfAbsent(tick, k -> new ArrayList<>());
-		tickEvents.add(info);
-
-		// Get the HP of the actor on the client thread, after the hitsplat has been applied.
-		clientThread.invokeLater(() ->
+	// Hitsplats on an opponent belong to their fight. Hitsplats on the local player can't be attributed to an attacker,
+	// so they go to a fight whose opponent has an attack that can still land on this tick, see FightManager.
+	private TrackedFight getFightForHitsplat(Actor target)
+	{
+		if (target != client.getLocalPlayer())
 		{
-			Actor hitActor = info.getEvent().getActor();
-			if (hitActor != null)
-			{
-				info.setHp(hitActor.getHealthRatio(), hitActor.getHealthScale());
-			}
-		});
+			TrackedFight trackedFight = fightManager.getFightByOpponent(target);
+			return trackedFight != null ? trackedFight : spectatedFights.getFightByFighter(target);
+		}
+
+		return fightManager.getFightForLocalHitsplat(target, client.getTickCount());
 	}
 
 	@Subscribe
@@ -646,27 +756,44 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 	public void onStatChanged(StatChanged statChanged)
 	{
 		Skill skill = statChanged.getSkill();
+		if (isCombatBoostSkill(skill) || skill == Skill.HITPOINTS || skill == Skill.PRAYER)
+		{
+			int previousPrayerLevel = tickContext.getLocalPrayerLevel();
+			tickContext = tickContext.withLocalLevels(new CombatLevels(client), AssumedPrayers.localPrayerLevel(client));
+			// the assumed defensive prayers depend on the real prayer level, not on the prayer points left
+			if (tickContext.getLocalPrayerLevel() != previousPrayerLevel)
+			{
+				damageCalcContexts.clear();
+			}
+		}
 		if (!hasOpponent()) { return; }
 
+		boolean scheduleFlush = false;
 		if (isCombatBoostSkill(skill))
 		{
-			currentFight.refreshCompetitorLevelsForTick(client.getTickCount(), new CombatLevels(client));
+			scheduleFlush = tickEventBatch.recordLevelsChanged();
 		}
 
 		if (skill == Skill.HITPOINTS)
 		{
-			currentFight.updateCompetitorHp(client.getBoostedSkillLevel(Skill.HITPOINTS));
+			scheduleFlush |= tickEventBatch.recordHpChanged();
 		}
 
 		if (skill == Skill.MAGIC)
 		{
 			int magicXp = client.getSkillExperience(Skill.MAGIC);
+			FightPerformance currentFight = getCurrentFight();
 			if (magicXp > currentFight.competitor.getLastGhostBarrageCheckedMageXp())
 			{
-				currentFight.competitor.setLastGhostBarrageCheckedMageXp(PLUGIN.getClient().getSkillExperience(Skill.MAGIC));
-				clientThread.invokeLater(this::checkForGhostBarrage);
+				currentFight.competitor.setLastGhostBarrageCheckedMageXp(magicXp);
+				scheduleFlush |= tickEventBatch.recordGhostBarrageCheck();
 			}
 		}
+
+		if (scheduleFlush)
+		{
+			clientThread.invokeLater(tickEventFlusher);
+		}
 	}
 
 	private static boolean isCombatBoostSkill(Skill skill)
@@ -684,17 +811,120 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 	{
 		if (!hasOpponent() || fakeXpDrop.getSkill() != Skill.MAGIC) { return; }
 
-		clientThread.invokeLater(this::checkForGhostBarrage);
+		if (tickEventBatch.recordGhostBarrageCheck())
+		{
+			clientThread.invokeLater(tickEventFlusher);
+		}
 	}
 
-	// if the player gained magic xp but doesn't have a magic-attack animation, consider it as a ghost barrage.
-	// however this won't be added as a normal attack, it is for an extra ghost-barrage statistic as
-	// we can only detect this for the local player
-	private void checkForGhostBarrage()
+	// Process every event batched since the last flush, in a single pass. All of them share one combat levels
+	// snapshot. Deaths and inactivity are only checked once per tick, in onGameTick.
+	private void flushTickEvents()
 	{
-		if (!hasOpponent()) { return; }
+		List<TrackedFight> fights = fightManager.getFights();
+		if (tickEventBatch.getHitsplatHpSampleTick() >= 0)
+		{
+			for (int i = 0; i < fights.size(); i++)
+			{
+				fights.get(i).getHitsplatBuffer().sampleHp(tickEventBatch.getHitsplatHpSampleTick());
+			}
+			for (TrackedFight trackedFight : spectatedFights.getFights())
+			{
+				trackedFight.getHitsplatBuffer().sampleHp(tickEventBatch.getHitsplatHpSampleTick());
+			}
+		}
 
-		currentFight.checkForLocalGhostBarrage(new CombatLevels(client), client.getLocalPlayer());
+		if (!isTrackingAnyFight())
+		{
+			tickEventBatch.clear();
+			return;
+		}
+
+		CombatLevels levels = null;
+		for (int i = 0; i < tickEventBatch.getAnimationCount(); i++)
+		{
+			TickEventBatch.PendingAnimation animation = tickEventBatch.getAnimation(i);
+			Player eventSource = animation.getEventSource();
+			if (eventSource.getName() == null)
+			{
+				continue;
+			}
+
+			Actor interacting = eventSource.getInteracting();
+			if (!(interacting instanceof Player) || interacting.getName() == null)
+			{
+				continue;
+			}
+
+			// the local player's attacks belong to the fight against their target, anyone else's to their own fight.
+			boolean isLocalAttack = eventSource == client.getLocalPlayer();
+			TrackedFight trackedFight = fightManager.getFightByOpponent(isLocalAttack ? interacting : eventSource);
+			if (trackedFight == null && !isLocalAttack)
+			{
+				trackedFight = spectatedFights.getFightByFighter(eventSource);
+			}
+			if (trackedFight == null)
+			{
+				continue;
+			}
+			if (isLocalAttack)
+			{
+				fightManager.setPrimary(trackedFight);
+			}
+
+			if (levels == null)
+			{
+				levels = getLocalLevels();
+			}
+			trackedFight.getFight().checkForAttackAnimations(
+				eventSource,
+				interacting.getName(),
+				animation.getAnimationData(),
+				animation.getTick(),
+				animation.getTime(),
+				levels,
+				animation.getSoulreaperStacksVarp());
+		}
+
+		if (tickEventBatch.isLevelsChanged() && hasOpponent())
+		{
+			if (levels == null)
+			{
+				levels = getLocalLevels();
+			}
+			for (int i = 0; i < fights.size(); i++)
+			{
+				fights.get(i).getFight().refreshCompetitorLevelsForTick(client.getTickCount(), levels);
+			}
+		}
+
+		if (tickEventBatch.isHpChanged() && hasOpponent())
+		{
+			// every fight follows the local player's hp, but a heal is only counted in the primary fight's stats.
+			int currentHp = client.getBoostedSkillLevel(Skill.HITPOINTS);
+			TrackedFight primary = fightManager.getPrimary();
+			for (int i = 0; i < fights.size(); i++)
+			{
+				fights.get(i).getFight().updateCompetitorHp(currentHp, fights.get(i) == primary);
+			}
+		}
+
+		// if the player gained magic xp but doesn't have a magic-attack animation, consider it as a ghost barrage.
+		// however this won't be added as a normal attack, it is for an extra ghost-barrage statistic as
+		// we can only detect this for the local player
+		if (tickEventBatch.isGhostBarrageCheckNeeded() && hasOpponent())
+		{
+			if (levels == null)
+			{
+				levels = getLocalLevels();
+			}
+			Player localPlayer = client.getLocalPlayer();
+			TrackedFight trackedFight = localPlayer != null ? fightManager.getFightByOpponent(localPlayer.getInteracting()) : null;
+			FightPerformance fight = trackedFight != null ? trackedFight.getFight() : getCurrentFight();
+			fight.checkForLocalGhostBarrage(levels, localPlayer);
+		}
+
+		tickEventBatch.clear();
 	}
 
 	// When the config is reset, also reset the fight history data, as a way to restart
@@ -724,135 +954,79 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 	@Subscribe
 	public void onGameTick(GameTick event)
 	{
+		tickContext = tickContext.withTick(client.getTickCount());
+
 		// if there is no ongoing fight, skip any onGameTick processing.
 		// We should have enough extra ticks to calc any hitsplats during death animations and empty these queues.
-		if (!hasOpponent()) { return; }
+		if (!isTrackingAnyFight()) { return; }
+
+		int currentTick = tickContext.getTick();
+		List<TrackedFight> fights = fightManager.getFights();
+		for (int i = 0; i < fights.size(); i++)
+		{
+			processFightTick(fights.get(i), currentTick);
+		}
+		for (TrackedFight trackedFight : spectatedFights.getFights())
+		{
+			processFightTick(trackedFight, currentTick);
+		}
 
+		updateFightLifecycles(fightManager, currentTick);
+		updateFightLifecycles(spectatedFights, currentTick);
+	}
+
+	private void processFightTick(TrackedFight trackedFight, int currentTick)
+	{
+		FightPerformance currentFight = trackedFight.getFight();
+		HitsplatRingBuffer hitsplatBuffer = trackedFight.getHitsplatBuffer();
 		currentFight.recordCurrentInventorySnapshot();
 
 		// Process hitsplats from the previous tick
-		int currentTick = client.getTickCount();
 		int tickToProcess = currentTick - 1;
-		int maxWindow = 5;
-		List<HitsplatInfo> hitsplatsToProcess = hitsplatBuffer.remove(tickToProcess);
+		// drop attacks that are too old to still be matched to any hitsplat
+		currentFight.getCompetitor().getPendingAttacks().expire(tickToProcess);
+		currentFight.getOpponent().getPendingAttacks().expire(tickToProcess);
+		int bufferedHitsplats = hitsplatBuffer.size(tickToProcess);
+		hitsplatsToProcess.clear();
+		for (int i = 0; i < bufferedHitsplats; i++)
+		{
+			hitsplatsToProcess.add(hitsplatBuffer.get(tickToProcess, i));
+		}
 
 		// --- START: New Pre-processing Logic ---
-		if (hitsplatsToProcess != null && !hitsplatsToProcess.isEmpty())
+		if (!hitsplatsToProcess.isEmpty())
 		{
 			// 1. Calculate total expected hits from pending attacks for this tick
 			int totalExpectedAttackHits = 0;
-			Player player = client.getLocalPlayer();
+			Actor player = currentFight.getCompetitor().getPlayer();
 			// Assuming getOpponentName() and getOpponentActor() exist or accessing opponent/competitor directly
 			Actor opponentActor = currentFight.getOpponent().getPlayer();
 
 			// Sum expected hits from opponent's pending attacks targeting player
 			if (currentFight.getOpponent() != null)
 			{
-				totalExpectedAttackHits += currentFight.getOpponent().getPendingAttacks().stream()
-					.filter(e -> !e.isKoChanceCalculated() && e.isFullEntry() && !e.isSplash() &&
-						(tickToProcess - getHitsplatMatchTick(e) <= Math.max(5, getAttackLookback(e)))) // Check if attack could land now
-					.mapToInt(FightLogEntry::getExpectedHits)
-					.sum();
+				totalExpectedAttackHits += currentFight.getOpponent().getPendingAttacks().getExpectedHitsLandingOn(tickToProcess);
 			}
 			// Sum expected hits from competitor's pending attacks targeting opponent
 			if (currentFight.getCompetitor() != null)
 			{
-				totalExpectedAttackHits += currentFight.getCompetitor().getPendingAttacks().stream()
-					.filter(e -> !e.isKoChanceCalculated() && e.isFullEntry() && !e.isSplash() &&
-						(tickToProcess - getHitsplatMatchTick(e) <= Math.max(5, getAttackLookback(e)))) // Check if attack could land now
-					.mapToInt(FightLogEntry::getExpectedHits)
-					.sum();
+				totalExpectedAttackHits += currentFight.getCompetitor().getPendingAttacks().getExpectedHitsLandingOn(tickToProcess);
 			}
 
 			// 2. Compare observed vs expected
 			if (hitsplatsToProcess.size() > totalExpectedAttackHits)
 			{
-				log.debug("Tick {}: Observed hits ({}) > Expected attack hits ({}). Checking for special hits...",
-					tickToProcess, hitsplatsToProcess.size(), totalExpectedAttackHits);
-
-				boolean removedHitInIteration;
-				int safetyBreakCounter = 0;
-				int maxIterations = hitsplatsToProcess.size() * 2; // Allow more iterations to be safe
+				int observedHits = hitsplatsToProcess.size();
 
-				// 3. Loop while observed > expected (or until no more candidates found)
-				while (hitsplatsToProcess.size() > totalExpectedAttackHits && safetyBreakCounter++ < maxIterations)
+				// 3. Remove vengeance/recoil candidates, in order, until observed <= expected (or no candidates remain)
+				// burn hitsplats are excluded earlier in onHitsplatApplied
+				reflectedDamageIndex.index(hitsplatBuffer, tickToProcess, player, opponentActor);
+				int removedHits = reflectedDamageIndex.removeReflectedHits(hitsplatsToProcess, totalExpectedAttackHits);
+				if (log.isDebugEnabled()) // avoid boxing the log arguments every tick
 				{
-					removedHitInIteration = false;
-					Iterator<HitsplatInfo> iterator = hitsplatsToProcess.iterator();
-
-					while (iterator.hasNext())
-					{
-						HitsplatInfo potentialSpecialHit = iterator.next();
-						Actor target = potentialSpecialHit.getEvent().getActor();
-						int hitAmount = potentialSpecialHit.getEvent().getHitsplat().getAmount();
-						boolean isCandidate = false;
-
-						// Determine who the 'other' player is (the one who might have *caused* veng/recoil)
-						Actor otherPlayer = null;
-						if (target == player)
-						{
-							otherPlayer = opponentActor;
-						}
-						else if (target == opponentActor)
-						{
-							otherPlayer = player;
-						}
-
-						// 4. Check Candidates (Vengeance/Recoil)
-						if (otherPlayer != null)
-						{
-							List<HitsplatInfo> incomingHitsOnOther = incomingHitsplatsBuffer.get(tickToProcess);
-							if (incomingHitsOnOther != null)
-							{
-								for (HitsplatInfo incomingHit : incomingHitsOnOther)
-								{
-									// Only check hits *received* by the other player
-									if (incomingHit.getEvent().getActor() == otherPlayer)
-									{
-										int incomingDamage = incomingHit.getEvent().getHitsplat().getAmount();
-
-										// Vengeance Check
-										int expectedVengeance = Math.max(1, (int) Math.floor(incomingDamage * 0.75));
-										if (hitAmount == expectedVengeance)
-										{
-											log.debug("Tick {}: Found potential Vengeance hit ({} damage) on {} based on {} incoming damage on {}",
-												tickToProcess, hitAmount, target.getName(), incomingDamage, otherPlayer.getName());
-											isCandidate = true;
-											break; // Found a reason, no need to check other incoming hits for this potentialSpecialHit
-										}
-
-										// Recoil Check
-										int expectedRecoil = Math.max(1, (int) Math.floor(incomingDamage * 0.10) + 1);
-										if (hitAmount == expectedRecoil)
-										{
-											log.debug("Tick {}: Found potential Recoil hit ({} damage) on {} based on {} incoming damage on {}",
-												tickToProcess, hitAmount, target.getName(), incomingDamage, otherPlayer.getName());
-											isCandidate = true;
-											break;
-										}
-									}
-								}
-							}
-						}
-
-						// burn hitsplats are excluded earlier in onHitsplatApplied
-
-						// 5. Remove if Candidate Found
-						if (isCandidate)
-						{
-							iterator.remove();
-							removedHitInIteration = true;
-							break; // Exit inner loop, re-check outer while condition
-						}
-					} // End inner iterator loop
-
-					// Safety break if no hits were removed in a full pass
-					if (!removedHitInIteration)
-					{
-						log.debug("Tick {}: No special hit candidates removed in iteration. Breaking pre-emptive removal.", tickToProcess);
-						break;
-					}
-				} // End outer while loop
+					log.debug("Tick {}: Observed hits ({}) > Expected attack hits ({}). Removed {} potential Vengeance/Recoil hit(s)",
+						tickToProcess, observedHits, totalExpectedAttackHits, removedHits);
+				}
 			} // End if (observed > expected)
 		}
 		// --- END: New Pre-processing Logic ---
@@ -860,420 +1034,86 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 
 		// Cleanup happens regardless of whether hitsplats were processed this tick
 		// Check if hitsplatsToProcess became null or empty after pre-processing
-		// If there is no active fight anymore, avoid accessing currentFight below.
-		if (hitsplatsToProcess == null || hitsplatsToProcess.isEmpty() || !hasOpponent())
+		// Old entries don't need any cleanup: their ring buffer slot is re-used once it expires.
+		if (hitsplatsToProcess.isEmpty())
 		{
-			// Cleanup old entries from buffers
-			hitsplatBuffer.keySet().removeIf(tick -> tick < currentTick - maxWindow);
-			incomingHitsplatsBuffer.keySet().removeIf(tick -> tick < currentTick - maxWindow);
 			return;
 		}
 
 		// --- Proceed with Regular Matching using the potentially modified hitsplatsToProcess ---
+		// Determine max HP to use (Either uses config lvl, or override to 99 for LMS)
+		int maxHpToUse = isInLmsMatch() ? 99 : CONFIG.opponentHitpointsLevel();
+		hitsplatMatcher.matchTick(currentFight, hitsplatsToProcess, tickToProcess, currentTick, maxHpToUse);
 
-		// Group hitsplats by the actor receiving them (remaining hitsplats after special removal)
-		final List<HitsplatInfo> finalHitsplatsToProcess = hitsplatsToProcess; // Create effectively final list
-		Map<Actor, List<HitsplatInfo>> hitsByActor = finalHitsplatsToProcess.stream()
-			.collect(Collectors.groupingBy((HitsplatInfo info) -> info.getEvent().getActor()));
-
-		List<FightLogEntry> processedEntriesThisTick = new ArrayList<>();
-
-		hitsByActor.forEach((opponent, hits) -> {
-			if (!(opponent instanceof Player)) return; // Only process hits on players
-
-			// Determine max HP to use (Either uses config lvl, or override to 99 for LMS)
-			int maxHpToUse;
-			if (isInLmsMatch())
-			{
-				maxHpToUse = 99;
-			}
-			else
-			{
-				maxHpToUse = CONFIG.opponentHitpointsLevel();
-			}
-
-			// Determine attacker safely (handle null names and prefer identity when possible)
-			String actorName = ((Player) opponent).getName();
-			Fighter attacker;
-			Player trackedOppPlayer = currentFight.getOpponent().getPlayer();
-			Player trackedCompPlayer = currentFight.getCompetitor().getPlayer();
-
-			boolean opponentIsTrackedOpponent = opponent == trackedOppPlayer || Objects.equals(actorName, currentFight.getOpponent().getName());
-			boolean opponentIsTrackedCompetitor = opponent == trackedCompPlayer || Objects.equals(actorName, currentFight.getCompetitor().getName());
-
-			if (opponentIsTrackedOpponent)
-			{
-				attacker = currentFight.getCompetitor();
-			}
-			else if (opponentIsTrackedCompetitor)
-			{
-				attacker = currentFight.getOpponent();
-			}
-			else
-			{
-				return;
-			}
-
-			// Get all potentially relevant, unprocessed entries sorted by animation tick
-			List<FightLogEntry> candidateEntries = attacker.getPendingAttacks().stream()
-				.filter(e -> !e.isKoChanceCalculated() && e.isFullEntry() && !e.isSplash())
-				.filter(e -> (client.getTickCount() - getHitsplatMatchTick(e)) <= Math.max(5, getAttackLookback(e)))
-				.sorted(Comparator.comparingInt(this::getHitsplatMatchTick).thenComparingInt(FightLogEntry::getTick))
-				.collect(Collectors.toList());
-
-			List<FightLogEntry> gmaulsMatchedThisTick = new ArrayList<>();
-			int totalGmaulHitsMatchedThisTick = 0;
-
-			// Iterate through candidate entries chronologically
-			for (FightLogEntry entry : candidateEntries)
-			{
-
-				// Apply specific lookback for the entry's style
-				int lookback = getAttackLookback(entry);
-				int hitsplatMatchTick = getHitsplatMatchTick(entry);
-				if (client.getTickCount() - hitsplatMatchTick > lookback)
-				{
-					entry.setKoChanceCalculated(true);
-					attacker.getPendingAttacks().remove(entry);
-					continue;
-				}
-
-				int toMatch = entry.getExpectedHits() - entry.getMatchedHitsCount();
-				if (toMatch <= 0)
-				{
-					entry.setKoChanceCalculated(true);
-					attacker.getPendingAttacks().remove(entry);
-					continue;
-				}
-
-				boolean isInstantGmaulCheck = entry.isGmaulSpecial() && hitsplatMatchTick == tickToProcess;
-				boolean isDelayedAttack = !isInstantGmaulCheck;
-
-				// Only try to match if it's either an instant GMaul or a delayed attack landing now
-				if (isInstantGmaulCheck || isDelayedAttack)
-				{
-					int matchedThisCycle = 0;
-					int damageThisCycle = 0;
-					HitsplatInfo lastMatchedInfo = null;
-					Iterator<HitsplatInfo> hitsIter = hits.iterator();
-
-					// Gmaul can hit twice, others match expected hits
-					int hitsToFind = entry.isGmaulSpecial() ? 2 : toMatch;
-
-					// Enforce Dragon Claws 2+2 sequencing: limit phase one to two hits
-					if (entry.getAnimationData() == AnimationData.MELEE_DRAGON_CLAWS_SPEC && entry.getMatchedHitsCount() < 2)
-					{
-						int remainingPhase1 = Math.max(0, 2 - entry.getMatchedHitsCount());
-						hitsToFind = Math.min(hitsToFind, remainingPhase1);
-					}
-
-					// Simple double-GMaul gate: if a different special fired on the previous tick, cap to a single hit
-					if (entry.isGmaulSpecial())
-					{
-						String attackerName = attacker.getName();
-						if (attackerName != null)
-						{
-							Integer lastSpec = lastNonGmaulSpecTickByAttacker.get(attackerName);
-							if (lastSpec != null && lastSpec == hitsplatMatchTick - 1)
-							{
-								hitsToFind = Math.min(hitsToFind, 1);
-							}
-						}
-					}
-
-					while (matchedThisCycle < hitsToFind && hitsIter.hasNext())
-					{
-						HitsplatInfo hInfo = hitsIter.next();
-						int amt = hInfo.getEvent().getHitsplat().getAmount();
-						damageThisCycle += amt;
-						matchedThisCycle++;
-						lastMatchedInfo = hInfo;
-						hitsIter.remove();
-					}
-
-					if (matchedThisCycle > 0)
-					{
-						entry.setActualDamageSum(entry.getActualDamageSum() + damageThisCycle);
-						entry.setMatchedHitsCount(entry.getMatchedHitsCount() + matchedThisCycle);
-						processedEntriesThisTick.add(entry);
-
-						if (entry.isGmaulSpecial())
-						{
-							gmaulsMatchedThisTick.add(entry);
-							totalGmaulHitsMatchedThisTick += matchedThisCycle;
-						}
-
-						if (entry.getHitsplatTick() < 0 && lastMatchedInfo != null)
-						{
-							entry.setHitsplatTick(tickToProcess);
-						}
+		hitsplatsToProcess.clear();
+	}
 
-						// Calculate and set estimated HP Before using polled HP
-						int ratio = -1, scale = -1;
-						if (lastMatchedInfo != null)
-						{
-							ratio = lastMatchedInfo.getHealthRatio();
-							scale = lastMatchedInfo.getHealthScale();
-						}
-						// Fallback to current ratio/scale if polled is unavailable
-						if (ratio < 0 || scale <= 0) { ratio = opponent.getHealthRatio(); scale = opponent.getHealthScale(); }
-						int hpBefore = -1;
-						int hpBeforeThisCycle = -1;
-						if (ratio >= 0 && scale > 0 && maxHpToUse > 0)
-						{
-							hpBefore = PvpUtils.calculateHpBeforeHit(ratio, scale, maxHpToUse, entry.getActualDamageSum());
-							hpBeforeThisCycle = PvpUtils.calculateHpBeforeHit(ratio, scale, maxHpToUse, damageThisCycle);
-						}
-						if (hpBefore > 0)
-						{
-							entry.setEstimatedHpBeforeHit(hpBefore);
-							entry.setOpponentMaxHp(maxHpToUse);
-						}
+	@Subscribe
+	public void onPlayerSpawned(PlayerSpawned event)
+	{
+		if (!isTrackingAnyFight()) { return; }
 
-						if (entry.getAnimationData() == AnimationData.MELEE_DRAGON_CLAWS_SPEC)
-						{
-							int matched = entry.getMatchedHitsCount();
-							if (matched == 2 && entry.getClawsHpBeforePhase1() == null && hpBeforeThisCycle > 0)
-							{
-								entry.setClawsHpBeforePhase1(hpBeforeThisCycle);
-								entry.setClawsPhase1Damage(damageThisCycle);
-								entry.setClawsHpAfterPhase1(hpBeforeThisCycle - damageThisCycle);
-							}
-							if (matched >= entry.getExpectedHits() && entry.getClawsHpBeforePhase2() == null && hpBeforeThisCycle > 0)
-							{
-								entry.setClawsHpBeforePhase2(hpBeforeThisCycle);
-							}
-						}
-						else if (entry.getAnimationData() == AnimationData.RANGED_DARK_BOW ||
-							entry.getAnimationData() == AnimationData.RANGED_DARK_BOW_SPEC)
-						{
-							int matchedAfter = entry.getMatchedHitsCount();
-							int matchedBefore = matchedAfter - matchedThisCycle;
-
-							if (matchedBefore == 0 && matchedThisCycle >= 2)
-							{
-								entry.setDarkBowHitsStacked(true);
-								if (entry.getDarkBowHpBeforeHit1() == null && hpBeforeThisCycle > 0)
-								{
-									entry.setDarkBowHpBeforeHit1(hpBeforeThisCycle);
-								}
-							}
-							else
-							{
-								if (matchedAfter >= 1 && entry.getDarkBowHpBeforeHit1() == null && hpBeforeThisCycle > 0)
-								{
-									entry.setDarkBowHpBeforeHit1(hpBeforeThisCycle);
-									entry.setDarkBowHpAfterHit1(hpBeforeThisCycle - damageThisCycle);
-								}
-								if (matchedAfter >= entry.getExpectedHits() && entry.getDarkBowHpBeforeHit2() == null && hpBeforeThisCycle > 0)
-								{
-									entry.setDarkBowHpBeforeHit2(hpBeforeThisCycle);
-								}
-							}
-						}
-					}
-				}
+		fightManager.onPlayerSpawned(event.getPlayer());
+		spectatedFights.onPlayerSpawned(event.getPlayer());
+	}
 
-				// Mark entry as fully processed if all expected hits are matched OR if it's an instant Gmaul (even if only 1 hit matched)
-				if (entry.getMatchedHitsCount() >= entry.getExpectedHits() || isInstantGmaulCheck)
-				{
-					entry.setKoChanceCalculated(true);
-					attacker.getPendingAttacks().remove(entry);
-				}
-			}
+	// a fighter's appearance changed, usually from a gear switch: pre-calculate the likely attacks with the new gear,
+	// so the calcs are done before the attack animations come in, rather than after.
+	@Subscribe
+	public void onPlayerChanged(PlayerChanged event)
+	{
+		if (!isTrackingAnyFight()) { return; }
 
-			// Gmaul Damage Scaling (Applied after all matching for the tick)
-			boolean isMultiHitGmaul = totalGmaulHitsMatchedThisTick >= 2;
-			if (isMultiHitGmaul)
+		Player player = event.getPlayer();
+		getLocalLevels(); // make sure the assumed prayers are based on taken levels
+		AssumedPrayerTable assumedPrayers = tickContext.getAssumedPrayers();
+		if (player == client.getLocalPlayer())
+		{
+			List<TrackedFight> fights = fightManager.getFights();
+			for (int i = 0; i < fights.size(); i++)
 			{
-				for (FightLogEntry gmaulEntry : gmaulsMatchedThisTick)
-				{
-					int originalMin = gmaulEntry.getMinHit();
-					int originalMax = gmaulEntry.getMaxHit();
-					double originalExpected = gmaulEntry.getExpectedDamage();
-					gmaulEntry.setMaxHit(originalMax * totalGmaulHitsMatchedThisTick);
-					gmaulEntry.setMinHit(originalMin * totalGmaulHitsMatchedThisTick);
-					gmaulEntry.setExpectedDamage(originalExpected * totalGmaulHitsMatchedThisTick);
-				}
+				fights.get(i).getFight().precomputeLikelyAttacks(assumedPrayers);
 			}
-		});
-
-		// Post-processing for Display HP/KO Chance
-		if (!processedEntriesThisTick.isEmpty())
-		{
-			// Group processed entries by the tick they landed and the attacker
-			Map<Integer, Map<String, List<FightLogEntry>>> groupedByTickAndAttacker = processedEntriesThisTick.stream()
-				.filter(e -> e.getHitsplatTick() >= 0)
-				.collect(Collectors.groupingBy(
-					FightLogEntry::getHitsplatTick,
-					Collectors.groupingBy(
-						FightLogEntry::getAttackerName,
-						Collectors.toList()
-					)
-				));
-
-			groupedByTickAndAttacker.forEach((tick, attackerMap) -> {
-				attackerMap.forEach((attackerName, entries) -> {
-					if (entries.isEmpty()) return;
-
-					// Sort entries within the tick group by their original animation tick
-					entries.sort(Comparator.comparingInt(FightLogEntry::getTick));
-
-					boolean isGroup = entries.size() > 1;
-
-					// Calculate Correct Starting HP for Forward Cascade
-					Integer hpBeforeSequence = null;
-					FightLogEntry lastEntry = entries.get(entries.size() - 1);
-					Integer hpBeforeLastHit = lastEntry.getEstimatedHpBeforeHit();
-					Integer lastHitDamage = lastEntry.getActualDamageSum();
-
-					// Ensure we have the necessary values from the last hit to calculate final HP
-					if (hpBeforeLastHit != null && lastHitDamage != null)
-					{
-						Integer hpAfterSequence = hpBeforeLastHit - lastHitDamage;
-
-						// Calculate total damage for the sequence
-						int totalDamageInSequence = entries.stream()
-							.mapToInt((FightLogEntry e) -> e.getActualDamageSum() != null ? e.getActualDamageSum() : 0)
-							.sum();
-
-						// Calculate HP Before the entire sequence
-						hpBeforeSequence = hpAfterSequence + totalDamageInSequence;
-					}
-
-					// If hpBeforeSequence is still null (calculation failed), try fallback using first entry's estimate
-					if (hpBeforeSequence == null)
-					{
-						hpBeforeSequence = entries.get(0).getEstimatedHpBeforeHit();
-					}
-
-					// Forward Cascade for Display
-					Integer currentHp = hpBeforeSequence;
-					for (FightLogEntry entry : entries)
-					{
-						Integer hpBeforeCurrent = currentHp;
-						int damageCurrent = entry.getActualDamageSum() != null ? entry.getActualDamageSum() : 0;
-						Integer hpAfterCurrent = (hpBeforeCurrent != null) ? hpBeforeCurrent - damageCurrent : null;
-
-						entry.setDisplayHpBefore(hpBeforeCurrent);
-						entry.setDisplayHpAfter(hpAfterCurrent);
-
-						Double koChanceCurrent = null;
-						boolean isClawsSpec = entry.getAnimationData() == AnimationData.MELEE_DRAGON_CLAWS_SPEC && entry.getExpectedHits() >= 4;
-						boolean isDarkBow = entry.getAnimationData() == AnimationData.RANGED_DARK_BOW ||
-							entry.getAnimationData() == AnimationData.RANGED_DARK_BOW_SPEC;
-						if (isClawsSpec)
-						{
-							if (hpBeforeCurrent != null && entry.getMatchedHitsCount() >= entry.getExpectedHits())
-							{
-								int healBetween = 0;
-								Integer hpAfterP1 = entry.getClawsHpAfterPhase1();
-								Integer hpBeforeP2 = entry.getClawsHpBeforePhase2();
-								if (hpAfterP1 != null && hpBeforeP2 != null)
-								{
-									healBetween = Math.max(0, hpBeforeP2 - hpAfterP1);
-								}
-								koChanceCurrent = PvpUtils.calculateClawsTwoPhaseKo(entry.getAccuracy(), entry.getMaxHit(), hpBeforeCurrent, healBetween);
-							}
-						}
-						else if (isDarkBow)
-						{
-							if (hpBeforeCurrent != null && entry.getMatchedHitsCount() >= entry.getExpectedHits())
-							{
-								int healBetween = 0;
-								if (!entry.isDarkBowHitsStacked())
-								{
-									Integer hpAfterHit1 = entry.getDarkBowHpAfterHit1();
-									Integer hpBeforeHit2 = entry.getDarkBowHpBeforeHit2();
-									if (hpAfterHit1 != null && hpBeforeHit2 != null)
-									{
-										healBetween = Math.max(0, hpBeforeHit2 - hpAfterHit1);
-									}
-								}
-								koChanceCurrent = PvpUtils.calculateDarkBowTwoPhaseKo(
-									entry.getAccuracy(),
-									entry.getMinHit(),
-									entry.getMaxHit(),
-									hpBeforeCurrent,
-									healBetween
-								);
-							}
-						}
-							else
-							{
-								if (hpBeforeCurrent != null)
-								{
-									switch (entry.getDamageRollDistribution())
-									{
-										case CLAMPED_TO_MINIMUM:
-											koChanceCurrent = PvpUtils.calculateClampedKoChance(
-												entry.getAccuracy(),
-												entry.getMinHit(),
-												entry.getMaxHit(),
-												hpBeforeCurrent
-											);
-											break;
-										case MULTI_HIT_CLAMPED_TO_MINIMUM:
-											koChanceCurrent = PvpUtils.calculateMultiHitClampedKoChance(
-												entry.getAccuracy(),
-												entry.getMinHit(),
-												entry.getMaxHit(),
-												entry.getDamageRollHitCount(),
-												hpBeforeCurrent
-											);
-											break;
-										case STANDARD:
-										default:
-											koChanceCurrent = PvpUtils.calculateKoChance(
-												entry.getAccuracy(),
-												entry.getMinHit(),
-												entry.getMaxHit(),
-												hpBeforeCurrent
-											);
-											break;
-									}
-								}
-							}
-
-						if (koChanceCurrent != null && koChanceCurrent <= 0.0)
-						{
-							koChanceCurrent = null;
-						}
-
-						entry.setDisplayKoChance(koChanceCurrent);
-						entry.setKoChance(koChanceCurrent);
-
-						currentFight.updateKoChanceStats(entry);
-
-						entry.setPartOfTickGroup(isGroup);
-
-						// Update HP for the next iteration
-						currentHp = hpAfterCurrent;
-				}
-				});
-			});
+			return;
 		}
 
-		// Cleanup old entries from buffers at the end of the tick processing
-		hitsplatBuffer.keySet().removeIf(tick -> tick < currentTick - maxWindow);
-		incomingHitsplatsBuffer.keySet().removeIf(tick -> tick < currentTick - maxWindow);
+		TrackedFight trackedFight = fightManager.getFightByOpponent(player);
+		if (trackedFight != null)
+		{
+			trackedFight.getFight().precomputeLikelyAttacks(assumedPrayers);
+		}
+		TrackedFight spectatedFight = spectatedFights.getFightByFighter(player);
+		if (spectatedFight != null)
+		{
+			spectatedFight.getFight().precomputeLikelyAttacks(assumedPrayers);
+		}
 	}
 
 	@Subscribe
 	public void onPlayerDespawned(PlayerDespawned event)
 	{
-		if (!hasOpponent()) { return; }
+		interactionPairs.remove(event.getPlayer());
+		if (!isTrackingAnyFight()) { return; }
 		Player despawned = event.getPlayer();
 		if (despawned == null || despawned.getName() == null) { return; }
 
-		if (currentFight == null || currentFight.getOpponent() == null) { return; }
-		String opponentName = currentFight.getOpponent().getName();
-		if (opponentName == null) { return; }
+		TrackedFight trackedFight = fightManager.getFightByOpponent(despawned);
+		if (trackedFight == null)
+		{
+			trackedFight = fightManager.getFightByOpponentName(despawned.getName());
+		}
+		if (trackedFight == null)
+		{
+			// either fighter of a spectated fight can despawn after dying
+			trackedFight = spectatedFights.getFightByFighter(despawned);
+		}
+		if (trackedFight == null) { return; }
+		FightPerformance fight = trackedFight.getFight();
 
 		// End fight when opponent despawns after a death was observed on either side
-		if (despawned.getName().equals(opponentName) && (currentFight.getOpponent().isDead() || currentFight.getCompetitor().isDead()))
+		if (fight.getOpponent().isDead() || fight.getCompetitor().isDead())
 		{
-			onFightEnded();
+			onFightEnded(trackedFight);
 		}
 	}
 
@@ -1286,27 +1126,6 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 		lastNonGmaulSpecTickByAttacker.put(attackerName, tick);
 	}
 
-	private int getHitsplatMatchTick(FightLogEntry entry)
-	{
-		return entry.getHitsplatMatchTick() >= 0 ? entry.getHitsplatMatchTick() : entry.getTick();
-	}
-
-	private int getAttackLookback(FightLogEntry entry)
-	{
-		switch (entry.getAnimationData().attackStyle)
-		{
-			case STAB:
-			case SLASH:
-			case CRUSH:
-				return 3;
-			case MAGIC:
-				return 6;
-			case RANGED:
-			default:
-				return 4;
-		}
-	}
-
 	// #################################################################################################################
 	// ################################## Plugin-specific functions & global helpers ###################################
 	// #################################################################################################################
@@ -1367,29 +1186,58 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 	// Returns true if the player has an opponent.
 	private boolean hasOpponent()
 	{
-		return currentFight != null;
+		return !fightManager.isEmpty();
 	}
 
+	// Returns true if the player has an opponent or if other players' fights are being spectated.
+	private boolean isTrackingAnyFight()
+	{
+		return hasOpponent() || !spectatedFights.isEmpty();
+	}
 
-	private void checkForFightEnd()
+	// The fight shown on the overlay: the most recent fight the local player attacked in, when tracking several.
+	public FightPerformance getCurrentFight()
 	{
-		if (!hasOpponent()) { return; }
+		TrackedFight primary = fightManager.getPrimary();
+		return primary != null ? primary.getFight() : null;
+	}
 
-		// ensure we check for death animations so that Fighter.isDead gets set properly, but we don't need to
-		// use the state of deaths for ending fights YET (not instantly), we do that within onPlayerDespawned
-		// in order to give everything time to process and allow time to check for double deaths, hitsplats etc
-		currentFight.checkForDeathAnimations();
 
-		// if the fight has been inactive for 20+ secs however (FightPerformance.NEW_FIGHT_DELAY, plus however long
-		// until they triggered an event for this check), just end it.
-		if (currentFight.isInactive())
+	// Evaluated once per game tick, after the tick's hitsplats were processed.
+	private void updateFightLifecycles(FightManager manager, int currentTick)
+	{
+		// iterate backwards since fights can be ended along the way
+		List<TrackedFight> fights = manager.getFights();
+		for (int i = fights.size() - 1; i >= 0; i--)
 		{
-			onFightEnded();
+			TrackedFight trackedFight = fights.get(i);
+
+			// this checks for death animations so that Fighter.isDead gets set properly, but we don't need to
+			// use the state of deaths for ending fights YET (not instantly), we do that within onPlayerDespawned
+			// in order to give everything time to process and allow time to check for double deaths, hitsplats etc
+			// If the fight has been inactive for 20+ secs however (FightPerformance.NEW_FIGHT_DELAY), just end it.
+			if (trackedFight.getFight().updateLifecycle(currentTick) == FightPerformance.LifecycleState.INACTIVE)
+			{
+				onFightEnded(trackedFight);
+			}
 		}
 	}
 
-	private void onFightEnded()
+	private void onFightEnded(TrackedFight trackedFight)
 	{
+		FightPerformance currentFight = trackedFight.getFight();
+		if (currentFight.isSpectated())
+		{
+			// spectated fights are kept in the fight history, but they aren't the player's own to share.
+			if (currentFight.fightStarted())
+			{
+				currentFight.makeLogTicksRelativeToFightStart();
+				addToFightHistory(currentFight);
+			}
+			spectatedFights.end(trackedFight);
+			return;
+		}
+
 		// add fight to fight history if it actually started
 		if (currentFight.fightStarted())
 		{
@@ -1436,9 +1284,11 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 				log.warn("onFightEnded - error while sending PluginMessage containing fight data for PvP Leaderboard.");
 			}
 		}
-		currentFight = null;
-		hitsplatBuffer.clear();
-		incomingHitsplatsBuffer.clear();
+		fightManager.end(trackedFight);
+		if (hasOpponent())
+		{
+			overlay.setFight(getCurrentFight());
+		}
 	}
 
 	// add fight to loaded fight history
@@ -1600,9 +1450,9 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 					f.getPvpHubDisplayFight().calculateRobeHits(config.robeHitFilter());
 				}
 			}
-			if (currentFight != null)
+			for (TrackedFight trackedFight : fightManager.getFights())
 			{
-				currentFight.calculateRobeHits(config.robeHitFilter());
+				trackedFight.getFight().calculateRobeHits(config.robeHitFilter());
 			}
 			if (rebuildPanel)
 			{
@@ -1667,6 +1517,12 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 		{
 			initializeImportedFight(f);
 		}
+
+		// learn which attacks are used with which weapons, for pre-calculating attacks on gear changes
+		for (FightPerformance f : fights)
+		{
+			PvpDamageCalc.WEAPON_ANIMATIONS.recordFight(f);
+		}
 	}
 
 	public void resetFightHistoryKeepingFavorites()
@@ -1746,13 +1602,40 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 		});
 	}
 
+	// the local player's current (boosted) levels, from the tick context.
+	CombatLevels getLocalLevels()
+	{
+		if (tickContext.getLocalLevels() == null)
+		{
+			tickContext = tickContext.withLocalLevels(new CombatLevels(client), AssumedPrayers.localPrayerLevel(client));
+		}
+		return tickContext.getLocalLevels();
+	}
+
+	// re-take the whole tick context from the client, should be called on the client thread.
+	private void refreshTickContext()
+	{
+		tickContext = new GameTickContext(client.getTickCount(), readInLmsMatch(), readAtLmsIncludingFerox(),
+			new CombatLevels(client), AssumedPrayers.localPrayerLevel(client));
+	}
+
 	public boolean isInLmsMatch()
+	{
+		return tickContext.isInLmsMatch();
+	}
+
+	public boolean isAtLmsIncludingFerox()
+	{
+		return tickContext.isAtLmsIncludingFerox();
+	}
+
+	private boolean readInLmsMatch()
 	{
 		//log.info("PvpPerformanceTrackerPlugin.isInLmsMatch - BR_INGAME varbit={}, BR_ACTIVE_BUILD_PLAYER={}, BR_MODE_SELECTED={}", client.getVarbitValue(VarbitID.BR_INGAME), client.getVarbitValue(VarbitID.BR_ACTIVE_BUILD_PLAYER), client.getVarbitValue(VarbitID.BR_MODE_SELECTED));
 		return client.getVarbitValue(VarbitID.BR_INGAME) != 0;
 	}
 
-	public boolean isAtLmsIncludingFerox()
+	private boolean readAtLmsIncludingFerox()
 	{
 		final int[] mapRegions = client.getMapRegions();
 
@@ -1994,4 +1877,99 @@ public class PvpPerformanceTrackerPlugin extends Plugin
 	{
 		configManager.setConfiguration(CONFIG_KEY, "displayUnsyncedFightWarning", !config.displayUnsyncedFightWarning());
 	}
+
+	// The damage calc context of live fights of the given type, taken from the current config & client the first time
+	// it's needed after a change. Client thread only.
+	public DamageCalcContext getDamageCalcContext(FightType fightType)
+	{
+		DamageCalcContext context = damageCalcContexts.get(fightType);
+		if (context == null)
+		{
+			context = DamageCalcContext.fromConfig(fightType, gearBonuses);
+			damageCalcContexts.put(fightType, context);
+		}
+		return context;
+	}
+
+	// Re-calculate the expected damage, accuracy & hit ranges of every fight in the history using the current
+	// damage-relevant config (assumed levels, ring & ammo), for example after changing those settings.
+	// Attacks are re-calculated with the same inputs as live fights, see PvpDamageCalc.recalculate.
+	// Note this does not re-calculate KO chances, and only updates the fights in memory.
+	public void recalculateFightHistory()
+	{
+		TotalStatsPanel.recalculateFightHistoryMenuItem.setEnabled(false);
+		// the contexts read the config & client, so take them on the client thread. The calcs themselves don't.
+		clientThread.invokeLater(() ->
+		{
+			Map<FightType, DamageCalcContext> contexts = new EnumMap<>(FightType.class);
+			for (FightType fightType : FightType.values())
+			{
+				contexts.put(fightType, DamageCalcContext.fromConfig(fightType, gearBonuses));
+			}
+			// each worker sums gear bonuses into its own cache, so they only share the item stats, on gear cache misses.
+			ThreadLocal<Map<FightType, DamageCalcContext>> workerContexts = ThreadLocal.withInitial(() ->
+			{
+				GearBonusCache workerGearBonuses = PvpDamageCalc.newGearBonusCache(itemStats);
+				Map<FightType, DamageCalcContext> workerMap = new EnumMap<>(FightType.class);
+				contexts.forEach((fightType, context) -> workerMap.put(fightType, context.withGearBonuses(workerGearBonuses)));
+				return workerMap;
+			});
+
+			fightHistoryRecalculator.recalculate(new ArrayList<>(fightHistory),
+				(fight, attack, defenderLog) -> PvpDamageCalc.recalculate(
+					workerContexts.get().get(fight.fightType != null ? fight.fightType : FightType.NORMAL), attack, defenderLog),
+				(done, total) ->
+				{
+					TotalStatsPanel.setRecalculateFightHistoryProgress(done, total);
+					if (done >= total)
+					{
+						log.debug("Re-calculated {} fights", total);
+						panel.enqueueRebuild();
+					}
+				});
+		});
+	}
+
+	// Replay every fight in the history with random damage rolls, to show how many fights should have been won
+	// compared to how many really were. Only uses the recorded logs, so it doesn't need the client thread.
+	// Spectated fights aren't the player's own, so they're left out like they are from the total stats.
+	public void simulateFightHistory()
+	{
+		TotalStatsPanel.simulateFightHistoryMenuItem.setEnabled(false);
+		List<FightPerformance> ownFights = new ArrayList<>();
+		for (FightPerformance fight : fightHistory)
+		{
+			if (!fight.isSpectated())
+			{
+				ownFights.add(fight);
+			}
+		}
+
+		fightSimulator.simulate(ownFights, SIMULATIONS_PER_FIGHT, System.nanoTime(), report ->
+		{
+			TotalStatsPanel.simulateFightHistoryMenuItem.setEnabled(true);
+			int fightCount = report.getFights().size();
+			if (fightCount == 0)
+			{
+				createConfirmationModal(false, "There are no fights to simulate.");
+				return;
+			}
+
+			double damagePercentile = 0;
+			for (FightSimulator.FightResult fight : report.getFights())
+			{
+				damagePercentile += fight.getDamagePercentile();
+			}
+			damagePercentile /= fightCount;
+			double luck = report.getLuck();
+
+			createConfirmationModal(true, "<html>Simulated " + nf.format(fightCount) + " fights " +
+				nf.format(SIMULATIONS_PER_FIGHT) + " times each, rolling the damage of their recorded attacks.<br><br>" +
+				"Expected wins: " + nf1.format(report.getExpectedScore()) + " (draws count as half a win)<br>" +
+				"Actual wins: " + nf1.format(report.getActualScore()) + "<br>" +
+				"Luck: " + (luck >= 0 ? "+" : "") + nf1.format(luck) + " wins<br>" +
+				"Damage luck: on average, dealt as much or more than in " + nfP.format(damagePercentile) + " of simulations<br><br>" +
+				"(" + nf.format(report.getSimulationsPerSecond()) + " simulations/s)");
+		});
+	}
 }
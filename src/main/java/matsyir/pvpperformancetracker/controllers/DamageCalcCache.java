@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.CombatLevels;
+import matsyir.pvpperformancetracker.models.RingData;
+
+// LRU cache of full damage calc results, keyed by every input of the formula chain (the attack signature).
+// Identical attacks are very common (e.g. a string of whip hits in the same gear against the same defender), and a
+// hit skips max hit/accuracy/average hit calculations entirely.
+// Lookups go through one re-used probe signature, so hits don't allocate; the signature is only copied when a
+// result gets stored. Not thread-safe: each PvpDamageCalc owns its own cache, apart from the LMS cache shared by the
+// live calcs on the client thread (see PvpDamageCalc.LMS_RESULT_CACHE).
+// Config that the formulas read directly (e.g. the assumed bolt choices) isn't part of the signature, instead
+// invalidate() drops every cache's results the next time it's used.
+public final class DamageCalcCache
+{
+	private static volatile int generation = 0;
+
+	public static void invalidate()
+	{
+		generation++;
+	}
+
+	private final Map<Signature, DamageCalcResult> results;
+	private final Signature probe = new Signature();
+	private int cachedGeneration = generation;
+	@Getter
+	private long hitCount = 0;
+	@Getter
+	private long missCount = 0;
+
+	public DamageCalcCache(int capacity)
+	{
+		if (capacity <= 0)
+		{
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+
+		results = new LinkedHashMap<Signature, DamageCalcResult>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Signature, DamageCalcResult> eldest)
+			{
+				return size() > capacity;
+			}
+		};
+	}
+
+	// Look up the result for the given attack signature, or null if it needs to be calculated.
+	// After a miss, the calculated result should be stored with put().
+	// fromLog/defenderAugury: the fight log analysis path uses fixed defensive prayer modifiers plus the defender's
+	// logged Augury, while live tracking derives them from localPrayerLevel instead.
+	public DamageCalcResult get(int[] attackerItems, RingData attackerRing, int[] defenderItems, RingData defenderRing,
+		Integer attackerAmmoItemId, AnimationData animationData, boolean success, int offensivePray, int soulreaperStacks,
+		CombatLevels attackerLevels, CombatLevels defenderLevels, int localPrayerLevel, boolean fromLog, boolean defenderAugury)
+	{
+		if (cachedGeneration != generation)
+		{
+			cachedGeneration = generation;
+			results.clear();
+		}
+
+		probe.set(attackerItems, attackerRing, defenderItems, defenderRing, attackerAmmoItemId, animationData, success,
+			offensivePray, soulreaperStacks, attackerLevels, defenderLevels, localPrayerLevel, fromLog, defenderAugury);
+		DamageCalcResult result = results.get(probe);
+		if (result != null)
+		{
+			hitCount++;
+		}
+		else
+		{
+			missCount++;
+		}
+		return result;
+	}
+
+	// Store the result for the signature of the last get() call.
+	public void put(DamageCalcResult result)
+	{
+		results.put(probe.copy(), result);
+	}
+
+	public int size()
+	{
+		return results.size();
+	}
+
+	public void clear()
+	{
+		results.clear();
+	}
+
+	private static final class Signature
+	{
+		private int[] attackerItems;
+		private RingData attackerRing;
+		private int[] defenderItems;
+		private RingData defenderRing;
+		private int attackerAmmoItemId;
+		private AnimationData animationData;
+		private boolean success;
+		private int offensivePray;
+		private int soulreaperStacks;
+		private final int[] levels = new int[12];
+		private int localPrayerLevel;
+		private boolean fromLog;
+		private boolean defenderAugury;
+		private int hash;
+
+		private void set(int[] attackerItems, RingData attackerRing, int[] defenderItems, RingData defenderRing,
+			Integer attackerAmmoItemId, AnimationData animationData, boolean success, int offensivePray, int soulreaperStacks,
+			CombatLevels attackerLevels, CombatLevels defenderLevels, int localPrayerLevel, boolean fromLog, boolean defenderAugury)
+		{
+			this.attackerItems = attackerItems;
+			this.attackerRing = attackerRing;
+			this.defenderItems = defenderItems;
+			this.defenderRing = defenderRing;
+			this.attackerAmmoItemId = attackerAmmoItemId == null ? -1 : attackerAmmoItemId;
+			this.animationData = animationData;
+			this.success = success;
+			this.offensivePray = offensivePray;
+			this.soulreaperStacks = soulreaperStacks;
+			setLevels(0, attackerLevels);
+			setLevels(6, defenderLevels);
+			this.localPrayerLevel = localPrayerLevel;
+			this.fromLog = fromLog;
+			this.defenderAugury = defenderAugury;
+
+			int h = Arrays.hashCode(attackerItems);
+			h = 31 * h + Arrays.hashCode(defenderItems);
+			h = 31 * h + (attackerRing == null ? 0 : attackerRing.ordinal() + 1);
+			h = 31 * h + (defenderRing == null ? 0 : defenderRing.ordinal() + 1);
+			h = 31 * h + this.attackerAmmoItemId;
+			h = 31 * h + (animationData == null ? 0 : animationData.ordinal() + 1);
+			h = 31 * h + offensivePray;
+			h = 31 * h + soulreaperStacks;
+			h = 31 * h + Arrays.hashCode(levels);
+			h = 31 * h + localPrayerLevel;
+			h = 31 * h + (success ? 1 : 0) + (fromLog ? 2 : 0) + (defenderAugury ? 4 : 0);
+			hash = h;
+		}
+
+		private void setLevels(int offset, CombatLevels combatLevels)
+		{
+			if (combatLevels == null)
+			{
+				Arrays.fill(levels, offset, offset + 6, -1);
+				return;
+			}
+
+			levels[offset] = combatLevels.atk;
+			levels[offset + 1] = combatLevels.str;
+			levels[offset + 2] = combatLevels.def;
+			levels[offset + 3] = combatLevels.range;
+			levels[offset + 4] = combatLevels.mage;
+			levels[offset + 5] = combatLevels.hp;
+		}
+
+		// the probe references the caller's equipment arrays, which the client re-uses & mutates, so stored
+		// signatures get their own copies.
+		private Signature copy()
+		{
+			Signature copy = new Signature();
+			copy.attackerItems = attackerItems == null ? null : attackerItems.clone();
+			copy.attackerRing = attackerRing;
+			copy.defenderItems = defenderItems == null ? null : defenderItems.clone();
+			copy.defenderRing = defenderRing;
+			copy.attackerAmmoItemId = attackerAmmoItemId;
+			copy.animationData = animationData;
+			copy.success = success;
+			copy.offensivePray = offensivePray;
+			copy.soulreaperStacks = soulreaperStacks;
+			System.arraycopy(levels, 0, copy.levels, 0, levels.length);
+			copy.localPrayerLevel = localPrayerLevel;
+			copy.fromLog = fromLog;
+			copy.defenderAugury = defenderAugury;
+			copy.hash = hash;
+			return copy;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (!(o instanceof Signature))
+			{
+				return false;
+			}
+
+			Signature other = (Signature) o;
+			return hash == other.hash
+				&& attackerRing == other.attackerRing
+				&& defenderRing == other.defenderRing
+				&& attackerAmmoItemId == other.attackerAmmoItemId
+				&& animationData == other.animationData
+				&& success == other.success
+				&& offensivePray == other.offensivePray
+				&& soulreaperStacks == other.soulreaperStacks
+				&& localPrayerLevel == other.localPrayerLevel
+				&& fromLog == other.fromLog
+				&& defenderAugury == other.defenderAugury
+				&& Arrays.equals(levels, other.levels)
+				&& Arrays.equals(attackerItems, other.attackerItems)
+				&& Arrays.equals(defenderItems, other.defenderItems);
+		}
+	}
+}
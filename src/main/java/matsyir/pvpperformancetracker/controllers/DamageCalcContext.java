@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import lombok.Getter;
+import matsyir.pvpperformancetracker.models.AssumedPrayerTable;
+import matsyir.pvpperformancetracker.models.CombatLevels;
+import matsyir.pvpperformancetracker.models.EquipmentData;
+import matsyir.pvpperformancetracker.models.FightType;
+import matsyir.pvpperformancetracker.models.RangeAmmoData;
+import matsyir.pvpperformancetracker.models.RingData;
+import net.runelite.api.Skill;
+import static matsyir.pvpperformancetracker.PvpPerformanceTrackerPlugin.CONFIG;
+import static matsyir.pvpperformancetracker.PvpPerformanceTrackerPlugin.PLUGIN;
+
+// Immutable snapshot of everything outside of the attack itself that the damage calcs depend on: assumed levels,
+// assumed ring & ammo choices, the local prayer level (which decides the defender's assumed prayers) and where
+// equipment bonuses come from. Calculations given a context don't touch the client or config, so they can run on
+// any thread. fromConfig takes the snapshot from the current config & client, and should be called on the client thread.
+// The gear bonus cache is synchronized, so each thread of a parallel re-calculation should use its own, see withGearBonuses.
+@Getter
+public final class DamageCalcContext
+{
+	private final CombatLevels defaultLevels;
+	private final boolean lmsFight;
+	private final RingData ringChoice;
+	private final RangeAmmoData.BoltAmmo boltChoice;
+	private final RangeAmmoData.StrongBoltAmmo strongBoltChoice;
+	private final RangeAmmoData.DartAmmo bpDartChoice;
+	private final int localPrayerLevel;
+	private final AssumedPrayerTable assumedPrayers; // the defender's assumed prayers, from localPrayerLevel & default def
+	private final GearBonusCache gearBonuses;
+
+	public DamageCalcContext(CombatLevels defaultLevels, boolean lmsFight, RingData ringChoice,
+		RangeAmmoData.BoltAmmo boltChoice, RangeAmmoData.StrongBoltAmmo strongBoltChoice, RangeAmmoData.DartAmmo bpDartChoice,
+		int localPrayerLevel, GearBonusCache gearBonuses)
+	{
+		this.defaultLevels = defaultLevels;
+		this.lmsFight = lmsFight;
+		this.ringChoice = ringChoice;
+		this.boltChoice = boltChoice;
+		this.strongBoltChoice = strongBoltChoice;
+		this.bpDartChoice = bpDartChoice;
+		this.localPrayerLevel = localPrayerLevel;
+		this.assumedPrayers = AssumedPrayerTable.forLevels(localPrayerLevel, defaultLevels != null ? defaultLevels.def : 1);
+		this.gearBonuses = gearBonuses;
+	}
+
+	public static DamageCalcContext fromConfig(FightType fightType, GearBonusCache gearBonuses)
+	{
+		CombatLevels levels = fightType.getCombatLevelsForType();
+		return new DamageCalcContext(levels != null ? levels : CombatLevels.getConfigLevels(), fightType.isLmsFight(), CONFIG.ringChoice(),
+			CONFIG.boltChoice(), CONFIG.strongBoltChoice(), CONFIG.bpDartChoice(),
+			PLUGIN.getClient().getRealSkillLevel(Skill.PRAYER), gearBonuses);
+	}
+
+	// the same context, with equipment bonuses taken from the given cache.
+	public DamageCalcContext withGearBonuses(GearBonusCache gearBonuses)
+	{
+		return new DamageCalcContext(defaultLevels, lmsFight, ringChoice, boltChoice, strongBoltChoice, bpDartChoice,
+			localPrayerLevel, gearBonuses);
+	}
+
+	// the ring assumed for players whose worn ring isn't visible. LMS always uses a berserker ring (i).
+	public RingData getAssumedRing()
+	{
+		return lmsFight ? RingData.BERSERKER_RING_I : ringChoice;
+	}
+
+	// the configured ammo for the weapon, for weapons whose ammo isn't visible.
+	public RangeAmmoData getAssumedAmmo(EquipmentData weapon)
+	{
+		return EquipmentData.getWeaponAmmo(weapon, lmsFight, boltChoice, strongBoltChoice, bpDartChoice);
+	}
+}
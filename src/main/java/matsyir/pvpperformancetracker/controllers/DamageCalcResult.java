@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import lombok.Getter;
+import matsyir.pvpperformancetracker.controllers.PvpDamageCalc.DamageRollDistribution;
+
+// Immutable outcome of one PvpDamageCalc run, so it can be cached and shared between identical attacks.
+@Getter
+public final class DamageCalcResult
+{
+	private final double averageHit;
+	private final double accuracy;
+	private final int minHit;
+	private final int maxHit;
+	private final DamageRollDistribution damageRollDistribution;
+	private final int damageRollHitCount;
+
+	public DamageCalcResult(double averageHit, double accuracy, int minHit, int maxHit,
+		DamageRollDistribution damageRollDistribution, int damageRollHitCount)
+	{
+		this.averageHit = averageHit;
+		this.accuracy = accuracy;
+		this.minHit = minHit;
+		this.maxHit = maxHit;
+		this.damageRollDistribution = damageRollDistribution;
+		this.damageRollHitCount = damageRollHitCount;
+	}
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+
+// Re-runs the damage calcs over already-recorded fights, e.g. after changing the assumed ring or ammo.
+// The calcs are split over a ForkJoinPool by ranges of fights, while the results are applied through the given
+// executor (the swing EDT in the plugin) a few fights at a time, so the client keeps running & the stats
+// update incrementally. Starting a new run cancels the previous one.
+@Slf4j
+public class FightHistoryRecalculator
+{
+	// fights per leaf task: enough work to be worth forking, small enough to keep all workers busy.
+	static final int FIGHTS_PER_TASK = 8;
+
+	public interface AttackCalculator
+	{
+		// defenderLog is the defender's latest log entry at the time of the attack (for their levels & prayer), or null.
+		DamageCalcResult calculate(FightPerformance fight, FightLogEntry attack, FightLogEntry defenderLog);
+	}
+
+	public interface ProgressListener
+	{
+		// called on the apply executor, after each batch of fights has been updated. done == total once finished.
+		void onProgress(int done, int total);
+	}
+
+	private final ForkJoinPool pool;
+	private final Executor applyExecutor;
+	private Run currentRun;
+
+	public FightHistoryRecalculator(ForkJoinPool pool, Executor applyExecutor)
+	{
+		this.pool = pool;
+		this.applyExecutor = applyExecutor;
+	}
+
+	public synchronized ForkJoinTask<?> recalculate(List<FightPerformance> fights, AttackCalculator calculator,
+		ProgressListener listener)
+	{
+		cancel();
+		currentRun = new Run(new ArrayList<>(fights), calculator, listener);
+		if (fights.isEmpty())
+		{
+			applyExecutor.execute(() -> listener.onProgress(0, 0));
+		}
+
+		return pool.submit(new RangeTask(currentRun, 0, currentRun.fights.size()));
+	}
+
+	public synchronized void cancel()
+	{
+		if (currentRun != null)
+		{
+			currentRun.cancelled = true;
+			currentRun = null;
+		}
+	}
+
+	public synchronized boolean isRunning()
+	{
+		return currentRun != null && !currentRun.cancelled && currentRun.done.get() < currentRun.fights.size();
+	}
+
+	// calculates a new result for each full entry of the attacker, in log order. Entries that aren't attacks stay null.
+	static DamageCalcResult[] calculateAttacks(FightPerformance fight, Fighter attacker, Fighter defender,
+		AttackCalculator calculator)
+	{
+		List<FightLogEntry> attacks = attacker.getFightLogEntries();
+		List<FightLogEntry> defenderLogs = defender.getFightLogEntries();
+		DamageCalcResult[] results = new DamageCalcResult[attacks.size()];
+		int defenderIdx = 0;
+		FightLogEntry defenderLog = null;
+		for (int i = 0; i < attacks.size(); i++)
+		{
+			FightLogEntry attack = attacks.get(i);
+			// both logs are in tick order, so the defender's latest entry can be tracked with a single pass.
+			while (defenderIdx < defenderLogs.size() && defenderLogs.get(defenderIdx).getTick() <= attack.getTick())
+			{
+				defenderLog = defenderLogs.get(defenderIdx++);
+			}
+			if (attack.isFullEntry())
+			{
+				results[i] = calculator.calculate(fight, attack, defenderLog);
+			}
+		}
+
+		return results;
+	}
+
+	static void applyAttacks(Fighter attacker, DamageCalcResult[] results)
+	{
+		List<FightLogEntry> attacks = attacker.getFightLogEntries();
+		for (int i = 0; i < results.length && i < attacks.size(); i++)
+		{
+			if (results[i] != null)
+			{
+				FightLogEntry attack = attacks.get(i);
+				attack.applyDamageCalcResult(results[i]);
+				rescoreKoChance(attack);
+			}
+		}
+		attacker.recalculateExpectedStats();
+	}
+
+	// KO chances follow the new hit ranges, scored against the same hp as when the fight was tracked. The tick group's
+	// combined KO chance can't be rebuilt from a single entry, so it's cleared.
+	private static void rescoreKoChance(FightLogEntry attack)
+	{
+		Integer hpBefore = attack.getDisplayHpBefore();
+		Double koChance = hpBefore != null ? HitsplatMatcher.calculateKoChance(attack, hpBefore) : null;
+		if (koChance != null && koChance <= 0.0)
+		{
+			koChance = null;
+		}
+		attack.setDisplayKoChance(koChance);
+		attack.setKoChance(koChance);
+		attack.setGroupKoChance(null);
+	}
+
+	private static class Run
+	{
+		private final List<FightPerformance> fights;
+		private final AttackCalculator calculator;
+		private final ProgressListener listener;
+		private final AtomicInteger done = new AtomicInteger();
+		private volatile boolean cancelled;
+
+		private Run(List<FightPerformance> fights, AttackCalculator calculator, ProgressListener listener)
+		{
+			this.fights = fights;
+			this.calculator = calculator;
+			this.listener = listener;
+		}
+	}
+
+	private class RangeTask extends RecursiveAction
+	{
+		private final Run run;
+		private final int from;
+		private final int to;
+
+		private RangeTask(Run run, int from, int to)
+		{
+			this.run = run;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (run.cancelled || from >= to)
+			{
+				return;
+			}
+
+			if (to - from > FIGHTS_PER_TASK)
+			{
+				int mid = (from + to) >>> 1;
+				invokeAll(new RangeTask(run, from, mid), new RangeTask(run, mid, to));
+				return;
+			}
+
+			int count = to - from;
+			DamageCalcResult[][] competitorResults = new DamageCalcResult[count][];
+			DamageCalcResult[][] opponentResults = new DamageCalcResult[count][];
+			for (int i = 0; i < count; i++)
+			{
+				FightPerformance fight = run.fights.get(from + i);
+				try
+				{
+					competitorResults[i] = calculateAttacks(fight, fight.getCompetitor(), fight.getOpponent(), run.calculator);
+					opponentResults[i] = calculateAttacks(fight, fight.getOpponent(), fight.getCompetitor(), run.calculator);
+				}
+				catch (Exception e)
+				{
+					// leave this fight as it was, rather than dropping the rest of the batch.
+					log.warn("Could not recalculate fight {}", fight.getFightId(), e);
+					competitorResults[i] = null;
+					opponentResults[i] = null;
+				}
+			}
+
+			applyExecutor.execute(() ->
+			{
+				if (run.cancelled)
+				{
+					return;
+				}
+
+				for (int i = 0; i < count; i++)
+				{
+					if (competitorResults[i] == null || opponentResults[i] == null)
+					{
+						continue;
+					}
+					FightPerformance fight = run.fights.get(from + i);
+					applyAttacks(fight.getCompetitor(), competitorResults[i]);
+					applyAttacks(fight.getOpponent(), opponentResults[i]);
+				}
+				run.listener.onProgress(run.done.addAndGet(count), run.fights.size());
+			});
+		}
+	}
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+import net.runelite.api.Actor;
+import net.runelite.api.Player;
+
+// Holds every fight currently being tracked. In single-combat there is at most one, but in multi-combat the local
+// player can be fighting several opponents at once. Events are routed to their fight through an array indexed by
+// the opponent's player index, so the cost of handling an event doesn't grow with the number of fights.
+// The primary fight is the one displayed by the overlay: the most recent one the local player attacked in.
+// Spectated fights, where neither fighter is the local player, can be looked up by either of their fighters.
+public final class FightManager
+{
+	// player indexes are always within [0, MAX_PLAYERS)
+	static final int MAX_PLAYERS = 2048;
+
+	private final int hitsplatWindow;
+	private final int maxFights;
+	private final List<TrackedFight> fights = new ArrayList<>();
+	private final List<TrackedFight> fightsView = Collections.unmodifiableList(fights);
+	private final TrackedFight[] fightsByPlayerIndex = new TrackedFight[MAX_PLAYERS];
+	@Getter
+	private TrackedFight primary;
+
+	public FightManager(int hitsplatWindow, int maxFights)
+	{
+		this.hitsplatWindow = hitsplatWindow;
+		this.maxFights = maxFights;
+	}
+
+	// starts tracking the given fight, or returns null if the limit of concurrent fights has been reached.
+	// The first fight tracked becomes the primary one, as does any fight replacing a primary fight that hasn't started.
+	public TrackedFight start(FightPerformance fight)
+	{
+		if (fights.size() >= maxFights)
+		{
+			return null;
+		}
+
+		TrackedFight tracked = new TrackedFight(fight, hitsplatWindow);
+		fights.add(tracked);
+		index(tracked);
+		if (primary == null || !primary.getFight().fightStarted())
+		{
+			primary = tracked;
+		}
+		return tracked;
+	}
+
+	public void end(TrackedFight tracked)
+	{
+		if (tracked == null || !fights.remove(tracked))
+		{
+			return;
+		}
+
+		unindex(tracked);
+		if (primary == tracked)
+		{
+			primary = fights.isEmpty() ? null : fights.get(fights.size() - 1);
+		}
+	}
+
+	public void setPrimary(TrackedFight tracked)
+	{
+		if (tracked != null && fights.contains(tracked))
+		{
+			primary = tracked;
+		}
+	}
+
+	// returns the fight in which the given actor is the opponent, or null if the actor isn't a tracked opponent.
+	public TrackedFight getFightByOpponent(Actor actor)
+	{
+		TrackedFight tracked = getFightByFighter(actor);
+		if (tracked == null || tracked.getFighters().getFighter(actor) != tracked.getFight().getOpponent())
+		{
+			return null;
+		}
+		return tracked;
+	}
+
+	// returns the fight the given actor is a filed fighter of: the opponent, or either fighter of a spectated fight.
+	public TrackedFight getFightByFighter(Actor actor)
+	{
+		if (!(actor instanceof Player))
+		{
+			return null;
+		}
+
+		int playerIndex = ((Player) actor).getId();
+		if (playerIndex < 0 || playerIndex >= MAX_PLAYERS)
+		{
+			return null;
+		}
+
+		TrackedFight tracked = fightsByPlayerIndex[playerIndex];
+		if (tracked == null || tracked.getFighters().getFighter(actor) == null)
+		{
+			return null;
+		}
+		return tracked;
+	}
+
+	// Hitsplats on the local player don't say who dealt them. Each one goes to the first fight whose opponent still
+	// expects more hits to land on that tick than were already routed to the fight, so that concurrent opponents'
+	// attacks are each matched to their own hitsplats. Hitsplats no attack can account for (e.g. recoil) go to the
+	// primary fight.
+	public TrackedFight getFightForLocalHitsplat(Actor localPlayer, int tick)
+	{
+		if (fights.size() > 1)
+		{
+			for (int i = 0; i < fights.size(); i++)
+			{
+				TrackedFight tracked = fights.get(i);
+				int expectedHits = tracked.getFight().getOpponent().getPendingAttacks().getExpectedHitsLandingOn(tick);
+				if (expectedHits > 0 && expectedHits > countHitsOn(tracked.getHitsplatBuffer(), tick, localPlayer))
+				{
+					return tracked;
+				}
+			}
+		}
+		return primary;
+	}
+
+	private static int countHitsOn(HitsplatRingBuffer hitsplatBuffer, int tick, Actor actor)
+	{
+		int count = 0;
+		for (int i = 0; i < hitsplatBuffer.size(tick); i++)
+		{
+			if (hitsplatBuffer.get(tick, i).getActor() == actor)
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// slower lookup by name, for events that can't rely on the opponent's Player or player index.
+	public TrackedFight getFightByOpponentName(String name)
+	{
+		if (name == null)
+		{
+			return null;
+		}
+
+		for (int i = 0; i < fights.size(); i++)
+		{
+			TrackedFight tracked = fights.get(i);
+			if (name.equals(tracked.getFight().getOpponent().getName()))
+			{
+				return tracked;
+			}
+		}
+		return null;
+	}
+
+	// re-file an opponent whose Player was re-created under a new player index (e.g. after logging back in).
+	public void onPlayerSpawned(Player player)
+	{
+		if (player == null || player.getName() == null)
+		{
+			return;
+		}
+
+		for (int i = 0; i < fights.size(); i++)
+		{
+			TrackedFight tracked = fights.get(i);
+			FightPerformance fight = tracked.getFight();
+			tracked.getFighters().onPlayerSpawned(player);
+			if (player.getName().equals(fight.getOpponent().getName())
+				|| (fight.isSpectated() && player.getName().equals(fight.getCompetitor().getName())))
+			{
+				unindex(tracked);
+				index(tracked);
+			}
+		}
+	}
+
+	// fights in the order they were started. Use end() rather than modifying this list.
+	public List<TrackedFight> getFights()
+	{
+		return fightsView;
+	}
+
+	public int size()
+	{
+		return fights.size();
+	}
+
+	public boolean isEmpty()
+	{
+		return fights.isEmpty();
+	}
+
+	public void clear()
+	{
+		while (!fights.isEmpty())
+		{
+			end(fights.get(fights.size() - 1));
+		}
+	}
+
+	private void index(TrackedFight tracked)
+	{
+		tracked.opponentIndex = file(tracked, tracked.getFighters().getPlayer(tracked.getFight().getOpponent()));
+		if (tracked.getFight().isSpectated())
+		{
+			tracked.competitorIndex = file(tracked, tracked.getFighters().getPlayer(tracked.getFight().getCompetitor()));
+		}
+	}
+
+	private int file(TrackedFight tracked, Player player)
+	{
+		int playerIndex = player != null ? player.getId() : -1;
+		if (playerIndex < 0 || playerIndex >= MAX_PLAYERS)
+		{
+			return -1;
+		}
+
+		fightsByPlayerIndex[playerIndex] = tracked;
+		return playerIndex;
+	}
+
+	private void unindex(TrackedFight tracked)
+	{
+		unfile(tracked, tracked.opponentIndex);
+		unfile(tracked, tracked.competitorIndex);
+		tracked.opponentIndex = -1;
+		tracked.competitorIndex = -1;
+	}
+
+	private void unfile(TrackedFight tracked, int playerIndex)
+	{
+		if (playerIndex >= 0 && fightsByPlayerIndex[playerIndex] == tracked)
+		{
+			fightsByPlayerIndex[playerIndex] = null;
+		}
+	}
+}
@@ -29,7 +29,7 @@ import com.google.gson.annotations.SerializedName;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
@@ -41,13 +41,14 @@ import static matsyir.pvpperformancetracker.PvpPerformanceTrackerPlugin.CONFIG;
 import static matsyir.pvpperformancetracker.PvpPerformanceTrackerPlugin.PLUGIN;
 import matsyir.pvpperformancetracker.models.AnimationData;
 import matsyir.pvpperformancetracker.models.AnimationData.AttackStyle;
-import matsyir.pvpperformancetracker.models.AssumedPrayers;
+import matsyir.pvpperformancetracker.models.AssumedPrayerTable;
 import matsyir.pvpperformancetracker.models.CombatLevels;
 import matsyir.pvpperformancetracker.models.FightLogEntry;
 import matsyir.pvpperformancetracker.models.FightType;
 import matsyir.pvpperformancetracker.utils.FightIdGenerator;
 import matsyir.pvpperformancetracker.views.FightPerformancePanel;
 import net.runelite.api.AnimationID;
+import net.runelite.api.Constants;
 import net.runelite.api.InventoryID;
 import net.runelite.api.Item;
 import net.runelite.api.ItemContainer;
@@ -55,6 +56,7 @@ import net.runelite.api.Player;
 import net.runelite.api.Skill;
 import matsyir.pvpperformancetracker.PvpPerformanceTrackerConfig;
 import net.runelite.api.kit.KitType;
+import matsyir.pvpperformancetracker.utils.PvpUtils;
 import static matsyir.pvpperformancetracker.utils.PvpUtils.fixItemId;
 import static matsyir.pvpperformancetracker.controllers.PvpDamageCalc.RANGE_DEF;
 
@@ -69,9 +71,32 @@ public class FightPerformance implements Comparable<FightPerformance>
 		10629,	// League IV
 		11902,	// League V
 	};
+	// set of DEATH_ANIMATIONS, so the death check done every tick is a single lookup
+	private static final BitSet DEATH_ANIMATION_SET = new BitSet();
 	// Delay to assume a fight is over. May seem long, but sometimes people barrage &
 	// stand under for a while to eat. Fights will automatically end when either competitor dies.
 	private static final Duration NEW_FIGHT_DELAY = Duration.ofSeconds(21);
+	// A new fight only gets this long to start, as the event we determine the opponent from is not fully reliable.
+	private static final Duration NEW_FIGHT_START_DELAY = Duration.ofSeconds(5);
+	private static final int NEW_FIGHT_DELAY_TICKS = (int) (NEW_FIGHT_DELAY.toMillis() / Constants.GAME_TICK_LENGTH);
+	private static final int NEW_FIGHT_START_DELAY_TICKS = (int) (NEW_FIGHT_START_DELAY.toMillis() / Constants.GAME_TICK_LENGTH);
+
+	static
+	{
+		for (int animationId : DEATH_ANIMATIONS)
+		{
+			DEATH_ANIMATION_SET.set(animationId);
+		}
+	}
+
+	// State of a fight while it is being tracked, evaluated once per game tick by updateLifecycle().
+	public enum LifecycleState
+	{
+		PENDING, // opponent found, but nobody has attacked yet
+		ACTIVE, // attacks were recorded
+		DEATH_OBSERVED, // either fighter died. The plugin ends the fight once the opponent despawns.
+		INACTIVE, // nobody attacked before the inactivity deadline. The fight should be ended.
+	}
 
 	public static final List<String> PRESET_FILTER_KEYWORDS = List.of(
 		"favorite", "sync", "kill", "death", "double", "doubledeath", FightPerformancePanel.BackgroundStyle.PRESET_FILTER_STYLE_KEYWORD);
@@ -136,15 +161,28 @@ public class FightPerformance implements Comparable<FightPerformance>
 	private transient int opponentKoChanceCount = 0;
 	private transient double competitorSurvivalProb = 1.0;
 	private transient double opponentSurvivalProb = 1.0;
+	// live win probability, only for fights tracked live (null for loaded fights)
+	private transient WinPredictor winPredictor;
 	@Getter
 	@Setter
 	private transient String loadedFromFname;
 	@Getter
 	@Setter
 	private transient boolean isFavorite;
+	// true when neither fighter is the local player, so nothing can be read from the local client state.
+	// Saved so that spectated fights stay out of the player's own total stats after a reload.
+	@Expose
+	@SerializedName("sp")
+	@Getter
+	private boolean isSpectated;
 
 	private transient FightPerformancePanel.BackgroundStyle bgStyle = null;
 
+	@Getter
+	private transient LifecycleState lifecycleState = LifecycleState.PENDING;
+	// the fight is considered inactive after this tick, unless another attack pushes it back
+	private transient int inactivityDeadlineTick;
+
 	// shouldn't be used, just here so we can make a subclass, weird java thing
 	public FightPerformance()
 	{
@@ -154,6 +192,13 @@ public class FightPerformance implements Comparable<FightPerformance>
 	// constructor which initializes a fight from the 2 Players, starting stats at 0. Regular use constructor.
 	public FightPerformance(Player competitor, Player opponent)
 	{
+		this(competitor, opponent, false);
+	}
+
+	// constructor for a fight between two players, which can be spectated if neither of them is the local player.
+	public FightPerformance(Player competitor, Player opponent, boolean isSpectated)
+	{
+		this.isSpectated = isSpectated;
 		int defLvl = PLUGIN.getClient().getBoostedSkillLevel(Skill.DEFENCE);
 
 		// determine fight type based on being in LMS match & use def level to check for LMS builds.
@@ -162,27 +207,48 @@ public class FightPerformance implements Comparable<FightPerformance>
 		// on max/med: BR_ACTIVE_BUILD_PLAYER = 0
 		// on zerk: BR_ACTIVE_BUILD_PLAYER = 1
 		// on pure: BR_ACTIVE_BUILD_PLAYER = 2
-		this.fightType = !PLUGIN.isInLmsMatch() ? FightType.NORMAL :
-			defLvl <= FightType.LMS_1DEF.getCombatLevelsForType().def ? FightType.LMS_1DEF :
-			defLvl <= FightType.LMS_ZERK.getCombatLevelsForType().def ? FightType.LMS_ZERK :
-			FightType.LMS_MAXMED;
+		// Other players' levels can't be read, so a spectated competitor's build is found from their combat level,
+		// compared to the local player's.
+		if (!PLUGIN.isInLmsMatch())
+		{
+			this.fightType = FightType.NORMAL;
+		}
+		else
+		{
+			FightType localType = FightType.getLmsTypeForDefence(defLvl);
+			Player localPlayer = PLUGIN.getClient().getLocalPlayer();
+			this.fightType = !isSpectated || localPlayer == null ? localType :
+				FightType.getLmsTypeForCombatLevel(competitor.getCombatLevel(), localPlayer.getCombatLevel(), localType);
+		}
 
 		// initialize world
 		this.world = PLUGIN.getClient().getWorld();
 
 		// this is initialized soon before the NEW_FIGHT_DELAY time because the event we
 		// determine the opponent from is not fully reliable.
-		lastFightTime = Instant.now().minusSeconds(NEW_FIGHT_DELAY.getSeconds() - 5).toEpochMilli();
+		lastFightTime = Instant.now().minusSeconds(NEW_FIGHT_DELAY.getSeconds() - NEW_FIGHT_START_DELAY.getSeconds()).toEpochMilli();
+		inactivityDeadlineTick = PLUGIN.getClient().getTickCount() + NEW_FIGHT_START_DELAY_TICKS;
 		initialTime = Instant.now().toEpochMilli();
-		int[] startInventory = captureInventoryItemIds();
-		this.inventorySnapshots = new InventorySnapshots(startInventory, null);
-		recordNonEmptyInventorySnapshot(startInventory);
 
 		this.competitor = new Fighter(this, competitor);
 		this.opponent = new Fighter(this, opponent);
 
-		this.competitorPrevHp = PLUGIN.getClient().getBoostedSkillLevel(Skill.HITPOINTS);
-		this.competitor.setLastGhostBarrageCheckedMageXp(PLUGIN.getClient().getSkillExperience(Skill.MAGIC));
+		// the local inventory, hitpoints and xp only belong to the competitor when it is the local player.
+		if (!isSpectated)
+		{
+			int[] startInventory = captureInventoryItemIds();
+			this.inventorySnapshots = new InventorySnapshots(startInventory, null);
+			recordNonEmptyInventorySnapshot(startInventory);
+
+			this.competitorPrevHp = PLUGIN.getClient().getBoostedSkillLevel(Skill.HITPOINTS);
+			this.competitor.setLastGhostBarrageCheckedMageXp(PLUGIN.getClient().getSkillExperience(Skill.MAGIC));
+		}
+
+		// same assumed max HP as the KO chances; the local player's own HP is known
+		int assumedMaxHp = PLUGIN.isInLmsMatch() ? 99 : CONFIG.opponentHitpointsLevel();
+		this.winPredictor = isSpectated
+			? new WinPredictor(assumedMaxHp, assumedMaxHp, assumedMaxHp, assumedMaxHp)
+			: new WinPredictor(competitorPrevHp, PLUGIN.getClient().getRealSkillLevel(Skill.HITPOINTS), assumedMaxHp, assumedMaxHp);
 
 		this.pluginVersion = PLUGIN.PLUGIN_VERSION;
 	}
@@ -209,28 +275,27 @@ public class FightPerformance implements Comparable<FightPerformance>
 
 		// Opponent prayers aren't visible; assume they match local prayer unlocks for the attack style.
 		// Also use this assumed offensive pray for local player (when unsynced) to make these assumptions fair
-		int assumedOffensivePray = AssumedPrayers.assumedOffensivePray(
-			animationData.attackStyle,
-			fightType,
-			AssumedPrayers.localPrayerLevel(PLUGIN.getClient()),
-			competitorLevels.def);
+		int assumedOffensivePray = PLUGIN.getTickContext().getAssumedPrayers()
+			.getOffensivePray(animationData.attackStyle, fightType);
 
 		// verify that the player is interacting with their tracked opponent before adding attacks
 		if (eName.equals(competitor.getName()) && Objects.equals(interactingName, opponent.getName()))
 		{
 			recordInitialFightTick(animationTick);
 			competitor.setPlayer(eventSource);
-			int offensivePray = PLUGIN.currentlyUsedOffensivePray();
+			// a spectated competitor's prayers and levels aren't visible either, so treat them like an opponent.
+			int offensivePray = isSpectated ? assumedOffensivePray : PLUGIN.currentlyUsedOffensivePray();
 			competitor.addAttack(
 				opponent.getPlayer(),
 				animationData,
 				offensivePray,
 				assumedOffensivePray,
-				competitorLevels,
+				isSpectated ? null : competitorLevels,
 				animationTick,
 				animationTime,
 				recordedSoulreaperStacksVarp);
 			lastFightTime = animationTime;
+			inactivityDeadlineTick = animationTick + NEW_FIGHT_DELAY_TICKS;
 			addedAttack = true;
 			ensureFightIdGenerated();
 
@@ -246,14 +311,18 @@ public class FightPerformance implements Comparable<FightPerformance>
 				assumedOffensivePray,
 				assumedOffensivePray,
 				null,
-				competitorLevels,
+				isSpectated ? null : competitorLevels,
 				animationTick,
 				animationTime,
 				recordedSoulreaperStacksVarp);
 			addedAttack = true;
 			// add a defensive log for the competitor while the opponent is attacking, to be used with the fight analysis/merge
-			competitor.addDefensiveLogs(competitorLevels, PLUGIN.currentlyUsedOffensivePray(), animationTick, animationTime);
+			if (!isSpectated)
+			{
+				competitor.addDefensiveLogs(competitorLevels, PLUGIN.currentlyUsedOffensivePray(), animationTick, animationTime);
+			}
 			lastFightTime = animationTime;
+			inactivityDeadlineTick = animationTick + NEW_FIGHT_DELAY_TICKS;
 			ensureFightIdGenerated();
 		}
 
@@ -267,6 +336,13 @@ public class FightPerformance implements Comparable<FightPerformance>
 		}
 	}
 
+	// Called when either fighter's equipment changes: pre-calculate both sides' likely attacks against the new gear.
+	public void precomputeLikelyAttacks(AssumedPrayerTable assumedPrayers)
+	{
+		competitor.precomputeLikelyAttacks(opponent.getPlayer(), fightType, assumedPrayers);
+		opponent.precomputeLikelyAttacks(competitor.getPlayer(), fightType, assumedPrayers);
+	}
+
 	private void recordInitialFightTick(int animationTick)
 	{
 		if (initialFightTick < 0)
@@ -325,11 +401,8 @@ public class FightPerformance implements Comparable<FightPerformance>
 		{
 			animationData = AnimationData.MAGIC_ANCIENT_MULTI_TARGET;
 
-			int assumedOffensivePray = AssumedPrayers.assumedOffensivePray(
-				animationData.attackStyle,
-				fightType,
-				AssumedPrayers.localPrayerLevel(PLUGIN.getClient()),
-				competitorLevels.def);
+			int assumedOffensivePray = PLUGIN.getTickContext().getAssumedPrayers()
+				.getOffensivePray(animationData.attackStyle, fightType);
 
 			int offensivePray = PLUGIN.currentlyUsedOffensivePray();
 			competitor.addGhostBarrage(opponent.getPlayer().getOverheadIcon() != animationData.attackStyle.getProtection(),
@@ -357,12 +430,34 @@ public class FightPerformance implements Comparable<FightPerformance>
 		}
 	}
 
-	public void updateCompetitorHp(int currentHp)
+	// same as above, for callers that already resolved which Fighter was hit.
+	public void addDamageDealt(Fighter hitFighter, int damage)
+	{
+		if (hitFighter == competitor)
+		{
+			opponent.addDamageDealt(damage);
+		}
+		else if (hitFighter == opponent)
+		{
+			competitor.addDamageDealt(damage);
+		}
+	}
+
+	// countHeal: whether a heal counts towards this fight's hp healed. With several fights tracked at once, the local
+	// player's hp is shared by all of them, but each heal should only be counted once.
+	public void updateCompetitorHp(int currentHp, boolean countHeal)
 	{
 		if (currentHp > competitorPrevHp)
 		{
 			int hpHealed = currentHp - competitorPrevHp;
-			competitor.addHpHealed(hpHealed);
+			if (countHeal)
+			{
+				competitor.addHpHealed(hpHealed);
+			}
+			if (winPredictor != null)
+			{
+				winPredictor.addHeal(true, hpHealed);
+			}
 		}
 		competitorPrevHp = currentHp;
 	}
@@ -372,16 +467,44 @@ public class FightPerformance implements Comparable<FightPerformance>
 		competitor.refreshCombatLevelsForTick(tick, levels);
 	}
 
+	// Should be called once per game tick: checks for deaths and inactivity, and returns the resulting state.
+	// Completely ending the fight (on despawn or inactivity) is handled by the plugin rather than within FightPerformance.
+	public LifecycleState updateLifecycle(int currentTick)
+	{
+		if (lifecycleState == LifecycleState.INACTIVE)
+		{
+			return lifecycleState;
+		}
+
+		if (winPredictor != null)
+		{
+			winPredictor.endTick();
+		}
+
+		if (isInactive(currentTick))
+		{
+			lifecycleState = LifecycleState.INACTIVE;
+		}
+		else if (checkForDeathAnimations())
+		{
+			lifecycleState = LifecycleState.DEATH_OBSERVED;
+		}
+		else if (fightStarted())
+		{
+			lifecycleState = LifecycleState.ACTIVE;
+		}
+		return lifecycleState;
+	}
+
 	// Will return true if either competitor has died yet
-	// Completely ending the fight on despawn is handled by the plugin rather than within FightPerformance.
 	public boolean checkForDeathAnimations()
 	{
 		// If either competitor is playing a death animation, mark dead but do not end the fight here.
-		if (Arrays.stream(DEATH_ANIMATIONS).anyMatch(e -> e == opponent.getPlayer().getAnimation()))
+		if (isDeathAnimation(opponent.getPlayer().getAnimation()))
 		{
 			opponent.died();
 		}
-		if (Arrays.stream(DEATH_ANIMATIONS).anyMatch(e -> e == competitor.getPlayer().getAnimation()))
+		if (isDeathAnimation(competitor.getPlayer().getAnimation()))
 		{
 			competitor.died();
 		}
@@ -389,12 +512,18 @@ public class FightPerformance implements Comparable<FightPerformance>
 		return competitor.isDead() || opponent.isDead();
 	}
 
+	static boolean isDeathAnimation(int animationId)
+	{
+		return animationId >= 0 && DEATH_ANIMATION_SET.get(animationId);
+	}
+
 	// returns true if the fight is considered inactive due to time. We should end the fight when this happens
-	public boolean isInactive()
+	boolean isInactive(int currentTick)
 	{
-		// If there was no fight actions in the last NEW_FIGHT_DELAY seconds, consider the fight done, because
+		// If there was no fight actions in the last NEW_FIGHT_DELAY, consider the fight done, because
 		// presumably either the player or the opponent ran away/teleported at this point.
-		return Duration.between(Instant.ofEpochMilli(lastFightTime), Instant.now()).compareTo(NEW_FIGHT_DELAY) > 0;
+		// The tick count can also go backwards after logging out, in which case the deadline can't be trusted.
+		return currentTick > inactivityDeadlineTick || currentTick < inactivityDeadlineTick - NEW_FIGHT_DELAY_TICKS;
 	}
 
 	public ArrayList<FightLogEntry> getAllFightLogEntries()
@@ -452,6 +581,10 @@ public class FightPerformance implements Comparable<FightPerformance>
 
 	public void recordEndingInventorySnapshot()
 	{
+		if (isSpectated)
+		{
+			return;
+		}
 		if (inventorySnapshots == null)
 		{
 			inventorySnapshots = new InventorySnapshots(null, null);
@@ -469,6 +602,10 @@ public class FightPerformance implements Comparable<FightPerformance>
 
 	public void recordCurrentInventorySnapshot()
 	{
+		if (isSpectated)
+		{
+			return;
+		}
 		recordNonEmptyInventorySnapshot(captureInventoryItemIds());
 	}
 
@@ -930,6 +1067,25 @@ public class FightPerformance implements Comparable<FightPerformance>
 		}
 	}
 
+	// a matched attack moves the defender's modeled HP by the attack's damage distribution, see WinPredictor.
+	// Repeated attacks find their distribution in DamageDistribution's cache without allocating, since this runs
+	// on the client thread for every matched attack.
+	public void updateWinPrediction(FightLogEntry entry)
+	{
+		if (winPredictor == null || !entry.isFullEntry())
+		{
+			return;
+		}
+
+		winPredictor.addAttack(!entry.getAttackerName().equals(competitor.getName()), PvpUtils.getDamageDistribution(entry));
+	}
+
+	// null for fights that weren't tracked live
+	public Double getCompetitorWinProbability()
+	{
+		return winPredictor != null ? winPredictor.getCompetitorWinProbability() : null;
+	}
+
 	public FightPerformancePanel.BackgroundStyle getBgStyle()
 	{
 		if (bgStyle != null)
@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+import matsyir.pvpperformancetracker.utils.DamageDistribution;
+import matsyir.pvpperformancetracker.utils.PvpUtils;
+
+// Replays recorded fights many times with random damage rolls, to estimate how often each side should have won
+// and how lucky the real outcome was. Each replay keeps the recorded attacks & their ticks, but rolls each attack's
+// damage from its calculated distribution; the first fighter whose hp (max hp + recorded healing) runs out loses.
+// Like the FightHistoryRecalculator, the work is split over a ForkJoinPool (by fights, then by chunks of
+// simulations) and the report is handed to the given executor, so none of it runs on the client thread.
+// Each chunk gets its own SplittableRandom stream, split from the seed in a fixed order, so a given seed always
+// gives the same report no matter how the work is scheduled.
+@Slf4j
+public class FightSimulator
+{
+	// simulations per leaf task. A simulation samples each of the fight's attacks once, so a leaf is tens of thousands
+	// of samples for a typical fight: much more work than forking it. The plugin's 10,000 simulations per fight still
+	// split into 16 leaves, so a history of only a few fights keeps every worker busy too.
+	static final int SIMULATIONS_PER_TASK = 1024;
+	// max hp used when the log doesn't have the defender's, as for the KO chances.
+	private static final int DEFAULT_HP = 99;
+
+	public interface ReportListener
+	{
+		// called on the report executor once all fights were simulated. Not called for cancelled runs.
+		void onReport(Report report);
+	}
+
+	private final ForkJoinPool pool;
+	private final Executor reportExecutor;
+	private Run currentRun;
+
+	public FightSimulator(ForkJoinPool pool, Executor reportExecutor)
+	{
+		this.pool = pool;
+		this.reportExecutor = reportExecutor;
+	}
+
+	public synchronized ForkJoinTask<?> simulate(List<FightPerformance> fights, int simulationsPerFight, long seed,
+		ReportListener listener)
+	{
+		cancel();
+		Run run = new Run(new ArrayList<>(fights), Math.max(1, simulationsPerFight));
+		currentRun = run;
+
+		return pool.submit(() ->
+		{
+			long start = System.nanoTime();
+			List<FightResult> results = new FightsTask(run, 0, run.fights.size(), new SplittableRandom(seed)).invoke();
+			if (run.cancelled)
+			{
+				return;
+			}
+			Report report = new Report(results, System.nanoTime() - start);
+			log.debug("Simulated {} fights, {} simulations/s", results.size(), (long) report.getSimulationsPerSecond());
+			reportExecutor.execute(() ->
+			{
+				if (!run.cancelled)
+				{
+					run.finished = true;
+					listener.onReport(report);
+				}
+			});
+		});
+	}
+
+	public synchronized void cancel()
+	{
+		if (currentRun != null)
+		{
+			currentRun.cancelled = true;
+			currentRun = null;
+		}
+	}
+
+	public synchronized boolean isRunning()
+	{
+		return currentRun != null && !currentRun.cancelled && !currentRun.finished;
+	}
+
+	// The recorded attacks of a fight, in tick order, with the distribution of damage each can deal.
+	static final class Replay
+	{
+		private final int[] ticks;
+		private final boolean[] onCompetitor;
+		private final DamageDistribution[] distributions;
+		private final int competitorHp;
+		private final int opponentHp;
+		private final int competitorDamageDealt;
+		// 1 for a competitor win, 0 for a loss and 0.5 for a draw (both or neither died)
+		private final double actualScore;
+
+		Replay(int[] ticks, boolean[] onCompetitor, DamageDistribution[] distributions, int competitorHp,
+			int opponentHp, int competitorDamageDealt, double actualScore)
+		{
+			this.ticks = ticks;
+			this.onCompetitor = onCompetitor;
+			this.distributions = distributions;
+			this.competitorHp = competitorHp;
+			this.opponentHp = opponentHp;
+			this.competitorDamageDealt = competitorDamageDealt;
+			this.actualScore = actualScore;
+		}
+
+		static Replay fromFight(FightPerformance fight)
+		{
+			Fighter competitor = fight.getCompetitor();
+			Fighter opponent = fight.getOpponent();
+			List<Attack> attacks = new ArrayList<>();
+			int competitorMaxHp = addAttacks(attacks, opponent);
+			int opponentMaxHp = addAttacks(attacks, competitor);
+			// stable, so attacks on the same tick stay in log order
+			attacks.sort(Comparator.comparingInt(attack -> attack.entry.getTick()));
+
+			int[] ticks = new int[attacks.size()];
+			boolean[] onCompetitor = new boolean[attacks.size()];
+			DamageDistribution[] distributions = new DamageDistribution[attacks.size()];
+			String competitorName = competitor.getName();
+			for (int i = 0; i < attacks.size(); i++)
+			{
+				Attack attack = attacks.get(i);
+				ticks[i] = attack.entry.getTick();
+				onCompetitor[i] = !competitorName.equals(attack.entry.getAttackerName());
+				distributions[i] = attack.distribution;
+			}
+
+			double actualScore = competitor.isDead() == opponent.isDead() ? 0.5 : (opponent.isDead() ? 1 : 0);
+			return new Replay(ticks, onCompetitor, distributions, competitorMaxHp + competitor.getHpHealed(),
+				opponentMaxHp + opponent.getHpHealed(), competitor.getDamageDealt(), actualScore);
+		}
+
+		// adds the attacker's full entries, and returns the defender's max hp as recorded on those, or the default.
+		private static int addAttacks(List<Attack> attacks, Fighter attacker)
+		{
+			Integer defenderMaxHp = null;
+			for (FightLogEntry entry : attacker.getFightLogEntries())
+			{
+				DamageDistribution distribution = entry.isFullEntry() ? PvpUtils.getDamageDistribution(entry) : null;
+				if (distribution == null)
+				{
+					continue;
+				}
+				attacks.add(new Attack(entry, distribution));
+				if (defenderMaxHp == null)
+				{
+					defenderMaxHp = entry.getOpponentMaxHp();
+				}
+			}
+			return defenderMaxHp != null && defenderMaxHp > 0 ? defenderMaxHp : DEFAULT_HP;
+		}
+
+		// a recorded attack with its distribution, which is only looked up once per attack.
+		private static final class Attack
+		{
+			private final FightLogEntry entry;
+			private final DamageDistribution distribution;
+
+			private Attack(FightLogEntry entry, DamageDistribution distribution)
+			{
+				this.entry = entry;
+				this.distribution = distribution;
+			}
+		}
+
+		FightResult simulate(int simulations, SplittableRandom random)
+		{
+			int competitorWins = 0;
+			int opponentWins = 0;
+			int damageAtOrBelowActual = 0;
+			for (int sim = 0; sim < simulations; sim++)
+			{
+				int competitorHpLeft = competitorHp;
+				int opponentHpLeft = opponentHp;
+				int damageDealt = 0;
+				boolean decided = false;
+				// every attack is rolled, also after a kill, so the damage dealt is comparable to the recorded total.
+				for (int i = 0; i < ticks.length; i++)
+				{
+					int damage = distributions[i].sample(random.nextDouble());
+					if (onCompetitor[i])
+					{
+						competitorHpLeft -= damage;
+					}
+					else
+					{
+						opponentHpLeft -= damage;
+						damageDealt += damage;
+					}
+
+					// deaths are only checked once all of a tick's attacks landed, both dying on the same tick is a draw.
+					boolean endOfTick = i + 1 == ticks.length || ticks[i + 1] != ticks[i];
+					if (!decided && endOfTick && (competitorHpLeft <= 0 || opponentHpLeft <= 0))
+					{
+						decided = true;
+						if (competitorHpLeft > 0)
+						{
+							competitorWins++;
+						}
+						else if (opponentHpLeft > 0)
+						{
+							opponentWins++;
+						}
+					}
+				}
+
+				if (damageDealt <= competitorDamageDealt)
+				{
+					damageAtOrBelowActual++;
+				}
+			}
+
+			return new FightResult(simulations, competitorWins, opponentWins, damageAtOrBelowActual, actualScore);
+		}
+	}
+
+	@Getter
+	public static final class FightResult
+	{
+		private final int simulations;
+		private final int competitorWins;
+		private final int opponentWins;
+		// simulations where the competitor dealt at most the damage they really dealt
+		private final int damageAtOrBelowActual;
+		private final double actualScore;
+
+		FightResult(int simulations, int competitorWins, int opponentWins, int damageAtOrBelowActual, double actualScore)
+		{
+			this.simulations = simulations;
+			this.competitorWins = competitorWins;
+			this.opponentWins = opponentWins;
+			this.damageAtOrBelowActual = damageAtOrBelowActual;
+			this.actualScore = actualScore;
+		}
+
+		FightResult plus(FightResult other)
+		{
+			return new FightResult(simulations + other.simulations, competitorWins + other.competitorWins,
+				opponentWins + other.opponentWins, damageAtOrBelowActual + other.damageAtOrBelowActual, actualScore);
+		}
+
+		public int getDraws()
+		{
+			return simulations - competitorWins - opponentWins;
+		}
+
+		public double getCompetitorWinRate()
+		{
+			return simulations > 0 ? (double) competitorWins / simulations : 0;
+		}
+
+		// the competitor's expected score, counting draws as half a win.
+		public double getExpectedScore()
+		{
+			return simulations > 0 ? (competitorWins + 0.5 * getDraws()) / simulations : 0.5;
+		}
+
+		// above 0 if the real outcome was better for the competitor than expected.
+		public double getLuck()
+		{
+			return actualScore - getExpectedScore();
+		}
+
+		// the share of simulations where the competitor dealt at most their real damage: low means they rolled low.
+		public double getDamagePercentile()
+		{
+			return simulations > 0 ? (double) damageAtOrBelowActual / simulations : 0;
+		}
+	}
+
+	@Getter
+	public static final class Report
+	{
+		// in the same order as the simulated fights. Fights that failed to simulate are left out.
+		private final List<FightResult> fights;
+		private final long totalSimulations;
+		private final long elapsedNanos;
+		private final double expectedScore;
+		private final double actualScore;
+
+		Report(List<FightResult> fights, long elapsedNanos)
+		{
+			this.fights = Collections.unmodifiableList(fights);
+			this.elapsedNanos = elapsedNanos;
+			long simulations = 0;
+			double expected = 0;
+			double actual = 0;
+			for (FightResult fight : fights)
+			{
+				simulations += fight.getSimulations();
+				expected += fight.getExpectedScore();
+				actual += fight.getActualScore();
+			}
+			this.totalSimulations = simulations;
+			this.expectedScore = expected;
+			this.actualScore = actual;
+		}
+
+		// above 0 if the competitor won more fights over the history than expected, in number of wins.
+		public double getLuck()
+		{
+			return actualScore - expectedScore;
+		}
+
+		public double getSimulationsPerSecond()
+		{
+			return elapsedNanos > 0 ? totalSimulations * 1e9 / elapsedNanos : 0;
+		}
+	}
+
+	private static class Run
+	{
+		private final List<FightPerformance> fights;
+		private final int simulationsPerFight;
+		private volatile boolean cancelled;
+		private volatile boolean finished;
+
+		private Run(List<FightPerformance> fights, int simulationsPerFight)
+		{
+			this.fights = fights;
+			this.simulationsPerFight = simulationsPerFight;
+		}
+	}
+
+	// simulates a range of fights, returning their results in order.
+	private static class FightsTask extends RecursiveTask<List<FightResult>>
+	{
+		private final Run run;
+		private final int from;
+		private final int to;
+		private final SplittableRandom random;
+
+		private FightsTask(Run run, int from, int to, SplittableRandom random)
+		{
+			this.run = run;
+			this.from = from;
+			this.to = to;
+			this.random = random;
+		}
+
+		@Override
+		protected List<FightResult> compute()
+		{
+			List<FightResult> results = new ArrayList<>();
+			if (run.cancelled || from >= to)
+			{
+				return results;
+			}
+
+			if (to - from > 1)
+			{
+				int mid = (from + to) >>> 1;
+				FightsTask left = new FightsTask(run, from, mid, random.split());
+				FightsTask right = new FightsTask(run, mid, to, random.split());
+				invokeAll(left, right);
+				results.addAll(left.join());
+				results.addAll(right.join());
+				return results;
+			}
+
+			FightPerformance fight = run.fights.get(from);
+			try
+			{
+				Replay replay = Replay.fromFight(fight);
+				results.add(new SimulationsTask(run, replay, run.simulationsPerFight, random).compute());
+			}
+			catch (Exception e)
+			{
+				// leave this fight out of the report, rather than dropping the whole history.
+				log.warn("Could not simulate fight {}", fight.getFightId(), e);
+			}
+			return results;
+		}
+	}
+
+	// runs a number of simulations of one fight, summing their results.
+	private static class SimulationsTask extends RecursiveTask<FightResult>
+	{
+		private final Run run;
+		private final Replay replay;
+		private final int simulations;
+		private final SplittableRandom random;
+
+		private SimulationsTask(Run run, Replay replay, int simulations, SplittableRandom random)
+		{
+			this.run = run;
+			this.replay = replay;
+			this.simulations = simulations;
+			this.random = random;
+		}
+
+		@Override
+		protected FightResult compute()
+		{
+			if (simulations <= SIMULATIONS_PER_TASK || run.cancelled)
+			{
+				return replay.simulate(run.cancelled ? 0 : simulations, random);
+			}
+
+			int half = simulations >>> 1;
+			SimulationsTask left = new SimulationsTask(run, replay, half, random.split());
+			SimulationsTask right = new SimulationsTask(run, replay, simulations - half, random.split());
+			invokeAll(left, right);
+			return left.join().plus(right.join());
+		}
+	}
+}
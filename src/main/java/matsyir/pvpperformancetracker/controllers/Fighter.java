@@ -29,8 +29,8 @@ import com.google.gson.annotations.SerializedName;
 import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.EnumSet;
+import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -43,9 +43,11 @@ import static matsyir.pvpperformancetracker.utils.NumberFormatter.nf1;
 import matsyir.pvpperformancetracker.utils.PvpUtils;
 import static matsyir.pvpperformancetracker.utils.PvpUtils.fixItemId;
 import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.AssumedPrayerTable;
 import matsyir.pvpperformancetracker.models.CombatLevels;
 import matsyir.pvpperformancetracker.models.EquipmentData;
 import matsyir.pvpperformancetracker.models.FightLogEntry;
+import matsyir.pvpperformancetracker.models.FightType;
 import net.runelite.api.ActorSpotAnim;
 import net.runelite.api.GraphicID;
 import net.runelite.api.IterableHashTable;
@@ -135,7 +137,7 @@ class Fighter
 	private transient int lastSoulreaperAttackTick = -1;
 
 	@Getter
-	private transient Queue<FightLogEntry> pendingAttacks;
+	private transient PendingAttackQueue pendingAttacks;
 
 	// fighter that is bound to a player and gets updated during a fight
 	Fighter(FightPerformance fight, Player player)
@@ -153,7 +155,7 @@ class Fighter
 		dead = false;
 		pvpDamageCalc = new PvpDamageCalc(fight);
 		fightLogEntries = new ArrayList<>();
-		pendingAttacks = new LinkedList<>();
+		pendingAttacks = new PendingAttackQueue();
 		baseLevels = player == PLUGIN.getClient().getLocalPlayer() ? CombatLevels.getRealLevels(PLUGIN.getClient()) : null;
 	}
 
@@ -173,7 +175,7 @@ class Fighter
 		dead = false;
 		pvpDamageCalc = null;
 		fightLogEntries = new ArrayList<>();
-		pendingAttacks = new LinkedList<>();
+		pendingAttacks = new PendingAttackQueue();
 		baseLevels = null;
 	}
 
@@ -237,15 +239,18 @@ class Fighter
 			offensivePraySuccessCount++;
 		}
 
+		// indexed by the weapon actually worn, before the VLS re-write below, so a dragon longsword is precomputed too.
+		PvpDamageCalc.WEAPON_ANIMATIONS.record(fixItemId(attackerItems[KitType.WEAPON.getIndex()]), animationData);
+
 		// track dragon longsword as VLS if enabled, for dmm practice purposes.
 		// also check if weapon = VLS because the itemId stays as VLS if they don't switch weapons between
 		// attacks, but we still need to update the animationData in case it's actually a dlong.
-		if (CONFIG.dlongIsVls() && weapon == EquipmentData.DRAGON_LONGSWORD || weapon == EquipmentData.VESTAS_LONGSWORD)
+		if (isTrackedAsVls(weapon))
 		{
 			// modifying attackerItems will modify the actual playerComposition, so future
 			// .getPlayerComposition().getEquipmentIds() calls will also be modified
 			attackerItems[KitType.WEAPON.getIndex()] = EquipmentData.VESTAS_LONGSWORD.getItemId() + PlayerComposition.ITEM_OFFSET;
-			animationData = animationData.isSpecial ? AnimationData.MELEE_VLS_SPEC : AnimationData.MELEE_SCIM_SLASH;
+			animationData = getVlsAnimation(animationData);
 		}
 
 		boolean staffMeleeReduction = false;
@@ -298,6 +303,53 @@ class Fighter
 		pendingAttacks.add(fightLogEntry);
 	}
 
+	// Run the calcs for the attacks this fighter has been seen making with their current weapon, against the opponent's
+	// current gear, so the calc is a cache lookup once the attack animation comes in. Called when either side's
+	// gear changes; both overhead outcomes are covered since the opponent can still switch prayers.
+	void precomputeLikelyAttacks(Player opponent, FightType fightType, AssumedPrayerTable assumedPrayers)
+	{
+		if (player == null || opponent == null || pvpDamageCalc == null || player.getPlayerComposition() == null)
+		{
+			return;
+		}
+
+		int[] equipment = player.getPlayerComposition().getEquipmentIds();
+		int weaponId = fixItemId(equipment[KitType.WEAPON.getIndex()]);
+		EquipmentData weapon = EquipmentData.fromId(weaponId);
+		int stacks = weapon == EquipmentData.SOULREAPER_AXE ? soulreaperStacks : 0;
+		Set<AnimationData> animations = PvpDamageCalc.WEAPON_ANIMATIONS.get(weaponId);
+		if (isTrackedAsVls(weapon))
+		{
+			// the attack will be calculated as a VLS, so apply addAttack's re-write to the gear & indexed animations.
+			// Fights loaded from the history were already logged with a VLS.
+			animations.addAll(PvpDamageCalc.WEAPON_ANIMATIONS.get(EquipmentData.VESTAS_LONGSWORD.getItemId()));
+			Set<AnimationData> vlsAnimations = EnumSet.noneOf(AnimationData.class);
+			for (AnimationData animationData : animations)
+			{
+				vlsAnimations.add(getVlsAnimation(animationData));
+			}
+			animations = vlsAnimations;
+			equipment[KitType.WEAPON.getIndex()] = EquipmentData.VESTAS_LONGSWORD.getItemId() + PlayerComposition.ITEM_OFFSET;
+		}
+
+		for (AnimationData animationData : animations)
+		{
+			int assumedOffensivePray = assumedPrayers.getOffensivePray(animationData.attackStyle, fightType);
+			pvpDamageCalc.precomputeDamageStats(player, opponent, true, animationData, assumedOffensivePray, stacks);
+			pvpDamageCalc.precomputeDamageStats(player, opponent, false, animationData, assumedOffensivePray, stacks);
+		}
+	}
+
+	private static boolean isTrackedAsVls(EquipmentData weapon)
+	{
+		return CONFIG.dlongIsVls() && weapon == EquipmentData.DRAGON_LONGSWORD || weapon == EquipmentData.VESTAS_LONGSWORD;
+	}
+
+	private static AnimationData getVlsAnimation(AnimationData animationData)
+	{
+		return animationData.isSpecial ? AnimationData.MELEE_VLS_SPEC : AnimationData.MELEE_SCIM_SLASH;
+	}
+
 	int updateSoulreaperStacks(AnimationData animationData, int attackTick)
 	{
 		if (!animationData.isSoulreaperAxeAttack())
@@ -343,6 +395,25 @@ class Fighter
 		// Dunno if this really makes sense, we wouldn't have defender logs to do a proper merge with it
 	}
 
+	// re-total the expected stats from the fight log entries, after they've been re-calculated.
+	void recalculateExpectedStats()
+	{
+		expectedDamage = 0;
+		magicHitCountExpected = 0;
+		for (FightLogEntry entry : fightLogEntries)
+		{
+			if (!entry.isFullEntry())
+			{
+				continue;
+			}
+
+			expectedDamage += entry.getExpectedDamage();
+			if (entry.getAnimationData().attackStyle == AnimationData.AttackStyle.MAGIC)
+			{
+				magicHitCountExpected += entry.getAccuracy();
+			}
+		}
+	}
 
 	// this is to be used from the TotalStatsPanel which saves a total of multiple fights.
 	public void addAttacks(int success, int total, double expectedDamage, int damageDealt, int totalMagicAttackCount, int magicHitCount, double magicHitCountExpected, int offensivePraySuccessCount, int hpHealed, int ghostBarrageCount, double ghostBarrageExpectedDamage)
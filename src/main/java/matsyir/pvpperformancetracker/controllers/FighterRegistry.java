@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import net.runelite.api.Actor;
+import net.runelite.api.Player;
+
+// Identifies the Fighters of the current fight from the Actor attached to an event.
+// In crowded areas most animations and hitsplats belong to unrelated players, so these should be rejected
+// before doing any animation lookup, name comparison or allocation. Actors are matched by reference first,
+// then by player index; the name is only compared when the index matches but the reference doesn't
+// (e.g. the fighter's Player was re-created after leaving and re-entering the scene).
+public final class FighterRegistry
+{
+	private static final int NO_INDEX = -1;
+
+	private final Fighter[] fighters = new Fighter[2];
+	private final Player[] players = new Player[2];
+	private final int[] playerIndexes = { NO_INDEX, NO_INDEX };
+
+	public void register(FightPerformance fight)
+	{
+		clear();
+		if (fight == null)
+		{
+			return;
+		}
+
+		bind(0, fight.getCompetitor());
+		bind(1, fight.getOpponent());
+	}
+
+	// returns the Fighter the given actor is playing as, or null if the actor isn't part of the registered fight.
+	public Fighter getFighter(Actor actor)
+	{
+		if (actor == null)
+		{
+			return null;
+		}
+
+		for (int i = 0; i < players.length; i++)
+		{
+			if (players[i] == actor)
+			{
+				return fighters[i];
+			}
+		}
+
+		if (!(actor instanceof Player))
+		{
+			return null;
+		}
+
+		Player player = (Player) actor;
+		int playerIndex = player.getId();
+		for (int i = 0; i < playerIndexes.length; i++)
+		{
+			if (playerIndexes[i] == playerIndex && playerIndex != NO_INDEX)
+			{
+				// player indexes are re-used once a player logs out, so confirm it is still the same player.
+				if (!fighters[i].getName().equals(player.getName()))
+				{
+					return null;
+				}
+				players[i] = player;
+				return fighters[i];
+			}
+		}
+
+		return null;
+	}
+
+	// returns the Player the given fighter was last seen as, or null if the fighter isn't registered.
+	public Player getPlayer(Fighter fighter)
+	{
+		for (int i = 0; i < fighters.length; i++)
+		{
+			if (fighter != null && fighters[i] == fighter)
+			{
+				return players[i];
+			}
+		}
+		return null;
+	}
+
+	// re-bind a fighter whose Player was re-created, e.g. after logging back in with a different player index.
+	public void onPlayerSpawned(Player player)
+	{
+		if (player == null || player.getName() == null)
+		{
+			return;
+		}
+
+		for (int i = 0; i < fighters.length; i++)
+		{
+			if (fighters[i] != null && player.getName().equals(fighters[i].getName()))
+			{
+				players[i] = player;
+				playerIndexes[i] = player.getId();
+			}
+		}
+	}
+
+	public void clear()
+	{
+		for (int i = 0; i < fighters.length; i++)
+		{
+			fighters[i] = null;
+			players[i] = null;
+			playerIndexes[i] = NO_INDEX;
+		}
+	}
+
+	private void bind(int slot, Fighter fighter)
+	{
+		if (fighter == null || fighter.getName() == null)
+		{
+			return;
+		}
+
+		Player player = fighter.getPlayer();
+		fighters[slot] = fighter;
+		players[slot] = player;
+		playerIndexes[slot] = player != null ? player.getId() : NO_INDEX;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import lombok.Getter;
+import matsyir.pvpperformancetracker.models.EquipmentData.VoidStyle;
+import matsyir.pvpperformancetracker.models.RingData;
+
+// Bounded cache of summed gear bonuses and void style, keyed by the full equipment composition and ring.
+// Fighters rarely change gear between attacks, so most lookups are hits and skip summing each item's bonuses and
+// re-resolving the void style. The cache is direct-mapped: a composition's hash picks one slot, and a miss replaces
+// whatever that slot held, so the size never grows past the configured capacity and hits don't allocate.
+// Entries are immutable, so an entry handed out stays valid even if its slot gets replaced afterwards.
+public final class GearBonusCache
+{
+	public interface BonusCalculator
+	{
+		// sums the bonuses into the given zeroed array. Returns false if some item's stats couldn't be resolved yet:
+		// such incomplete results are handed out, but not cached.
+		boolean calculate(int[] itemIds, RingData ringUsed, int[] bonuses);
+	}
+
+	@Getter
+	public static final class Entry
+	{
+		private final int[] equipmentIds;
+		private final RingData ringUsed;
+		// shared between every user of this entry: must not be modified.
+		private final int[] bonuses;
+		private final VoidStyle voidStyle;
+
+		private Entry(int[] equipmentIds, RingData ringUsed, int[] bonuses, VoidStyle voidStyle)
+		{
+			this.equipmentIds = equipmentIds;
+			this.ringUsed = ringUsed;
+			this.bonuses = bonuses;
+			this.voidStyle = voidStyle;
+		}
+
+		private boolean matches(int[] otherEquipmentIds, RingData otherRingUsed)
+		{
+			return ringUsed == otherRingUsed && Arrays.equals(equipmentIds, otherEquipmentIds);
+		}
+	}
+
+	private final Entry[] slots;
+	private final int slotMask;
+	private final int bonusCount;
+	private final BonusCalculator bonusCalculator;
+	private final Function<int[], VoidStyle> voidStyleResolver;
+	private long hitCount = 0;
+	private long missCount = 0;
+
+	// capacity is rounded up to the next power of two.
+	public GearBonusCache(int capacity, int bonusCount, BonusCalculator bonusCalculator, Function<int[], VoidStyle> voidStyleResolver)
+	{
+		if (capacity <= 0)
+		{
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+
+		int slotCount = Integer.highestOneBit(capacity);
+		slotCount = slotCount < capacity ? slotCount << 1 : slotCount;
+		slots = new Entry[slotCount];
+		slotMask = slotCount - 1;
+		this.bonusCount = bonusCount;
+		this.bonusCalculator = bonusCalculator;
+		this.voidStyleResolver = voidStyleResolver;
+	}
+
+	public synchronized Entry get(int[] equipmentIds, RingData ringUsed)
+	{
+		int slot = hash(equipmentIds, ringUsed) & slotMask;
+		Entry entry = slots[slot];
+		if (entry != null && entry.matches(equipmentIds, ringUsed))
+		{
+			hitCount++;
+			return entry;
+		}
+
+		missCount++;
+		int[] equipmentCopy = equipmentIds.clone();
+		int[] bonuses = new int[bonusCount];
+		boolean complete = bonusCalculator.calculate(equipmentCopy, ringUsed, bonuses);
+		entry = new Entry(equipmentCopy, ringUsed, bonuses, voidStyleResolver.apply(equipmentCopy));
+		if (complete)
+		{
+			slots[slot] = entry;
+		}
+		return entry;
+	}
+
+	public synchronized long getHitCount()
+	{
+		return hitCount;
+	}
+
+	public synchronized long getMissCount()
+	{
+		return missCount;
+	}
+
+	// 0-1, or 0 if nothing was looked up yet.
+	public synchronized double getHitRate()
+	{
+		long total = hitCount + missCount;
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+	public synchronized void clear()
+	{
+		Arrays.fill(slots, null);
+		hitCount = 0;
+		missCount = 0;
+	}
+
+	private static int hash(int[] equipmentIds, RingData ringUsed)
+	{
+		int hash = ringUsed == null ? 0 : ringUsed.ordinal() + 1;
+		for (int i = 0; i < equipmentIds.length; i++)
+		{
+			hash = 31 * hash + equipmentIds[i];
+		}
+		// spread the high bits down, since the slot only uses the low ones
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -0,0 +1,559 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+import matsyir.pvpperformancetracker.models.HitsplatInfo;
+import matsyir.pvpperformancetracker.utils.DamageDistribution;
+import matsyir.pvpperformancetracker.utils.PvpUtils;
+import net.runelite.api.Actor;
+import net.runelite.api.Player;
+
+// Matches a tick's buffered hitsplats to the fighters' pending attacks, then computes the display HP & KO chance
+// of every attack that landed. All of the intermediate per-tick state lives in scratch lists owned by the matcher,
+// which are cleared rather than re-allocated, so processing a tick doesn't create garbage on the client thread.
+public final class HitsplatMatcher
+{
+	private static final int DEFAULT_HP = 99;
+
+	// order landed attacks by the tick their hitsplats landed, then attacker, then animation tick,
+	// so that each (hitsplat tick, attacker) group is a contiguous run.
+	private static final Comparator<FightLogEntry> LANDED_ORDER = Comparator
+		.comparingInt(FightLogEntry::getHitsplatTick)
+		.thenComparing(FightLogEntry::getAttackerName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+		.thenComparingInt(FightLogEntry::getTick);
+
+	private final Map<String, Integer> lastNonGmaulSpecTickByAttacker;
+
+	// scratch state, re-used every tick
+	private final List<Actor> hitActors = new ArrayList<>();
+	private final List<HitsplatInfo> actorHits = new ArrayList<>();
+	private final List<FightLogEntry> candidateEntries = new ArrayList<>();
+	private final List<FightLogEntry> gmaulsMatchedThisTick = new ArrayList<>();
+	private final List<FightLogEntry> processedEntriesThisTick = new ArrayList<>();
+	// chance of each HP the defender could be on partway through a tick group, see calculateGroupKoChance.
+	// Sized for 99 hp, only grown for defenders above that.
+	private double[] groupHpChances = new double[DEFAULT_HP + 1];
+
+	public HitsplatMatcher(Map<String, Integer> lastNonGmaulSpecTickByAttacker)
+	{
+		this.lastNonGmaulSpecTickByAttacker = lastNonGmaulSpecTickByAttacker;
+	}
+
+	// Match the hitsplats that landed on tickToProcess (vengeance/recoil already removed) to pending attacks.
+	// maxHp is the max HP used to turn the polled health ratio into an HP estimate.
+	public void matchTick(FightPerformance fight, List<HitsplatInfo> hits, int tickToProcess, int currentTick, int maxHp)
+	{
+		processedEntriesThisTick.clear();
+
+		// Group hitsplats by the actor receiving them, preserving the order they were applied in
+		for (int i = 0; i < hits.size(); i++)
+		{
+			Actor actor = hits.get(i).getActor();
+			if (containsActor(hitActors, actor))
+			{
+				continue;
+			}
+			hitActors.add(actor);
+
+			actorHits.clear();
+			for (int j = i; j < hits.size(); j++)
+			{
+				if (hits.get(j).getActor() == actor)
+				{
+					actorHits.add(hits.get(j));
+				}
+			}
+			matchActorHits(fight, actor, actorHits, tickToProcess, currentTick, maxHp);
+		}
+
+		// Post-processing for Display HP/KO Chance
+		if (!processedEntriesThisTick.isEmpty())
+		{
+			updateDisplayHpAndKoChance(fight);
+		}
+
+		hitActors.clear();
+		actorHits.clear();
+		processedEntriesThisTick.clear();
+	}
+
+	private void matchActorHits(FightPerformance fight, Actor opponent, List<HitsplatInfo> hits, int tickToProcess, int currentTick, int maxHpToUse)
+	{
+		if (!(opponent instanceof Player)) return; // Only process hits on players
+
+		// Determine attacker safely (handle null names and prefer identity when possible)
+		String actorName = opponent.getName();
+		Fighter attacker;
+		Player trackedOppPlayer = fight.getOpponent().getPlayer();
+		Player trackedCompPlayer = fight.getCompetitor().getPlayer();
+
+		boolean opponentIsTrackedOpponent = opponent == trackedOppPlayer || Objects.equals(actorName, fight.getOpponent().getName());
+		boolean opponentIsTrackedCompetitor = opponent == trackedCompPlayer || Objects.equals(actorName, fight.getCompetitor().getName());
+
+		if (opponentIsTrackedOpponent)
+		{
+			attacker = fight.getCompetitor();
+		}
+		else if (opponentIsTrackedCompetitor)
+		{
+			attacker = fight.getOpponent();
+		}
+		else
+		{
+			return;
+		}
+
+		// Get all potentially relevant, unprocessed entries, already sorted by hitsplat match tick then animation tick
+		PendingAttackQueue pendingAttacks = attacker.getPendingAttacks();
+		candidateEntries.clear();
+		pendingAttacks.collectCandidates(currentTick, candidateEntries);
+
+		gmaulsMatchedThisTick.clear();
+		int totalGmaulHitsMatchedThisTick = 0;
+		int nextHit = 0; // hits before this index have already been matched to an attack
+
+		// Iterate through candidate entries chronologically
+		for (int c = 0; c < candidateEntries.size(); c++)
+		{
+			FightLogEntry entry = candidateEntries.get(c);
+
+			// Apply specific lookback for the entry's style
+			int lookback = PendingAttackQueue.getAttackLookback(entry);
+			int hitsplatMatchTick = PendingAttackQueue.getHitsplatMatchTick(entry);
+			if (currentTick - hitsplatMatchTick > lookback)
+			{
+				pendingAttacks.complete(entry);
+				continue;
+			}
+
+			int toMatch = entry.getExpectedHits() - entry.getMatchedHitsCount();
+			if (toMatch <= 0)
+			{
+				pendingAttacks.complete(entry);
+				continue;
+			}
+
+			boolean isInstantGmaulCheck = entry.isGmaulSpecial() && hitsplatMatchTick == tickToProcess;
+
+			int matchedThisCycle = 0;
+			int damageThisCycle = 0;
+			HitsplatInfo lastMatchedInfo = null;
+
+			// Gmaul can hit twice, others match expected hits
+			int hitsToFind = entry.isGmaulSpecial() ? 2 : toMatch;
+
+			// Enforce Dragon Claws 2+2 sequencing: limit phase one to two hits
+			if (entry.getAnimationData() == AnimationData.MELEE_DRAGON_CLAWS_SPEC && entry.getMatchedHitsCount() < 2)
+			{
+				int remainingPhase1 = Math.max(0, 2 - entry.getMatchedHitsCount());
+				hitsToFind = Math.min(hitsToFind, remainingPhase1);
+			}
+
+			// Simple double-GMaul gate: if a different special fired on the previous tick, cap to a single hit
+			if (entry.isGmaulSpecial())
+			{
+				String attackerName = attacker.getName();
+				if (attackerName != null)
+				{
+					Integer lastSpec = lastNonGmaulSpecTickByAttacker.get(attackerName);
+					if (lastSpec != null && lastSpec == hitsplatMatchTick - 1)
+					{
+						hitsToFind = Math.min(hitsToFind, 1);
+					}
+				}
+			}
+
+			while (matchedThisCycle < hitsToFind && nextHit < hits.size())
+			{
+				HitsplatInfo hInfo = hits.get(nextHit++);
+				damageThisCycle += hInfo.getAmount();
+				matchedThisCycle++;
+				lastMatchedInfo = hInfo;
+			}
+
+			if (matchedThisCycle > 0)
+			{
+				entry.setActualDamageSum(entry.getActualDamageSum() + damageThisCycle);
+				entry.setMatchedHitsCount(entry.getMatchedHitsCount() + matchedThisCycle);
+				processedEntriesThisTick.add(entry);
+
+				if (entry.isGmaulSpecial())
+				{
+					gmaulsMatchedThisTick.add(entry);
+					totalGmaulHitsMatchedThisTick += matchedThisCycle;
+				}
+
+				if (entry.getHitsplatTick() < 0)
+				{
+					entry.setHitsplatTick(tickToProcess);
+				}
+
+				// Calculate and set estimated HP Before using polled HP
+				int ratio = lastMatchedInfo.getHealthRatio();
+				int scale = lastMatchedInfo.getHealthScale();
+				// Fallback to current ratio/scale if polled is unavailable
+				if (ratio < 0 || scale <= 0) { ratio = opponent.getHealthRatio(); scale = opponent.getHealthScale(); }
+				int hpBefore = -1;
+				int hpBeforeThisCycle = -1;
+				if (ratio >= 0 && scale > 0 && maxHpToUse > 0)
+				{
+					hpBefore = PvpUtils.calculateHpBeforeHit(ratio, scale, maxHpToUse, entry.getActualDamageSum());
+					hpBeforeThisCycle = PvpUtils.calculateHpBeforeHit(ratio, scale, maxHpToUse, damageThisCycle);
+				}
+				if (hpBefore > 0)
+				{
+					entry.setEstimatedHpBeforeHit(hpBefore);
+					entry.setOpponentMaxHp(maxHpToUse);
+				}
+
+				if (entry.getAnimationData() == AnimationData.MELEE_DRAGON_CLAWS_SPEC)
+				{
+					int matched = entry.getMatchedHitsCount();
+					if (matched == 2 && entry.getClawsHpBeforePhase1() == null && hpBeforeThisCycle > 0)
+					{
+						entry.setClawsHpBeforePhase1(hpBeforeThisCycle);
+						entry.setClawsPhase1Damage(damageThisCycle);
+						entry.setClawsHpAfterPhase1(hpBeforeThisCycle - damageThisCycle);
+					}
+					if (matched >= entry.getExpectedHits() && entry.getClawsHpBeforePhase2() == null && hpBeforeThisCycle > 0)
+					{
+						entry.setClawsHpBeforePhase2(hpBeforeThisCycle);
+					}
+				}
+				else if (entry.getAnimationData() == AnimationData.RANGED_DARK_BOW ||
+					entry.getAnimationData() == AnimationData.RANGED_DARK_BOW_SPEC)
+				{
+					int matchedAfter = entry.getMatchedHitsCount();
+					int matchedBefore = matchedAfter - matchedThisCycle;
+
+					if (matchedBefore == 0 && matchedThisCycle >= 2)
+					{
+						entry.setDarkBowHitsStacked(true);
+						if (entry.getDarkBowHpBeforeHit1() == null && hpBeforeThisCycle > 0)
+						{
+							entry.setDarkBowHpBeforeHit1(hpBeforeThisCycle);
+						}
+					}
+					else
+					{
+						if (matchedAfter >= 1 && entry.getDarkBowHpBeforeHit1() == null && hpBeforeThisCycle > 0)
+						{
+							entry.setDarkBowHpBeforeHit1(hpBeforeThisCycle);
+							entry.setDarkBowHpAfterHit1(hpBeforeThisCycle - damageThisCycle);
+						}
+						if (matchedAfter >= entry.getExpectedHits() && entry.getDarkBowHpBeforeHit2() == null && hpBeforeThisCycle > 0)
+						{
+							entry.setDarkBowHpBeforeHit2(hpBeforeThisCycle);
+						}
+					}
+				}
+			}
+
+			// Mark entry as fully processed if all expected hits are matched OR if it's an instant Gmaul (even if only 1 hit matched)
+			if (entry.getMatchedHitsCount() >= entry.getExpectedHits() || isInstantGmaulCheck)
+			{
+				pendingAttacks.complete(entry);
+			}
+		}
+
+		// Gmaul Damage Scaling (Applied after all matching for the tick)
+		boolean isMultiHitGmaul = totalGmaulHitsMatchedThisTick >= 2;
+		if (isMultiHitGmaul)
+		{
+			for (int g = 0; g < gmaulsMatchedThisTick.size(); g++)
+			{
+				gmaulsMatchedThisTick.get(g).scaleToGmaulHits(totalGmaulHitsMatchedThisTick);
+			}
+		}
+
+		candidateEntries.clear();
+		gmaulsMatchedThisTick.clear();
+	}
+
+	// Group processed entries by the tick they landed and the attacker, then cascade each group's display HP forward
+	private void updateDisplayHpAndKoChance(FightPerformance fight)
+	{
+		processedEntriesThisTick.sort(LANDED_ORDER);
+
+		int groupStart = 0;
+		int size = processedEntriesThisTick.size();
+		while (groupStart < size)
+		{
+			FightLogEntry first = processedEntriesThisTick.get(groupStart);
+			int groupEnd = groupStart + 1;
+			while (groupEnd < size && isSameGroup(first, processedEntriesThisTick.get(groupEnd)))
+			{
+				groupEnd++;
+			}
+
+			if (first.getHitsplatTick() >= 0)
+			{
+				updateGroup(fight, groupStart, groupEnd);
+			}
+			groupStart = groupEnd;
+		}
+	}
+
+	// entries [start, end) of processedEntriesThisTick, already sorted by their original animation tick
+	private void updateGroup(FightPerformance fight, int start, int end)
+	{
+		boolean isGroup = end - start > 1;
+
+		// Calculate Correct Starting HP for Forward Cascade
+		boolean hasHp = false;
+		int hpBeforeSequence = 0;
+		FightLogEntry lastEntry = processedEntriesThisTick.get(end - 1);
+		Integer hpBeforeLastHit = lastEntry.getEstimatedHpBeforeHit();
+		Integer lastHitDamage = lastEntry.getActualDamageSum();
+
+		// Ensure we have the necessary values from the last hit to calculate final HP
+		if (hpBeforeLastHit != null && lastHitDamage != null)
+		{
+			int hpAfterSequence = hpBeforeLastHit - lastHitDamage;
+
+			// Calculate total damage for the sequence
+			int totalDamageInSequence = 0;
+			for (int i = start; i < end; i++)
+			{
+				Integer damage = processedEntriesThisTick.get(i).getActualDamageSum();
+				totalDamageInSequence += damage != null ? damage : 0;
+			}
+
+			// Calculate HP Before the entire sequence
+			hpBeforeSequence = hpAfterSequence + totalDamageInSequence;
+			hasHp = true;
+		}
+
+		// If hpBeforeSequence is still unknown (calculation failed), try fallback using first entry's estimate
+		if (!hasHp)
+		{
+			Integer firstEstimate = processedEntriesThisTick.get(start).getEstimatedHpBeforeHit();
+			if (firstEstimate != null)
+			{
+				hpBeforeSequence = firstEstimate;
+				hasHp = true;
+			}
+		}
+
+		// Forward Cascade for Display
+		int currentHp = hpBeforeSequence;
+		for (int i = start; i < end; i++)
+		{
+			FightLogEntry entry = processedEntriesThisTick.get(i);
+			int hpBeforeCurrent = currentHp;
+			int damageCurrent = entry.getActualDamageSum() != null ? entry.getActualDamageSum() : 0;
+			int hpAfterCurrent = hpBeforeCurrent - damageCurrent;
+
+			entry.setDisplayHpBefore(hasHp ? hpBeforeCurrent : null);
+			entry.setDisplayHpAfter(hasHp ? hpAfterCurrent : null);
+
+			Double koChanceCurrent = hasHp ? calculateKoChance(entry, hpBeforeCurrent) : null;
+			if (koChanceCurrent != null && koChanceCurrent <= 0.0)
+			{
+				koChanceCurrent = null;
+			}
+
+			entry.setDisplayKoChance(koChanceCurrent);
+			entry.setKoChance(koChanceCurrent);
+
+			fight.updateKoChanceStats(entry);
+			fight.updateWinPrediction(entry);
+
+			entry.setPartOfTickGroup(isGroup);
+
+			// Update HP for the next iteration
+			currentHp = hpAfterCurrent;
+		}
+
+		// Two-phase specs are left out, their hits don't all land together.
+		lastEntry.setGroupKoChance(isGroup && hasHp && !hasTwoPhaseAttack(start, end)
+			? calculateGroupKoChance(start, end, hpBeforeSequence) : null);
+	}
+
+	// Exact chance that entries [start, end) deal at least hpBefore together. Adds the attacks one at a time to the
+	// chance of each HP the defender could be left on, in a reused buffer so scoring a group doesn't allocate.
+	private Double calculateGroupKoChance(int start, int end, int hpBefore)
+	{
+		if (hpBefore <= 0)
+		{
+			return null;
+		}
+		if (groupHpChances.length <= hpBefore)
+		{
+			groupHpChances = new double[hpBefore + 1];
+		}
+		Arrays.fill(groupHpChances, 0, hpBefore + 1, 0.0);
+		groupHpChances[hpBefore] = 1.0;
+
+		double koChance = 0.0;
+		for (int i = start; i < end; i++)
+		{
+			DamageDistribution damage = PvpUtils.getDamageDistribution(processedEntriesThisTick.get(i));
+			if (damage == null)
+			{
+				continue;
+			}
+
+			for (int hp = 1; hp <= hpBefore; hp++)
+			{
+				koChance += groupHpChances[hp] * damage.getTail(hp);
+			}
+			// lowest HP first: every HP above the one being updated still holds its chance from before this attack
+			for (int hp = 1; hp <= hpBefore; hp++)
+			{
+				double hpChance = 0.0;
+				for (int from = hp; from <= hpBefore; from++)
+				{
+					hpChance += groupHpChances[from] * damage.getProbability(from - hp);
+				}
+				groupHpChances[hp] = hpChance;
+			}
+		}
+		return koChance > 0.0 ? Math.min(koChance, 1.0) : null;
+	}
+
+	private boolean hasTwoPhaseAttack(int start, int end)
+	{
+		for (int i = start; i < end; i++)
+		{
+			FightLogEntry entry = processedEntriesThisTick.get(i);
+			if (isClawsSpec(entry) || isDarkBow(entry))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isClawsSpec(FightLogEntry entry)
+	{
+		return entry.getAnimationData() == AnimationData.MELEE_DRAGON_CLAWS_SPEC && entry.getExpectedHits() >= 4;
+	}
+
+	private static boolean isDarkBow(FightLogEntry entry)
+	{
+		return entry.getAnimationData() == AnimationData.RANGED_DARK_BOW ||
+			entry.getAnimationData() == AnimationData.RANGED_DARK_BOW_SPEC;
+	}
+
+	static Double calculateKoChance(FightLogEntry entry, int hpBefore)
+	{
+		boolean isClawsSpec = isClawsSpec(entry);
+		boolean isDarkBow = isDarkBow(entry);
+		if (isClawsSpec)
+		{
+			if (entry.getMatchedHitsCount() < entry.getExpectedHits())
+			{
+				return null;
+			}
+
+			int healBetween = 0;
+			Integer hpAfterP1 = entry.getClawsHpAfterPhase1();
+			Integer hpBeforeP2 = entry.getClawsHpBeforePhase2();
+			if (hpAfterP1 != null && hpBeforeP2 != null)
+			{
+				healBetween = Math.max(0, hpBeforeP2 - hpAfterP1);
+			}
+			return PvpUtils.calculateClawsTwoPhaseKo(entry.getAccuracy(), entry.getMaxHit(), hpBefore, healBetween);
+		}
+		else if (isDarkBow)
+		{
+			if (entry.getMatchedHitsCount() < entry.getExpectedHits())
+			{
+				return null;
+			}
+
+			int healBetween = 0;
+			if (!entry.isDarkBowHitsStacked())
+			{
+				Integer hpAfterHit1 = entry.getDarkBowHpAfterHit1();
+				Integer hpBeforeHit2 = entry.getDarkBowHpBeforeHit2();
+				if (hpAfterHit1 != null && hpBeforeHit2 != null)
+				{
+					healBetween = Math.max(0, hpBeforeHit2 - hpAfterHit1);
+				}
+			}
+			return PvpUtils.calculateDarkBowTwoPhaseKo(
+				entry.getAccuracy(),
+				entry.getMinHit(),
+				entry.getMaxHit(),
+				hpBefore,
+				healBetween
+			);
+		}
+
+		switch (entry.getDamageRollDistribution())
+		{
+			case CLAMPED_TO_MINIMUM:
+				return PvpUtils.calculateClampedKoChance(
+					entry.getAccuracy(),
+					entry.getMinHit(),
+					entry.getMaxHit(),
+					hpBefore
+				);
+			case MULTI_HIT_CLAMPED_TO_MINIMUM:
+				return PvpUtils.calculateMultiHitClampedKoChance(
+					entry.getAccuracy(),
+					entry.getMinHit(),
+					entry.getMaxHit(),
+					entry.getDamageRollHitCount(),
+					hpBefore
+				);
+			case STANDARD:
+			default:
+				return PvpUtils.calculateKoChance(
+					entry.getAccuracy(),
+					entry.getMinHit(),
+					entry.getMaxHit(),
+					hpBefore
+				);
+		}
+	}
+
+	private static boolean isSameGroup(FightLogEntry a, FightLogEntry b)
+	{
+		return a.getHitsplatTick() == b.getHitsplatTick() && Objects.equals(a.getAttackerName(), b.getAttackerName());
+	}
+
+	private static boolean containsActor(List<Actor> actors, Actor actor)
+	{
+		for (int i = 0; i < actors.size(); i++)
+		{
+			if (actors.get(i) == actor)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.Arrays;
+import matsyir.pvpperformancetracker.models.HitsplatInfo;
+import net.runelite.api.Actor;
+
+// Fixed-size, tick-indexed buffer of hitsplats. Each tick maps to the slot (tick % slotCount), so a slot is
+// implicitly expired as soon as a tick that is slotCount ticks newer writes into it. HitsplatInfo instances
+// are pooled per slot and re-used, so steady-state buffering does not allocate; a slot only grows when a
+// tick receives more hitsplats than it has ever held before.
+// The actors' health ratio/scale is attached to the buffered hitsplats in one batch per tick, see sampleHp.
+public final class HitsplatRingBuffer
+{
+	private static final int NO_TICK = Integer.MIN_VALUE;
+	private static final int INITIAL_SLOT_CAPACITY = 8;
+
+	private final int[] slotTicks;
+	private final int[] slotSizes;
+	private final int[] slotSampledSizes; // how many of the slot's hitsplats already had their actor's HP sampled
+	private final HitsplatInfo[][] slots;
+
+	// window: how many ticks older than the newest tick should remain readable.
+	public HitsplatRingBuffer(int window)
+	{
+		if (window < 0)
+		{
+			throw new IllegalArgumentException("window must not be negative");
+		}
+
+		int slotCount = window + 1;
+		slotTicks = new int[slotCount];
+		slotSizes = new int[slotCount];
+		slotSampledSizes = new int[slotCount];
+		slots = new HitsplatInfo[slotCount][];
+		Arrays.fill(slotTicks, NO_TICK);
+		for (int i = 0; i < slotCount; i++)
+		{
+			slots[i] = newPool(INITIAL_SLOT_CAPACITY, 0, null);
+		}
+	}
+
+	// Buffer a hitsplat for the given tick, returning the pooled HitsplatInfo that now holds it.
+	public HitsplatInfo add(int tick, Actor actor, int amount, int hitsplatType)
+	{
+		int slot = slotIndex(tick);
+		if (slotTicks[slot] != tick)
+		{
+			resetSlot(slot, tick);
+		}
+
+		int size = slotSizes[slot];
+		HitsplatInfo[] pool = slots[slot];
+		if (size == pool.length)
+		{
+			pool = newPool(pool.length * 2, size, pool);
+			slots[slot] = pool;
+		}
+
+		HitsplatInfo info = pool[size];
+		info.set(actor, amount, hitsplatType);
+		slotSizes[slot] = size + 1;
+		return info;
+	}
+
+	// Number of hitsplats buffered for the given tick, or 0 if that tick has expired or never had any.
+	public int size(int tick)
+	{
+		int slot = slotIndex(tick);
+		return slotTicks[slot] == tick ? slotSizes[slot] : 0;
+	}
+
+	public HitsplatInfo get(int tick, int index)
+	{
+		int slot = slotIndex(tick);
+		if (slotTicks[slot] != tick || index < 0 || index >= slotSizes[slot])
+		{
+			throw new IndexOutOfBoundsException("No hitsplat " + index + " buffered for tick " + tick);
+		}
+		return slots[slot][index];
+	}
+
+	// Poll the health ratio/scale of the hit actors once per actor, after all of a tick's hitsplats have been applied,
+	// and attach it to every hitsplat of that tick that wasn't sampled yet. Returns how many hitsplats were updated.
+	public int sampleHp(int tick)
+	{
+		int slot = slotIndex(tick);
+		if (slotTicks[slot] != tick)
+		{
+			return 0;
+		}
+
+		HitsplatInfo[] pool = slots[slot];
+		int firstUnsampled = slotSampledSizes[slot];
+		int size = slotSizes[slot];
+		for (int i = firstUnsampled; i < size; i++)
+		{
+			HitsplatInfo info = pool[i];
+			Actor actor = info.getActor();
+			if (actor == null)
+			{
+				continue;
+			}
+
+			// re-use the HP already polled for the same actor in this batch
+			int sameActor = firstUnsampled;
+			while (sameActor < i && pool[sameActor].getActor() != actor)
+			{
+				sameActor++;
+			}
+
+			if (sameActor < i)
+			{
+				info.setHp(pool[sameActor].getHealthRatio(), pool[sameActor].getHealthScale());
+			}
+			else
+			{
+				info.setHp(actor.getHealthRatio(), actor.getHealthScale());
+			}
+		}
+
+		slotSampledSizes[slot] = size;
+		return size - firstUnsampled;
+	}
+
+	public void clear()
+	{
+		for (int slot = 0; slot < slots.length; slot++)
+		{
+			resetSlot(slot, NO_TICK);
+		}
+	}
+
+	private void resetSlot(int slot, int tick)
+	{
+		HitsplatInfo[] pool = slots[slot];
+		for (int i = 0; i < slotSizes[slot]; i++)
+		{
+			pool[i].clear();
+		}
+		slotSizes[slot] = 0;
+		slotSampledSizes[slot] = 0;
+		slotTicks[slot] = tick;
+	}
+
+	private int slotIndex(int tick)
+	{
+		return Math.floorMod(tick, slots.length);
+	}
+
+	private static HitsplatInfo[] newPool(int capacity, int existingSize, HitsplatInfo[] existing)
+	{
+		HitsplatInfo[] pool = new HitsplatInfo[capacity];
+		if (existing != null)
+		{
+			System.arraycopy(existing, 0, pool, 0, existingSize);
+		}
+		for (int i = existingSize; i < capacity; i++)
+		{
+			pool[i] = new HitsplatInfo();
+		}
+		return pool;
+	}
+}
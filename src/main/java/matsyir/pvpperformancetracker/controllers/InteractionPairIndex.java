@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.Arrays;
+import net.runelite.api.Actor;
+import net.runelite.api.Player;
+
+// Remembers which player each player is currently interacting with, indexed by player index, in order to detect
+// two players targeting each other (a likely fight) in constant time from InteractingChanged events alone.
+// Memory is fixed regardless of how many players are around.
+public final class InteractionPairIndex
+{
+	private static final int NO_TARGET = -1;
+
+	private final int[] targetByPlayerIndex = new int[FightManager.MAX_PLAYERS];
+
+	public InteractionPairIndex()
+	{
+		clear();
+	}
+
+	// records that source is now interacting with target (or nothing, if target isn't a player).
+	// returns true if the target was already interacting with the source, i.e. they are now targeting each other.
+	public boolean recordInteraction(Actor source, Actor target)
+	{
+		int sourceIndex = playerIndex(source);
+		if (sourceIndex == NO_TARGET)
+		{
+			return false;
+		}
+
+		int targetIndex = playerIndex(target);
+		targetByPlayerIndex[sourceIndex] = targetIndex;
+		return targetIndex != NO_TARGET && targetIndex != sourceIndex && targetByPlayerIndex[targetIndex] == sourceIndex;
+	}
+
+	public void remove(Player player)
+	{
+		int playerIndex = playerIndex(player);
+		if (playerIndex != NO_TARGET)
+		{
+			targetByPlayerIndex[playerIndex] = NO_TARGET;
+		}
+	}
+
+	public void clear()
+	{
+		Arrays.fill(targetByPlayerIndex, NO_TARGET);
+	}
+
+	private static int playerIndex(Actor actor)
+	{
+		if (!(actor instanceof Player))
+		{
+			return NO_TARGET;
+		}
+
+		int playerIndex = ((Player) actor).getId();
+		return playerIndex >= 0 && playerIndex < FightManager.MAX_PLAYERS ? playerIndex : NO_TARGET;
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+// Dense, item-id-indexed table of equipment bonuses. Each item's 13 bonuses are stored contiguously in one flat
+// int[] (see PvpDamageCalc's STAB_ATTACK..MAGIC_DAMAGE indexes), so summing a player's gear is a handful of array
+// reads instead of an ItemStats lookup and a fresh int[] per item per attack.
+// Items are resolved through the loader the first time they're requested and never again afterwards, including
+// items without equipment stats. Items the loader can't resolve yet (e.g. before the ItemManager has loaded its stats)
+// aren't remembered, so they're retried on the next lookup.
+// Methods are synchronized since lookups happen on both the client thread and the Swing thread (fight analysis).
+public final class ItemStatsTable
+{
+	public static final int BONUS_COUNT = 13;
+	private static final int INITIAL_CAPACITY = 32768; // covers most equipable item ids without growing
+	private static final int MAX_ITEM_ID = 1 << 20; // far above any real item id, only guards the table size
+	// returned by loaders for items that are known to have no equipment stats
+	public static final int[] NO_BONUSES = new int[0];
+
+	private static final byte UNKNOWN = 0;
+	private static final byte NO_STATS = 1;
+	private static final byte LOADED = 2;
+
+	private final IntFunction<int[]> loader;
+	private byte[] states;
+	private int[] bonuses;
+
+	// loader: returns an item's BONUS_COUNT bonuses, NO_BONUSES if the item has no equipment stats, or null if its
+	// stats can't be resolved yet. It is called once per item id, apart from retries of unresolved items.
+	public ItemStatsTable(IntFunction<int[]> loader)
+	{
+		this(loader, INITIAL_CAPACITY);
+	}
+
+	ItemStatsTable(IntFunction<int[]> loader, int initialCapacity)
+	{
+		this.loader = loader;
+		states = new byte[Math.max(initialCapacity, 1)];
+		bonuses = new int[states.length * BONUS_COUNT];
+	}
+
+	// Add the item's bonuses onto totals. Returns false (leaving totals untouched) if the item has no stats.
+	public synchronized boolean addBonuses(int itemId, int[] totals)
+	{
+		if (!ensureLoaded(itemId))
+		{
+			return false;
+		}
+
+		int offset = itemId * BONUS_COUNT;
+		for (int i = 0; i < BONUS_COUNT; i++)
+		{
+			totals[i] += bonuses[offset + i];
+		}
+		return true;
+	}
+
+	// Returns a copy of the item's bonuses, or null if the item has no stats.
+	public synchronized int[] getBonuses(int itemId)
+	{
+		if (!ensureLoaded(itemId))
+		{
+			return null;
+		}
+
+		int offset = itemId * BONUS_COUNT;
+		return Arrays.copyOfRange(bonuses, offset, offset + BONUS_COUNT);
+	}
+
+	// Whether the item's stats (or lack of stats) are known, without looking it up: after a lookup returned no
+	// stats, this tells items without stats apart from items that couldn't be resolved yet.
+	public synchronized boolean isResolved(int itemId)
+	{
+		return itemId >= 0 && itemId < states.length && states[itemId] != UNKNOWN;
+	}
+
+	public synchronized void clear()
+	{
+		Arrays.fill(states, UNKNOWN);
+		Arrays.fill(bonuses, 0);
+	}
+
+	// Resolve the item through the loader if it hasn't been yet. Returns true if the item has stats.
+	private boolean ensureLoaded(int itemId)
+	{
+		if (itemId < 0 || itemId >= MAX_ITEM_ID)
+		{
+			return false;
+		}
+
+		if (itemId < states.length && states[itemId] != UNKNOWN)
+		{
+			return states[itemId] == LOADED;
+		}
+
+		int[] itemBonuses = loader.apply(itemId);
+		if (itemBonuses == null)
+		{
+			// not resolved yet, try again next time
+			return false;
+		}
+
+		ensureCapacity(itemId);
+		if (itemBonuses.length == 0)
+		{
+			states[itemId] = NO_STATS;
+			return false;
+		}
+
+		System.arraycopy(itemBonuses, 0, bonuses, itemId * BONUS_COUNT, Math.min(itemBonuses.length, BONUS_COUNT));
+		states[itemId] = LOADED;
+		return true;
+	}
+
+	private void ensureCapacity(int itemId)
+	{
+		if (itemId < states.length)
+		{
+			return;
+		}
+
+		int capacity = states.length;
+		while (capacity <= itemId)
+		{
+			capacity *= 2;
+		}
+		states = Arrays.copyOf(states, capacity);
+		bonuses = Arrays.copyOf(bonuses, capacity * BONUS_COUNT);
+	}
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.Arrays;
+import java.util.List;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+
+// A Fighter's attacks that are still waiting for their hitsplats, ordered by (hitsplat match tick, animation tick).
+// Attacks are almost always added in order, so insertion is effectively O(1). Completing an attack only flags it;
+// completed and expired attacks are dropped once they reach the head of the queue. The expected hits of matchable
+// attacks are also cached in small per-tick buckets so the total that could land on a given tick is a constant-time
+// lookup rather than a scan of every pending attack.
+public final class PendingAttackQueue
+{
+	// the longest amount of ticks any attack can still be matched after its hitsplat match tick
+	public static final int MAX_MATCH_WINDOW = 6;
+	// attacks are never matched in less than this many ticks, regardless of their style's lookback
+	private static final int MIN_MATCH_WINDOW = 5;
+	private static final int BUCKET_COUNT = 16; // power of 2, comfortably larger than MAX_MATCH_WINDOW
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int NO_TICK = Integer.MIN_VALUE;
+
+	private FightLogEntry[] entries = new FightLogEntry[INITIAL_CAPACITY];
+	private int head = 0;
+	private int size = 0;
+
+	// cached sum of expected hits of matchable attacks, per hitsplat match tick & per match window
+	private final int[] bucketTicks = new int[BUCKET_COUNT];
+	private final int[][] bucketExpectedHits = new int[BUCKET_COUNT][MAX_MATCH_WINDOW + 1];
+
+	public PendingAttackQueue()
+	{
+		Arrays.fill(bucketTicks, NO_TICK);
+	}
+
+	// the tick an attack's hitsplats are matched relative to
+	public static int getHitsplatMatchTick(FightLogEntry entry)
+	{
+		return entry.getHitsplatMatchTick() >= 0 ? entry.getHitsplatMatchTick() : entry.getTick();
+	}
+
+	// how many ticks after its match tick an attack's hitsplats can still land, depending on its style
+	public static int getAttackLookback(FightLogEntry entry)
+	{
+		switch (entry.getAnimationData().attackStyle)
+		{
+			case STAB:
+			case SLASH:
+			case CRUSH:
+				return 3;
+			case MAGIC:
+				return 6;
+			case RANGED:
+			default:
+				return 4;
+		}
+	}
+
+	static int getMatchWindow(FightLogEntry entry)
+	{
+		return Math.max(MIN_MATCH_WINDOW, getAttackLookback(entry));
+	}
+
+	// only full, non-splashing attacks that haven't been processed yet can be matched to hitsplats
+	static boolean isMatchable(FightLogEntry entry)
+	{
+		return !entry.isKoChanceCalculated() && entry.isFullEntry() && !entry.isSplash();
+	}
+
+	public void add(FightLogEntry entry)
+	{
+		if (size == entries.length)
+		{
+			grow();
+		}
+
+		// insert from the tail, shifting any later-ordered attacks back (rare: only for out-of-order animations)
+		int pos = size;
+		while (pos > 0 && compare(at(pos - 1), entry) > 0)
+		{
+			entries[index(pos)] = at(pos - 1);
+			pos--;
+		}
+		entries[index(pos)] = entry;
+		size++;
+
+		if (isMatchable(entry))
+		{
+			addToBucket(entry, entry.getExpectedHits());
+		}
+	}
+
+	// Flag an attack as fully processed. It will no longer be a candidate nor counted as expected hits.
+	public void complete(FightLogEntry entry)
+	{
+		if (isMatchable(entry))
+		{
+			addToBucket(entry, -entry.getExpectedHits());
+		}
+		entry.setKoChanceCalculated(true);
+		dropStaleHead(NO_TICK);
+	}
+
+	// Total expected hits of matchable attacks that could still land on the given tick.
+	public int getExpectedHitsLandingOn(int tick)
+	{
+		int total = 0;
+		for (int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+		{
+			int age = tick - bucketTicks[bucket];
+			if (bucketTicks[bucket] == NO_TICK || age > MAX_MATCH_WINDOW)
+			{
+				continue;
+			}
+
+			int[] hitsByWindow = bucketExpectedHits[bucket];
+			for (int window = Math.max(0, age); window <= MAX_MATCH_WINDOW; window++)
+			{
+				total += hitsByWindow[window];
+			}
+		}
+		return total;
+	}
+
+	// Append the matchable attacks that could land on the given tick to the (re-used) output list, in match order.
+	public void collectCandidates(int tick, List<FightLogEntry> out)
+	{
+		for (int i = 0; i < size; i++)
+		{
+			FightLogEntry entry = at(i);
+			if (isMatchable(entry) && tick - getHitsplatMatchTick(entry) <= getMatchWindow(entry))
+			{
+				out.add(entry);
+			}
+		}
+	}
+
+	// Drop attacks from the head of the queue that can no longer land on or after the given tick.
+	public void expire(int tick)
+	{
+		dropStaleHead(tick);
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	public void clear()
+	{
+		Arrays.fill(entries, null);
+		head = 0;
+		size = 0;
+		Arrays.fill(bucketTicks, NO_TICK);
+		for (int[] hitsByWindow : bucketExpectedHits)
+		{
+			Arrays.fill(hitsByWindow, 0);
+		}
+	}
+
+	private void dropStaleHead(int tick)
+	{
+		while (size > 0)
+		{
+			FightLogEntry first = entries[head];
+			boolean expired = tick != NO_TICK && tick - getHitsplatMatchTick(first) > MAX_MATCH_WINDOW;
+			if (!first.isKoChanceCalculated() && !expired)
+			{
+				break;
+			}
+
+			entries[head] = null;
+			head = (head + 1) % entries.length;
+			size--;
+		}
+	}
+
+	private void addToBucket(FightLogEntry entry, int expectedHits)
+	{
+		int matchTick = getHitsplatMatchTick(entry);
+		int bucket = matchTick & (BUCKET_COUNT - 1);
+		if (bucketTicks[bucket] != matchTick)
+		{
+			// a bucket only gets re-used once its previous tick is far out of any match window.
+			if (expectedHits < 0)
+			{
+				return;
+			}
+			bucketTicks[bucket] = matchTick;
+			Arrays.fill(bucketExpectedHits[bucket], 0);
+		}
+		bucketExpectedHits[bucket][getMatchWindow(entry)] += expectedHits;
+	}
+
+	private void grow()
+	{
+		FightLogEntry[] grown = new FightLogEntry[entries.length * 2];
+		for (int i = 0; i < size; i++)
+		{
+			grown[i] = at(i);
+		}
+		entries = grown;
+		head = 0;
+	}
+
+	private FightLogEntry at(int i)
+	{
+		return entries[index(i)];
+	}
+
+	private int index(int i)
+	{
+		return (head + i) % entries.length;
+	}
+
+	private static int compare(FightLogEntry a, FightLogEntry b)
+	{
+		int cmp = Integer.compare(getHitsplatMatchTick(a), getHitsplatMatchTick(b));
+		return cmp != 0 ? cmp : Integer.compare(a.getTick(), b.getTick());
+	}
+}
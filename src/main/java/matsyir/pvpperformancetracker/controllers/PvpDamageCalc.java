@@ -39,9 +39,9 @@ import static matsyir.pvpperformancetracker.utils.PvpUtils.fixItemId;
 import static matsyir.pvpperformancetracker.utils.PvpUtils.getExpectedHits;
 import matsyir.pvpperformancetracker.models.EquipmentData;
 import matsyir.pvpperformancetracker.models.EquipmentData.VoidStyle;
-import matsyir.pvpperformancetracker.models.AssumedPrayers;
+import matsyir.pvpperformancetracker.models.FightType;
+import matsyir.pvpperformancetracker.models.AssumedPrayerTable;
 import matsyir.pvpperformancetracker.models.CombatLevels;
-import net.runelite.api.Skill;
 import matsyir.pvpperformancetracker.models.RangeAmmoData;
 import matsyir.pvpperformancetracker.models.RingData;
 import net.runelite.api.EquipmentInventorySlot;
@@ -52,6 +52,7 @@ import net.runelite.api.PlayerComposition;
 import net.runelite.api.SpriteID;
 import net.runelite.api.kit.KitType;
 import net.runelite.client.game.ItemEquipmentStats;
+import net.runelite.client.game.ItemManager;
 import net.runelite.client.game.ItemStats;
 import org.apache.commons.lang3.ArrayUtils;
 import net.runelite.api.Player;
@@ -59,6 +60,8 @@ import net.runelite.api.Player;
 // Pvp damage calculations
 // call updateDamageStats(...) with required parameters, and retrieve results by using the field getters
 // for averageHit, accuracy, maxHit, and minHit.
+// Alternatively, the static calculate(...) methods return an immutable DamageCalcResult, using only the given
+// DamageCalcContext rather than the client & config, so they're safe to call from any thread.
 //
 // combat formulas source thread QFC: 317,318,461,66138854
 // osrs wiki was also used a lot
@@ -99,11 +102,8 @@ public class PvpDamageCalc
 
 	// Defensive pray: live tracking assumes Piety/Rigour/Augury (25%) when the local prayer
 	// level unlocks them; otherwise Steel Skin (15%). Augury mage-def only when Augury is unlocked.
-	// Merge path still uses high-tier def + defender-log Augury when available.
-	private static final double PIETY_DEF_PRAYER_MODIFIER = 1.25;
-	private static final double AUGURY_DEF_PRAYER_MODIFIER = 1.25;
+	// Merge path still uses high-tier def (AssumedPrayerTable.ALL_UNLOCKED) + defender-log Augury when available.
 	private static final double AUGURY_MAGEDEF_PRAYER_MODIFIER = 1.25;
-	private static final double RIGOUR_DEF_PRAYER_MODIFIER = 1.25;
 
 	private static final double BALLISTA_SPEC_ACCURACY_MODIFIER = 1.25;
 	private static final double BALLISTA_SPEC_DMG_MODIFIER = 1.25;
@@ -154,6 +154,11 @@ public class PvpDamageCalc
 	public static final double VOLATILE_NIGHTMARE_STAFF_ACC_MODIFIER = 0.5;
 	private static final int VIRTUS_ANCIENT_MAGIC_DMG_BONUS = 3;
 
+	private static final int GEAR_BONUS_CACHE_SIZE = 256;
+	private static final int MAX_INDEXED_WEAPONS = 2048;
+	// attacks seen per weapon, used to pre-calculate likely attacks when a fighter's gear changes.
+	public static final WeaponAnimationIndex WEAPON_ANIMATIONS = new WeaponAnimationIndex(MAX_INDEXED_WEAPONS);
+
 
 	@Getter
 	private double averageHit = 0;
@@ -176,15 +181,79 @@ public class PvpDamageCalc
 
 	private RingData ringUsed;
 	boolean isLmsFight;
+	private DamageCalcContext context;
+	// when tracking a live fight, the plugin's current context for this fight type is used, see
+	// PvpPerformanceTrackerPlugin.getDamageCalcContext: it's only re-taken when the config or prayer level change.
+	private final FightType liveFightType;
+
+	private static final int RESULT_CACHE_SIZE = 64;
+	// results per attack signature. Elysian/SotD reductions are applied on top of the cached result, not cached.
+	// null for the single-use calcs behind the static calculate methods.
+	private final DamageCalcCache resultCache;
+	private static final int LMS_RESULT_CACHE_SIZE = 4096;
+	// LMS levels are fixed per build, rings are always a berserker ring (i) and the gear pool is small, so the same
+	// attacks against the same defensive setups keep coming up, across fighters & fights. Live LMS calcs share this
+	// larger cache instead of their own small ones, so results are reused between fights rather than re-calculated.
+	// Only used from the live calcs, which all run on the client thread.
+	public static final DamageCalcCache LMS_RESULT_CACHE = new DamageCalcCache(LMS_RESULT_CACHE_SIZE);
 
 	public PvpDamageCalc(FightPerformance relatedFight)
 	{
-		isLmsFight = relatedFight.fightType.isLmsFight();
-		defaultCombatLevels = relatedFight.fightType.getCombatLevelsForType();
+		this(PLUGIN.getDamageCalcContext(relatedFight.fightType), relatedFight.fightType, true);
+	}
+
+	// calc that only ever uses the given context, e.g. for fight analysis.
+	public PvpDamageCalc(DamageCalcContext context)
+	{
+		this(context, null, true);
+	}
+
+	private PvpDamageCalc(DamageCalcContext context, FightType liveFightType, boolean cacheResults)
+	{
+		this.liveFightType = liveFightType;
+		this.resultCache = cacheResults ? new DamageCalcCache(RESULT_CACHE_SIZE) : null;
+		useContext(context);
+	}
+
+	// Calculation of a single attack where everything is taken from the context & parameters, nothing from the client
+	// or config, so it can run on any thread. The context's gear bonus cache is synchronized: parallel callers should
+	// each use their own (see DamageCalcContext.withGearBonuses) rather than contend over a shared one.
+	// The rings & ammo are the ones actually used, where known (otherwise see DamageCalcContext.getAssumedRing/getAssumedAmmo).
+	public static DamageCalcResult calculate(DamageCalcContext context, int[] attackerItems, RingData attackerRing,
+		int[] defenderItems, RingData defenderRing, Integer attackerAmmoItemId, AnimationData animationData,
+		boolean success, int offensivePray, int soulreaperStacks)
+	{
+		PvpDamageCalc calc = new PvpDamageCalc(context, null, false);
+		calc.updateDamageStats(attackerItems, attackerRing, defenderItems, defenderRing, attackerAmmoItemId,
+			animationData, success, offensivePray, soulreaperStacks);
+		return calc.getResult();
+	}
+
+	// Re-calculation of a logged attack with the same inputs as the live calc: the context's default levels & the
+	// defender's assumed prayers, rather than the levels & prayers in the logs (which is what fight analysis uses, see
+	// updateDamageStats(FightLogEntry, FightLogEntry)). That way re-calculated fights match fights tracked with the
+	// same config. Only the local player's worn ring is known from the logs. Same threading as above.
+	public static DamageCalcResult recalculate(DamageCalcContext context, FightLogEntry atkLog, FightLogEntry defenderLog)
+	{
+		PvpDamageCalc calc = new PvpDamageCalc(context, null, false);
+		RingData attackerRing = calc.getLoggedRingUsed(atkLog);
+		RingData defenderRing = defenderLog != null ? calc.getLoggedRingUsed(defenderLog) : calc.ringUsed;
+		int soulreaperStacks = atkLog.getSoulreaperStacks() != null ? atkLog.getSoulreaperStacks() : 0;
+		calc.updateDamageStats(atkLog.getAttackerGear(), attackerRing, atkLog.getDefenderGear(), defenderRing,
+			atkLog.getAttackerAmmoItemId(), atkLog.getAnimationData(), atkLog.success(), atkLog.getAttackerOffensivePray(),
+			soulreaperStacks);
+		calc.applyLoggedReductions(atkLog);
+		return calc.getResult();
+	}
+
+	private void useContext(DamageCalcContext context)
+	{
+		this.context = context;
+		isLmsFight = context.isLmsFight();
+		defaultCombatLevels = context.getDefaultLevels();
 		this.attackerLevels = defaultCombatLevels;
 		this.defenderLevels = defaultCombatLevels;
-
-		this.ringUsed = isLmsFight ? RingData.BERSERKER_RING_I : CONFIG.ringChoice();
+		this.ringUsed = context.getAssumedRing();
 	}
 
 	// main function used to update stats during an ongoing fight
@@ -199,6 +268,43 @@ public class PvpDamageCalc
 		// shouldn't be possible, but just in case
 		if (attacker == null || defender == null) { return; }
 
+		if (liveFightType != null)
+		{
+			DamageCalcContext liveContext = PLUGIN.getDamageCalcContext(liveFightType);
+			if (liveContext != context)
+			{
+				useContext(liveContext);
+			}
+		}
+
+		int[] attackerItems = attacker.getPlayerComposition().getEquipmentIds();
+		int[] defenderItems = defender.getPlayerComposition().getEquipmentIds();
+		updateDamageStats(attackerItems, getRingUsed(attacker), defenderItems, getRingUsed(defender),
+			getLocalPlayerAmmoItemId(attacker), animationData, success, offensivePray, soulreaperStacks);
+
+		if (log.isDebugEnabled())
+		{
+			log.debug("attackStyle: " + animationData.attackStyle.toString() + ", avgHit: " + nf1.format(averageHit) + ", acc: " + nf1.format(accuracy) +
+				"\nattacker(" + attacker.getName() + ")stats: " + Arrays.toString(context.getGearBonuses().get(attackerItems, getRingUsed(attacker)).getBonuses()) +
+				"\ndefender(" +  defender.getName() + ")stats: " + Arrays.toString(context.getGearBonuses().get(defenderItems, getRingUsed(defender)).getBonuses()));
+		}
+	}
+
+	// Speculative version of the live calc, for an attack that hasn't happened (yet): only fills the result cache, so the
+	// actual attack with the same gear & prayers is a lookup. The current stats are left as they were.
+	public void precomputeDamageStats(Player attacker, Player defender, boolean success, AnimationData animationData, int offensivePray, int soulreaperStacks)
+	{
+		if (resultCache == null || attacker == null || defender == null) { return; }
+
+		DamageCalcResult current = currentResult();
+		updateDamageStats(attacker, defender, success, animationData, offensivePray, soulreaperStacks);
+		applyResult(current);
+	}
+
+	// Core of the live calc: everything client-related (worn rings & ammo) is resolved by the caller.
+	private void updateDamageStats(int[] attackerItems, RingData attackerRing, int[] defenderItems, RingData defenderRing,
+		Integer attackerAmmoItemId, AnimationData animationData, boolean success, int offensivePray, int soulreaperStacks)
+	{
 		// always force default levels (either config levels, or LMS levels) for dps calcs, same as is assumed for opponent
 		this.attackerLevels = getDefaultCombatLevels();
 		this.defenderLevels = getDefaultCombatLevels();
@@ -211,27 +317,36 @@ public class PvpDamageCalc
 		rangedExpectedProcDamage = 0;
 		seekingArrowMinHit = 0;
 
-		int[] attackerItems = attacker.getPlayerComposition().getEquipmentIds();
-		int[] defenderItems = defender.getPlayerComposition().getEquipmentIds();
+		// Assume defender prayers match local prayer unlocks (opponent prayers are not visible).
+		int localPrayerLevel = context.getLocalPrayerLevel();
+
+		DamageCalcCache liveCache = resultCache != null && isLmsFight ? LMS_RESULT_CACHE : resultCache;
+		DamageCalcResult cachedResult = liveCache == null ? null : liveCache.get(attackerItems, attackerRing,
+			defenderItems, defenderRing, attackerAmmoItemId, animationData, success, offensivePray, soulreaperStacks,
+			attackerLevels, defenderLevels, localPrayerLevel, false, false);
+		if (cachedResult != null)
+		{
+			applyResult(cachedResult);
+			return;
+		}
 
 		EquipmentData weapon = EquipmentData.fromId(fixItemId(attackerItems[KitType.WEAPON.getIndex()]));
 
-		int[] playerStats = calculateBonuses(attackerItems, getRingUsed(attacker));
-		int[] opponentStats = calculateBonuses(defenderItems, getRingUsed(defender));
+		GearBonusCache.Entry attackerGear = context.getGearBonuses().get(attackerItems, attackerRing);
+		int[] playerStats = attackerGear.getBonuses();
+		int[] opponentStats = context.getGearBonuses().get(defenderItems, defenderRing).getBonuses();
 		AnimationData.AttackStyle attackStyle = animationData.attackStyle; // basic style: stab/slash/crush/ranged/magic
-		Integer attackerAmmoItemId = getLocalPlayerAmmoItemId(attacker);
 
 		// Special attack used will be determined based on the currently used weapon, if its special attack has been implemented.
 		// the animation just serves to tell if they actually did a special attack animation, since some animations
 		// are used for multiple special attacks.
 		boolean isSpecial = animationData.isSpecial;
-		VoidStyle voidStyle = VoidStyle.getVoidStyleFor(attacker.getPlayerComposition().getEquipmentIds());
+		VoidStyle voidStyle = attackerGear.getVoidStyle();
 
-		// Assume defender prayers match local prayer unlocks (opponent prayers are not visible).
-		int localPrayerLevel = PLUGIN.getClient().getRealSkillLevel(Skill.PRAYER);
-		int localDefenceLevel = this.attackerLevels.def;
-		double defencePrayerModifier = AssumedPrayers.assumedDefencePrayerModifier(attackStyle, localPrayerLevel, localDefenceLevel);
-		boolean defensiveAugurySuccess = AssumedPrayers.assumedDefensiveAugury(localPrayerLevel, localDefenceLevel);
+		// attackerLevels are the context's default levels here, which the context's assumed prayers are based on
+		AssumedPrayerTable assumedPrayers = context.getAssumedPrayers();
+		double defencePrayerModifier = assumedPrayers.getDefencePrayerModifier(attackStyle);
+		boolean defensiveAugurySuccess = assumedPrayers.isDefensiveAugury();
 
 		if (attackStyle.isMelee() || animationData == AnimationData.MELEE_VOIDWAKER_SPEC)
 		{
@@ -263,17 +378,18 @@ public class PvpDamageCalc
 		// The min/maxHits should indeed account for the UNSUCCESSFUL_PRAY_DMG_MODIFIER.
 		maxHit = (int)(maxHit * (success ? 1 : UNSUCCESSFUL_PRAY_DMG_MODIFIER));
 		minHit = (int)(minHit * (success ? 1 : UNSUCCESSFUL_PRAY_DMG_MODIFIER));
-
-		log.debug("attackStyle: " + attackStyle.toString() + ", avgHit: " + nf1.format(averageHit) + ", acc: " + nf1.format(accuracy) +
-			"\nattacker(" + attacker.getName() + ")stats: " + Arrays.toString(playerStats) +
-			"\ndefender(" +  defender.getName() + ")stats: " + Arrays.toString(opponentStats));
+		if (liveCache != null)
+		{
+			liveCache.put(currentResult());
+		}
 	}
 
-	// secondary function used to analyze fights from the fight log (fight analysis/fight merge)
+	// secondary function used to analyze fights from the fight log (fight analysis/fight merge/history re-calculation).
+	// defenderLog can be null if the defender has no log entry yet, in which case default levels are used.
 	public void updateDamageStats(FightLogEntry atkLog, FightLogEntry defenderLog)
 	{
 		this.attackerLevels = atkLog.getAttackerLevels() != null ? atkLog.getAttackerLevels() : getDefaultCombatLevels();
-		this.defenderLevels = defenderLog.getAttackerLevels() != null ? defenderLog.getAttackerLevels() : getDefaultCombatLevels();
+		this.defenderLevels = defenderLog != null && defenderLog.getAttackerLevels() != null ? defenderLog.getAttackerLevels() : getDefaultCombatLevels();
 		int[] attackerItems = atkLog.getAttackerGear();
 		int[] defenderItems = atkLog.getDefenderGear();
 		boolean success = atkLog.success();
@@ -289,30 +405,71 @@ public class PvpDamageCalc
 		rangedExpectedProcDamage = 0;
 		seekingArrowMinHit = 0;
 
+		RingData configRing = context.getRingChoice();
+		Integer attackerAmmoItemId = atkLog.getAttackerAmmoItemId();
+		int soulreaperStacks = atkLog.getSoulreaperStacks() != null ? atkLog.getSoulreaperStacks() : 0;
+		boolean defenderAugury = defenderLog != null && defenderLog.getAttackerOffensivePray() == SpriteID.PRAYER_AUGURY;
+
+		DamageCalcResult cachedResult = resultCache == null ? null : resultCache.get(attackerItems, configRing,
+			defenderItems, configRing, attackerAmmoItemId, animationData, success, offensivePray, soulreaperStacks,
+			attackerLevels, defenderLevels, 0, true, defenderAugury);
+		if (cachedResult != null)
+		{
+			applyResult(cachedResult);
+		}
+		else
+		{
+			calculateFromLog(attackerItems, defenderItems, configRing, attackerAmmoItemId, animationData, success,
+				offensivePray, soulreaperStacks, defenderAugury);
+			if (resultCache != null)
+			{
+				resultCache.put(currentResult());
+			}
+		}
+
+		applyLoggedReductions(atkLog);
+	}
+
+	// the defender's elysian & staff of the dead procs, as they were logged.
+	private void applyLoggedReductions(FightLogEntry atkLog)
+	{
+		if (atkLog.isDefenderElyProc())
+		{
+			applyElysianReduction();
+		}
+		if (atkLog.isDefenderSotdMeleeReductionProc() && atkLog.getAnimationData().attackStyle.isMelee())
+		{
+			applyStaffMeleeReduction();
+		}
+	}
+
+	private void calculateFromLog(int[] attackerItems, int[] defenderItems, RingData configRing, Integer attackerAmmoItemId,
+		AnimationData animationData, boolean success, int offensivePray, int soulreaperStacks, boolean defenderAugury)
+	{
 		EquipmentData weapon = EquipmentData.fromId(fixItemId(attackerItems[KitType.WEAPON.getIndex()]));
 
-		int[] playerStats = this.calculateBonuses(attackerItems);
-		int[] opponentStats = this.calculateBonuses(defenderItems);
+		GearBonusCache.Entry attackerGear = context.getGearBonuses().get(attackerItems, configRing);
+		int[] playerStats = attackerGear.getBonuses();
+		int[] opponentStats = context.getGearBonuses().get(defenderItems, configRing).getBonuses();
 		AnimationData.AttackStyle attackStyle = animationData.attackStyle; // basic style: stab/slash/crush/ranged/magic
-		Integer attackerAmmoItemId = atkLog.getAttackerAmmoItemId();
 
 		// Special attack used will be determined based on the currently used weapon, if its special attack has been implemented.
 		// the animation just serves to tell if they actually did a special attack animation, since some animations
 		// are used for multiple special attacks.
 		boolean isSpecial = animationData.isSpecial;
-		int soulreaperStacks = atkLog.getSoulreaperStacks() != null ? atkLog.getSoulreaperStacks() : 0;
-		VoidStyle voidStyle = VoidStyle.getVoidStyleFor(attackerItems);
+		VoidStyle voidStyle = attackerGear.getVoidStyle();
+		double defencePrayerModifier = AssumedPrayerTable.ALL_UNLOCKED.getDefencePrayerModifier(attackStyle);
 
 		if (attackStyle.isMelee())
 		{
 			getMeleeMaxHit(playerStats[STRENGTH_BONUS], isSpecial, weapon, voidStyle, offensivePray, soulreaperStacks);
 			getMeleeAccuracy(playerStats, opponentStats, attackStyle, isSpecial, weapon, voidStyle, offensivePray,
-				PIETY_DEF_PRAYER_MODIFIER, soulreaperStacks);
+				defencePrayerModifier, soulreaperStacks);
 		}
 		else if (attackStyle == AttackStyle.RANGED)
 		{
 			getRangedMaxHit(playerStats[RANGE_STRENGTH], isSpecial, weapon, voidStyle, offensivePray, attackerItems, animationData, attackerAmmoItemId);
-			getRangeAccuracy(playerStats[RANGE_ATTACK], opponentStats[RANGE_DEF], isSpecial, weapon, voidStyle, offensivePray, attackerItems, attackerAmmoItemId, RIGOUR_DEF_PRAYER_MODIFIER);
+			getRangeAccuracy(playerStats[RANGE_ATTACK], opponentStats[RANGE_DEF], isSpecial, weapon, voidStyle, offensivePray, attackerItems, attackerAmmoItemId, defencePrayerModifier);
 		}
 		// this should always be true at this point, but just in case. unknown animation styles won't
 		// make it here, they should be stopped in FightPerformance::checkForAttackAnimations
@@ -324,7 +481,7 @@ public class PvpDamageCalc
 			EquipmentData bottom = EquipmentData.fromId(fixItemId(attackerItems[KitType.LEGS.getIndex()]));
 			getMagicMaxHit(playerStats[MAGIC_DAMAGE], animationData, offensivePray, voidStyle, shield, weapon, hat, top, bottom);
 			getMagicAccuracy(playerStats[MAGIC_ATTACK], opponentStats[MAGIC_DEF], weapon, animationData, voidStyle, offensivePray,
-				defenderLog.getAttackerOffensivePray() == SpriteID.PRAYER_AUGURY, AUGURY_DEF_PRAYER_MODIFIER);
+				defenderAugury, defencePrayerModifier);
 		}
 
 		getAverageHit(success, weapon, isSpecial);
@@ -334,15 +491,27 @@ public class PvpDamageCalc
 		// The min/maxHits should indeed account for the UNSUCCESSFUL_PRAY_DMG_MODIFIER.
 		maxHit = (int)(maxHit * (success ? 1 : UNSUCCESSFUL_PRAY_DMG_MODIFIER));
 		minHit = (int)(minHit * (success ? 1 : UNSUCCESSFUL_PRAY_DMG_MODIFIER));
+	}
 
-		if (atkLog.isDefenderElyProc())
-		{
-			applyElysianReduction();
-		}
-		if (atkLog.isDefenderSotdMeleeReductionProc() && atkLog.getAnimationData().attackStyle.isMelee())
-		{
-			applyStaffMeleeReduction();
-		}
+	// immutable copy of the current results, including any Elysian/SotD reduction applied since.
+	public DamageCalcResult getResult()
+	{
+		return currentResult();
+	}
+
+	private DamageCalcResult currentResult()
+	{
+		return new DamageCalcResult(averageHit, accuracy, minHit, maxHit, damageRollDistribution, damageRollHitCount);
+	}
+
+	private void applyResult(DamageCalcResult result)
+	{
+		averageHit = result.getAverageHit();
+		accuracy = result.getAccuracy();
+		minHit = result.getMinHit();
+		maxHit = result.getMaxHit();
+		damageRollDistribution = result.getDamageRollDistribution();
+		damageRollHitCount = result.getDamageRollHitCount();
 	}
 
 	private CombatLevels getDefaultCombatLevels()
@@ -672,7 +841,7 @@ public class PvpDamageCalc
 	private RangeAmmoData getWeaponAmmo(EquipmentData weapon, Integer attackerAmmoItemId)
 	{
 		RangeAmmoData attackerAmmo = attackerAmmoItemId == null ? null : RangeAmmoData.fromId(attackerAmmoItemId);
-		return usesEquippedAmmo(weapon, attackerAmmo) ? attackerAmmo : EquipmentData.getWeaponAmmo(weapon, isLmsFight);
+		return usesEquippedAmmo(weapon, attackerAmmo) ? attackerAmmo : context.getAssumedAmmo(weapon);
 	}
 
 	private boolean usesEquippedAmmo(EquipmentData weapon, RangeAmmoData ammo)
@@ -729,6 +898,14 @@ public class PvpDamageCalc
 		return actualRing != null && actualRing != RingData.NONE ? actualRing : ringUsed;
 	}
 
+	// same as above, for an attacker's log entry: only the local player's worn ring is logged.
+	private RingData getLoggedRingUsed(FightLogEntry entry)
+	{
+		Integer loggedRingItemId = entry.getAttackerRingItemId();
+		RingData loggedRing = loggedRingItemId == null ? null : RingData.fromId(loggedRingItemId);
+		return loggedRing != null && loggedRing != RingData.NONE ? loggedRing : ringUsed;
+	}
+
 	private Integer getLocalPlayerRingItemId(Player player)
 	{
 		Player localPlayer = PLUGIN.getClient().getLocalPlayer();
@@ -836,7 +1013,8 @@ public class PvpDamageCalc
 		// Eclipse Atlatl uses Melee Str for max hit but Ranged prayers/void
 		if (weapon == EquipmentData.ECLIPSE_ATLATL)
 		{
-			int[] playerStats = calculateBonusesWithRing(attackerComposition);
+			// uses the currently used ring, in case we're in LMS but the config ring is different.
+			int[] playerStats = context.getGearBonuses().get(attackerComposition, this.ringUsed).getBonuses();
 			// Recalculate effective level using Strength level but Ranged prayer modifier
 			effectiveLevel = Math.floor(((attackerLevels.str * getRangedDamagePrayerModifier(offensivePray)) + STANCE_BONUS) + 8);
 
@@ -1173,19 +1351,26 @@ public class PvpDamageCalc
 	}
 
 	// Retrieve item stats for a single item, returned as an int array so they can be modified.
+	// Stats are resolved once per item id and cached in the plugin's item stats table, see loadItemStats.
+	public static int[] getItemStats(int itemId)
+	{
+		return PLUGIN.getItemStats().getBonuses(itemId);
+	}
+
 	// First, try to get the item stats from the item manager. If stats weren't present in the
 	// itemManager, try get the 'real' item id from the EquipmentData. If it's not defined in EquipmentData, it will return null
-	// and count as 0 stats, but that should be very rare.
-	public static int[] getItemStats(int itemId)
+	// and count as 0 stats for now, but that should be very rare. Null results are retried on the next lookup, in case
+	// the item manager hadn't loaded its stats yet.
+	public static int[] loadItemStats(ItemManager itemManager, int itemId)
 	{
-		ItemStats itemStats = PLUGIN.getItemManager().getItemStats(itemId);
+		ItemStats itemStats = itemManager.getItemStats(itemId);
 		if (itemStats == null)
 		{
 			EquipmentData itemData = EquipmentData.fromId(itemId);
 			if (itemData != null)
 			{
 				itemId = itemData.getItemId();
-				itemStats = PLUGIN.getItemManager().getItemStats(itemId);
+				itemStats = itemManager.getItemStats(itemId);
 			}
 		}
 
@@ -1196,7 +1381,7 @@ public class PvpDamageCalc
 		final ItemEquipmentStats equipmentStats = itemStats.getEquipment();
 		if (equipmentStats == null)
 		{
-			return null;
+			return ItemStatsTable.NO_BONUSES;
 		}
 		return new int[] {
 			equipmentStats.getAstab(),	// 0
@@ -1215,13 +1400,6 @@ public class PvpDamageCalc
 		};
 	}
 
-	// this is used to calculate bonuses including the currently used ring, in case we're in LMS but the config ring
-	// is different.
-	private int[] calculateBonusesWithRing(int[] itemIds)
-	{
-		return calculateBonuses(itemIds, this.ringUsed);
-	}
-
 	public static int[] calculateBonuses(int[] itemIds)
 	{
 		return calculateBonuses(itemIds, CONFIG.ringChoice());
@@ -1229,34 +1407,48 @@ public class PvpDamageCalc
 	// Calculate total equipment bonuses for all given items
 	public static int[] calculateBonuses(int[] itemIds, RingData ringUsed)
 	{
-		int[] equipmentBonuses = ringUsed == null || ringUsed == RingData.NONE ?
-			new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 } :
-			getItemStats(ringUsed.getItemId());
+		int[] equipmentBonuses = new int[ItemStatsTable.BONUS_COUNT];
+		sumBonuses(PLUGIN.getItemStats(), itemIds, ringUsed, equipmentBonuses);
+		return equipmentBonuses;
+	}
+
+	// Gear bonus cache summing bonuses from the given item stats. Caches are synchronized, so threads doing a lot of
+	// calcs in parallel should each have their own, over the same item stats.
+	public static GearBonusCache newGearBonusCache(ItemStatsTable itemStats)
+	{
+		return new GearBonusCache(GEAR_BONUS_CACHE_SIZE, ItemStatsTable.BONUS_COUNT,
+			(itemIds, ringUsed, equipmentBonuses) -> sumBonuses(itemStats, itemIds, ringUsed, equipmentBonuses),
+			VoidStyle::getVoidStyleFor);
+	}
+
+	// Sums into the given array (overwriting its contents), returning false if any item's stats couldn't be resolved yet.
+	private static boolean sumBonuses(ItemStatsTable itemStats, int[] itemIds, RingData ringUsed, int[] equipmentBonuses)
+	{
+		Arrays.fill(equipmentBonuses, 0);
+		boolean complete = true;
 
-		if (equipmentBonuses == null) // shouldn't happen, but as a failsafe if the ring lookup fails
+		// if the ring lookup fails it simply counts as 0 stats
+		if (ringUsed != null && ringUsed != RingData.NONE)
 		{
-			equipmentBonuses = new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+			complete = addItemBonuses(itemStats, ringUsed.getItemId(), equipmentBonuses);
 		}
 
-		for (int item : itemIds)
+		for (int i = 0; i < itemIds.length; i++)
 		{
+			int item = itemIds[i];
 			if (item > PlayerComposition.ITEM_OFFSET)
 			{
-				int[] bonuses = getItemStats(item - PlayerComposition.ITEM_OFFSET);
-
-				if (bonuses == null)
-				{
-					continue;
-				}
-
-				for (int id = 0; id < bonuses.length; id++)
-				{
-					equipmentBonuses[id] += bonuses[id];
-				}
+				complete &= addItemBonuses(itemStats, item - PlayerComposition.ITEM_OFFSET, equipmentBonuses);
 			}
 		}
 
-		return equipmentBonuses;
+		return complete;
+	}
+
+	// returns false if the item's stats couldn't be resolved yet
+	private static boolean addItemBonuses(ItemStatsTable itemStats, int itemId, int[] equipmentBonuses)
+	{
+		return itemStats.addBonuses(itemId, equipmentBonuses) || itemStats.isResolved(itemId);
 	}
 
 	public static ItemEquipmentStats calculateBonusesToStats(int[] itemIds)
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.BitSet;
+import java.util.List;
+import matsyir.pvpperformancetracker.models.HitsplatInfo;
+import net.runelite.api.Actor;
+
+// Per-tick lookup of the damage amounts that could be vengeance or ring of recoil hits, rather than attacks.
+// A hit on one fighter is a vengeance/recoil candidate if its amount equals the vengeance (75%) or recoil (10% + 1)
+// damage reflected from any hit the *other* fighter received on the same tick. The reflected amounts are indexed
+// by amount for each fighter, so each buffered hit can be classified with a single bit lookup.
+public final class ReflectedDamageIndex
+{
+	private Actor first;
+	private Actor second;
+	// reflected amounts that could land on the first/second actor, caused by hits received by the other one.
+	private final BitSet reflectedOntoFirst = new BitSet();
+	private final BitSet reflectedOntoSecond = new BitSet();
+
+	public static int getVengeanceDamage(int incomingDamage)
+	{
+		return Math.max(1, (int) Math.floor(incomingDamage * 0.75));
+	}
+
+	public static int getRecoilDamage(int incomingDamage)
+	{
+		return Math.max(1, (int) Math.floor(incomingDamage * 0.10) + 1);
+	}
+
+	// Index the reflected damage for every hit the two fighters received in the given tick's buffered hitsplats.
+	public void index(HitsplatRingBuffer buffer, int tick, Actor first, Actor second)
+	{
+		clear();
+		this.first = first;
+		this.second = second;
+		if (first == null || second == null)
+		{
+			return;
+		}
+
+		int bufferedHitsplats = buffer.size(tick);
+		for (int i = 0; i < bufferedHitsplats; i++)
+		{
+			HitsplatInfo hit = buffer.get(tick, i);
+			if (hit.getActor() == first)
+			{
+				addReflectedDamage(reflectedOntoSecond, hit.getAmount());
+			}
+			else if (hit.getActor() == second)
+			{
+				addReflectedDamage(reflectedOntoFirst, hit.getAmount());
+			}
+		}
+	}
+
+	public boolean isReflectedHit(HitsplatInfo hit)
+	{
+		int amount = hit.getAmount();
+		if (amount < 0)
+		{
+			return false;
+		}
+
+		if (hit.getActor() == first && first != null)
+		{
+			return reflectedOntoFirst.get(amount);
+		}
+		if (hit.getActor() == second && second != null)
+		{
+			return reflectedOntoSecond.get(amount);
+		}
+		return false;
+	}
+
+	// Remove vengeance/recoil candidates, in order, while there are more hits than expected attack hits.
+	// The remaining hits are compacted in place in a single pass. Returns how many hits were removed.
+	public int removeReflectedHits(List<HitsplatInfo> hits, int expectedAttackHits)
+	{
+		int size = hits.size();
+		int kept = 0;
+		int removed = 0;
+		for (int i = 0; i < size; i++)
+		{
+			HitsplatInfo hit = hits.get(i);
+			if (size - removed > expectedAttackHits && isReflectedHit(hit))
+			{
+				removed++;
+				continue;
+			}
+			hits.set(kept++, hit);
+		}
+
+		for (int i = 0; i < removed; i++)
+		{
+			hits.remove(hits.size() - 1);
+		}
+		return removed;
+	}
+
+	public void clear()
+	{
+		first = null;
+		second = null;
+		reflectedOntoFirst.clear();
+		reflectedOntoSecond.clear();
+	}
+
+	private static void addReflectedDamage(BitSet reflectedAmounts, int incomingDamage)
+	{
+		reflectedAmounts.set(getVengeanceDamage(incomingDamage));
+		reflectedAmounts.set(getRecoilDamage(incomingDamage));
+	}
+}
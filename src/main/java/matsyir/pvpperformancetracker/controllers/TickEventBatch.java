@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import lombok.Getter;
+import matsyir.pvpperformancetracker.models.AnimationData;
+import net.runelite.api.Player;
+
+// Collects the fight-relevant events raised during a tick (attack animations, stat changes, magic xp drops and
+// hitsplats needing an HP sample) so they can be handled together in one deferred pass on the client thread,
+// instead of each event queueing its own callback and reading its own combat levels snapshot.
+// Every record* method returns true when the caller needs to schedule a flush: only one flush is ever queued at a
+// time, and events arriving after a flush has run simply queue the next one.
+public final class TickEventBatch
+{
+	private static final int INITIAL_ANIMATION_CAPACITY = 4;
+
+	// pooled holder for an animation event waiting to be processed
+	@Getter
+	public static final class PendingAnimation
+	{
+		private Player eventSource;
+		private AnimationData animationData;
+		private int tick;
+		private long time;
+		private Integer soulreaperStacksVarp;
+
+		private void set(Player eventSource, AnimationData animationData, int tick, long time, Integer soulreaperStacksVarp)
+		{
+			this.eventSource = eventSource;
+			this.animationData = animationData;
+			this.tick = tick;
+			this.time = time;
+			this.soulreaperStacksVarp = soulreaperStacksVarp;
+		}
+	}
+
+	private PendingAnimation[] animations = new PendingAnimation[INITIAL_ANIMATION_CAPACITY];
+	@Getter
+	private int animationCount;
+	@Getter
+	private boolean levelsChanged;
+	@Getter
+	private boolean hpChanged;
+	@Getter
+	private boolean ghostBarrageCheckNeeded;
+	// tick of the buffered hitsplats that still need their HP sampled, or -1 if there are none
+	@Getter
+	private int hitsplatHpSampleTick = -1;
+	private boolean flushScheduled;
+
+	public TickEventBatch()
+	{
+		for (int i = 0; i < animations.length; i++)
+		{
+			animations[i] = new PendingAnimation();
+		}
+	}
+
+	public boolean recordAnimation(Player eventSource, AnimationData animationData, int tick, long time, Integer soulreaperStacksVarp)
+	{
+		if (animationCount == animations.length)
+		{
+			PendingAnimation[] grown = new PendingAnimation[animations.length * 2];
+			System.arraycopy(animations, 0, grown, 0, animations.length);
+			for (int i = animations.length; i < grown.length; i++)
+			{
+				grown[i] = new PendingAnimation();
+			}
+			animations = grown;
+		}
+
+		animations[animationCount++].set(eventSource, animationData, tick, time, soulreaperStacksVarp);
+		return schedule();
+	}
+
+	public boolean recordLevelsChanged()
+	{
+		levelsChanged = true;
+		return schedule();
+	}
+
+	public boolean recordHpChanged()
+	{
+		hpChanged = true;
+		return schedule();
+	}
+
+	public boolean recordGhostBarrageCheck()
+	{
+		ghostBarrageCheckNeeded = true;
+		return schedule();
+	}
+
+	public boolean recordHitsplat(int tick)
+	{
+		hitsplatHpSampleTick = tick;
+		return schedule();
+	}
+
+	// animations are returned in the order they were recorded
+	public PendingAnimation getAnimation(int index)
+	{
+		if (index < 0 || index >= animationCount)
+		{
+			throw new IndexOutOfBoundsException("Animation index " + index + " out of bounds for size " + animationCount);
+		}
+		return animations[index];
+	}
+
+	public boolean isEmpty()
+	{
+		return animationCount == 0 && !levelsChanged && !hpChanged && !ghostBarrageCheckNeeded && hitsplatHpSampleTick < 0;
+	}
+
+	// must be called once the batch has been processed (or discarded), so that the next event schedules a new flush.
+	public void clear()
+	{
+		for (int i = 0; i < animationCount; i++)
+		{
+			animations[i].set(null, null, 0, 0, null);
+		}
+		animationCount = 0;
+		levelsChanged = false;
+		hpChanged = false;
+		ghostBarrageCheckNeeded = false;
+		hitsplatHpSampleTick = -1;
+		flushScheduled = false;
+	}
+
+	private boolean schedule()
+	{
+		if (flushScheduled)
+		{
+			return false;
+		}
+		flushScheduled = true;
+		return true;
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import lombok.Getter;
+
+// An ongoing fight along with the event state that belongs to it alone, so that several fights can be
+// tracked at the same time without their hitsplats being mixed together.
+@Getter
+public final class TrackedFight
+{
+	private final FightPerformance fight;
+	private final HitsplatRingBuffer hitsplatBuffer;
+	private final FighterRegistry fighters = new FighterRegistry();
+	// player indexes the fighters are currently filed under in the FightManager, or -1 if unknown/not filed.
+	// The competitor is only filed for spectated fights, as it is otherwise the local player in every fight.
+	int opponentIndex = -1;
+	int competitorIndex = -1;
+
+	TrackedFight(FightPerformance fight, int hitsplatWindow)
+	{
+		this.fight = fight;
+		this.hitsplatBuffer = new HitsplatRingBuffer(hitsplatWindow);
+		fighters.register(fight);
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+import net.runelite.api.kit.KitType;
+import static matsyir.pvpperformancetracker.utils.PvpUtils.fixItemId;
+
+// Remembers which attacks have been seen with each weapon, from any fighter, so the damage calcs for a weapon's
+// likely attacks can be run as soon as someone equips it (see Fighter.precomputeLikelyAttacks).
+// The animations are the final ones used for the calcs, e.g. dark bow rather than shortbow.
+public class WeaponAnimationIndex
+{
+	private final Map<Integer, EnumSet<AnimationData>> animationsByWeapon = new HashMap<>();
+	private final int maxWeapons;
+
+	public WeaponAnimationIndex(int maxWeapons)
+	{
+		this.maxWeapons = maxWeapons;
+	}
+
+	public synchronized void record(int weaponItemId, AnimationData animationData)
+	{
+		if (weaponItemId <= 0 || animationData == null)
+		{
+			return;
+		}
+
+		EnumSet<AnimationData> animations = animationsByWeapon.get(weaponItemId);
+		if (animations == null)
+		{
+			// there aren't nearly this many weapons, but don't grow forever from bad data.
+			if (animationsByWeapon.size() >= maxWeapons)
+			{
+				return;
+			}
+			animations = EnumSet.noneOf(AnimationData.class);
+			animationsByWeapon.put(weaponItemId, animations);
+		}
+		animations.add(animationData);
+	}
+
+	// record the attacks of an already-recorded fight, e.g. when loading the fight history.
+	public void recordFight(FightPerformance fight)
+	{
+		recordAttacks(fight.getCompetitor());
+		recordAttacks(fight.getOpponent());
+	}
+
+	private void recordAttacks(Fighter fighter)
+	{
+		if (fighter == null || fighter.getFightLogEntries() == null)
+		{
+			return;
+		}
+
+		for (FightLogEntry entry : fighter.getFightLogEntries())
+		{
+			int[] gear = entry.getAttackerGear();
+			if (entry.isFullEntry() && gear != null && gear.length > KitType.WEAPON.getIndex())
+			{
+				record(fixItemId(gear[KitType.WEAPON.getIndex()]), entry.getAnimationData());
+			}
+		}
+	}
+
+	// copy of the attacks seen with the weapon, empty if none.
+	public synchronized Set<AnimationData> get(int weaponItemId)
+	{
+		EnumSet<AnimationData> animations = animationsByWeapon.get(weaponItemId);
+		return animations != null ? EnumSet.copyOf(animations) : EnumSet.noneOf(AnimationData.class);
+	}
+
+	public synchronized int size()
+	{
+		return animationsByWeapon.size();
+	}
+
+	public synchronized void clear()
+	{
+		animationsByWeapon.clear();
+	}
+}
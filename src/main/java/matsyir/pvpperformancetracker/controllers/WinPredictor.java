@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.Arrays;
+import matsyir.pvpperformancetracker.utils.DamageDistribution;
+
+// Live win probability from a Markov model of both fighters' HP. Each fighter's HP is a probability vector, which
+// each matched attack moves down by the attack's damage distribution (so by what the calcs expected, not by the
+// damage actually rolled), and observed heals move back up. HP 0 is absorbing, and the first fighter to reach it
+// loses: once per tick, the mass that died that tick is turned into wins for whoever is still alive.
+// The vectors only store & walk their alive HP range and re-use their buffers, so an update is a few thousand
+// multiply-adds at most. Not thread-safe: it's updated and read on the client thread.
+public final class WinPredictor
+{
+	private final HpState competitor;
+	private final HpState opponent;
+
+	private double competitorWins = 0;
+	private double opponentWins = 0;
+	// alive chances at the last endTick()
+	private double competitorAliveBefore = 1;
+	private double opponentAliveBefore = 1;
+
+	public WinPredictor(int competitorHp, int competitorMaxHp, int opponentHp, int opponentMaxHp)
+	{
+		competitor = new HpState(competitorHp, competitorMaxHp);
+		opponent = new HpState(opponentHp, opponentMaxHp);
+	}
+
+	// an attack landed on the competitor (onCompetitor) or on the opponent
+	public void addAttack(boolean onCompetitor, DamageDistribution damage)
+	{
+		if (damage != null)
+		{
+			(onCompetitor ? competitor : opponent).applyDamage(damage);
+		}
+	}
+
+	public void addHeal(boolean onCompetitor, int amount)
+	{
+		if (amount > 0)
+		{
+			(onCompetitor ? competitor : opponent).applyHeal(amount);
+		}
+	}
+
+	// Should be called once per tick, after the tick's attacks & heals: whoever died this tick loses, if the other
+	// fighter survived it. Deaths on the same tick are split evenly.
+	public void endTick()
+	{
+		double competitorAlive = competitor.getAlive();
+		double opponentAlive = opponent.getAlive();
+		double competitorDied = competitorAliveBefore - competitorAlive;
+		double opponentDied = opponentAliveBefore - opponentAlive;
+
+		competitorWins += opponentDied * competitorAlive + 0.5 * competitorDied * opponentDied;
+		opponentWins += competitorDied * opponentAlive + 0.5 * competitorDied * opponentDied;
+		competitorAliveBefore = competitorAlive;
+		opponentAliveBefore = opponentAlive;
+	}
+
+	// Chance the competitor wins: the fights the model already decided, plus the undecided ones going to whoever
+	// has more of their HP left (as a fraction of their max HP), split evenly when tied.
+	public double getCompetitorWinProbability()
+	{
+		double undecided = competitorAliveBefore * opponentAliveBefore;
+		if (undecided <= 0)
+		{
+			double decided = competitorWins + opponentWins;
+			return decided > 0 ? competitorWins / decided : 0.5;
+		}
+		return competitorWins + undecided * competitor.chanceAheadOf(opponent);
+	}
+
+	// One fighter's HP distribution. probabilities[0] is the chance they're dead, and only [lo, hi] can hold
+	// alive mass.
+	static final class HpState
+	{
+		private final int maxHp;
+		private double[] probabilities;
+		private double[] scratch; // always all zeroes between updates
+		private int lo;
+		private int hi;
+
+		HpState(int hp, int maxHp)
+		{
+			this.maxHp = Math.max(1, maxHp);
+			// leave room for boosts (saradomin brews go up to 15% + 2 above max HP)
+			int size = Math.max(this.maxHp + this.maxHp * 15 / 100 + 2, hp) + 1;
+			probabilities = new double[size];
+			scratch = new double[size];
+			int start = Math.max(1, Math.min(hp, size - 1));
+			probabilities[start] = 1;
+			lo = start;
+			hi = start;
+		}
+
+		double getAlive()
+		{
+			return 1 - probabilities[0];
+		}
+
+		double getProbability(int hp)
+		{
+			return hp >= 0 && hp < probabilities.length ? probabilities[hp] : 0;
+		}
+
+		void applyDamage(DamageDistribution damage)
+		{
+			if (lo > hi)
+			{
+				return;
+			}
+
+			int maxDamage = damage.getMaxDamage();
+			double died = 0;
+			for (int hp = lo; hp <= hi; hp++)
+			{
+				double p = probabilities[hp];
+				if (p <= 0)
+				{
+					continue;
+				}
+
+				// rolls of at least the current HP kill, the rest leave hp - damage
+				died += p * damage.getTail(hp);
+				int lastSurvivable = Math.min(hp - 1, maxDamage);
+				for (int dmg = 0; dmg <= lastSurvivable; dmg++)
+				{
+					scratch[hp - dmg] += p * damage.getProbability(dmg);
+				}
+			}
+
+			scratch[0] = probabilities[0] + died;
+			Arrays.fill(probabilities, lo, hi + 1, 0.0);
+			probabilities[0] = 0;
+			double[] swap = probabilities;
+			probabilities = scratch;
+			scratch = swap;
+			trim(Math.max(1, lo - maxDamage), hi);
+		}
+
+		void applyHeal(int amount)
+		{
+			if (lo > hi)
+			{
+				return;
+			}
+
+			int top = probabilities.length - 1;
+			int newHi = Math.min(top, hi + amount);
+			// walk down so nothing is moved twice; mass healed past the top collects there
+			for (int hp = hi; hp >= lo; hp--)
+			{
+				double p = probabilities[hp];
+				probabilities[hp] = 0;
+				probabilities[Math.min(top, hp + amount)] += p;
+			}
+			trim(Math.min(top, lo + amount), newHi);
+		}
+
+		private void trim(int from, int to)
+		{
+			while (from <= to && probabilities[from] <= 0)
+			{
+				from++;
+			}
+			while (to >= from && probabilities[to] <= 0)
+			{
+				to--;
+			}
+			lo = from;
+			hi = to;
+		}
+
+		// Chance this fighter has a larger fraction of their max HP left than the other, with ties counting half,
+		// given both are alive. A single merge over both alive ranges.
+		double chanceAheadOf(HpState other)
+		{
+			double alive = getAlive();
+			double otherAlive = other.getAlive();
+			if (lo > hi || other.lo > other.hi || alive <= 0 || otherAlive <= 0)
+			{
+				return 0.5;
+			}
+
+			double ahead = 0;
+			double otherBelow = 0; // other's mass with a smaller HP fraction than the current hp
+			int otherHp = other.lo;
+			for (int hp = lo; hp <= hi; hp++)
+			{
+				double p = probabilities[hp];
+				if (p <= 0)
+				{
+					continue;
+				}
+
+				// hp / maxHp > otherHp / other.maxHp, in integers
+				while (otherHp <= other.hi && (long) otherHp * maxHp < (long) hp * other.maxHp)
+				{
+					otherBelow += other.probabilities[otherHp];
+					otherHp++;
+				}
+				double tied = otherHp <= other.hi && (long) otherHp * maxHp == (long) hp * other.maxHp
+					? other.probabilities[otherHp] : 0;
+				ahead += p * (otherBelow + 0.5 * tied);
+			}
+			return ahead / (alive * otherAlive);
+		}
+	}
+}
@@ -25,15 +25,13 @@
  */
 package matsyir.pvpperformancetracker.models;
 
-import com.google.common.collect.ImmutableMap;
 import java.security.InvalidParameterException;
 import java.util.Arrays;
-import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.Getter;
+import matsyir.pvpperformancetracker.utils.IntLookupTable;
 import net.runelite.api.HeadIcon;
 import net.runelite.api.SpriteID;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
 public enum AnimationData
@@ -150,7 +148,7 @@ public enum AnimationData
 	MAGIC_ANCIENT_MULTI_TARGET(1979, 30), // Burst & Barrage animations (tested all 8, different weapons)
 	MAGIC_VOLATILE_NIGHTMARE_STAFF_SPEC(8532, 66); // assume 99 mage's base damage (does not rise when boosted).
 
-	private static final Map<Integer, AnimationData> DATA;
+	private static final IntLookupTable<AnimationData> DATA;
 
 	public int animationId;
 	public boolean isSpecial;
@@ -158,6 +156,8 @@ public enum AnimationData
 	public int baseSpellDamage;
 	@Getter
 	private final int[] hitsplatGroupPattern;
+	@Getter
+	private final int expectedHits; // sum of the hitsplat groups: how many splats the attack should produce
 
 	// Simple animation data constructor for all melee and range attacks
 	AnimationData(int animationId, AttackStyle attackStyle)
@@ -171,6 +171,7 @@ public enum AnimationData
 		this.isSpecial = false;
 		this.baseSpellDamage = 0;
 		this.hitsplatGroupPattern = new int[] {1};
+		this.expectedHits = 1;
 	}
 	// Simple animation data constructor for all melee and range attacks w/ special
 	AnimationData(int animationId, AttackStyle attackStyle, boolean isSpecial)
@@ -184,6 +185,7 @@ public enum AnimationData
 		this.isSpecial = isSpecial;
 		this.baseSpellDamage = 0;
 		this.hitsplatGroupPattern = new int[] {1};
+		this.expectedHits = 1;
 	}
 	// Magic spell animation data constructor including base spell damage
 	AnimationData(int animationId, int baseSpellDamage)
@@ -193,6 +195,7 @@ public enum AnimationData
 		this.isSpecial = false;
 		this.baseSpellDamage = baseSpellDamage;
 		this.hitsplatGroupPattern = new int[] {1};
+		this.expectedHits = 1;
 	}
 	// Constructor for special multi-hit patterns
 	AnimationData(int animationId, AttackStyle attackStyle, boolean isSpecial, int... hitsplatGroupPattern)
@@ -208,17 +211,18 @@ public enum AnimationData
 		this.hitsplatGroupPattern = hitsplatGroupPattern.length > 0
 			? hitsplatGroupPattern
 			: new int[] {1};
+		this.expectedHits = Arrays.stream(this.hitsplatGroupPattern).sum();
 	}
 
 	static
 	{
-		ImmutableMap.Builder<Integer, AnimationData> builder = new ImmutableMap.Builder<>();
+		IntLookupTable.Builder<AnimationData> builder = IntLookupTable.builder();
 
 		for (AnimationData data : values())
 		{
 			// allow to skip animation detection by using 0 or less as the animation id.
 			if (data.animationId <= 0) { continue; }
-			builder.put(data.animationId, data);
+			builder.putIfAbsent(data.animationId, data);
 		}
 
 		DATA = builder.build();
@@ -296,7 +300,7 @@ public enum AnimationData
 
 		public boolean isMelee()
 		{
-			return ArrayUtils.contains(AttackStyle.MELEE_STYLES, this);
+			return protection == HeadIcon.MELEE; // same as being one of MELEE_STYLES, without the scan
 		}
 
 		public boolean isUsingSuccessfulOffensivePray(int pray)
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.models;
+
+import lombok.Getter;
+import matsyir.pvpperformancetracker.models.AnimationData.AttackStyle;
+import static matsyir.pvpperformancetracker.models.AssumedPrayers.AUGURY_LEVEL;
+import static matsyir.pvpperformancetracker.models.AssumedPrayers.DEADEYE_LEVEL;
+import static matsyir.pvpperformancetracker.models.AssumedPrayers.DEFENCE_LEVEL_REQ;
+import static matsyir.pvpperformancetracker.models.AssumedPrayers.MYSTIC_VIGOR_LEVEL;
+import static matsyir.pvpperformancetracker.models.AssumedPrayers.PIETY_LEVEL;
+import static matsyir.pvpperformancetracker.models.AssumedPrayers.RIGOUR_LEVEL;
+import static matsyir.pvpperformancetracker.models.AssumedPrayers.STEEL_SKIN_DEF_PRAYER_MODIFIER;
+
+// The AssumedPrayers results for one prayer & defence level, per attack style. They only change at a few level
+// thresholds, so a table is precomputed for each threshold bucket at class init, and resolving the assumed prayers
+// for an attack is a bucket lookup plus an array read instead of re-running the unlock checks.
+public final class AssumedPrayerTable
+{
+	// prayer levels at which any assumed prayer changes, ascending
+	private static final int[] PRAYER_THRESHOLDS = {DEADEYE_LEVEL, MYSTIC_VIGOR_LEVEL, PIETY_LEVEL, RIGOUR_LEVEL, AUGURY_LEVEL};
+	private static final AssumedPrayerTable[][] TABLES = new AssumedPrayerTable[PRAYER_THRESHOLDS.length + 1][2];
+
+	static
+	{
+		for (int prayerBucket = 0; prayerBucket < TABLES.length; prayerBucket++)
+		{
+			int prayerLevel = prayerBucket == 0 ? 1 : PRAYER_THRESHOLDS[prayerBucket - 1];
+			TABLES[prayerBucket][0] = new AssumedPrayerTable(prayerLevel, 1);
+			TABLES[prayerBucket][1] = new AssumedPrayerTable(prayerLevel, DEFENCE_LEVEL_REQ);
+		}
+	}
+
+	// every prayer unlocked: what the fight log analysis assumes for defenders.
+	public static final AssumedPrayerTable ALL_UNLOCKED = forLevels(AUGURY_LEVEL, DEFENCE_LEVEL_REQ);
+
+	private final int[] offensivePray = new int[AttackStyle.values().length];
+	private final int[] lmsOffensivePray = new int[AttackStyle.values().length];
+	private final double[] defencePrayerModifier = new double[AttackStyle.values().length];
+	@Getter
+	private final boolean defensiveAugury;
+
+	private AssumedPrayerTable(int prayerLevel, int defenceLevel)
+	{
+		for (AttackStyle style : AttackStyle.values())
+		{
+			offensivePray[style.ordinal()] = AssumedPrayers.assumedOffensivePray(style, false, prayerLevel, defenceLevel);
+			lmsOffensivePray[style.ordinal()] = AssumedPrayers.assumedOffensivePray(style, true, prayerLevel, defenceLevel);
+			defencePrayerModifier[style.ordinal()] = AssumedPrayers.assumedDefencePrayerModifier(style, prayerLevel, defenceLevel);
+		}
+		defensiveAugury = AssumedPrayers.assumedDefensiveAugury(prayerLevel, defenceLevel);
+	}
+
+	public static AssumedPrayerTable forLevels(int prayerLevel, int defenceLevel)
+	{
+		int prayerBucket = 0;
+		while (prayerBucket < PRAYER_THRESHOLDS.length && prayerLevel >= PRAYER_THRESHOLDS[prayerBucket])
+		{
+			prayerBucket++;
+		}
+		return TABLES[prayerBucket][defenceLevel >= DEFENCE_LEVEL_REQ ? 1 : 0];
+	}
+
+	// same as AssumedPrayers.assumedOffensivePray
+	public int getOffensivePray(AttackStyle attackStyle, FightType fightType)
+	{
+		return getOffensivePray(attackStyle, fightType != null && fightType.isLmsFight());
+	}
+
+	public int getOffensivePray(AttackStyle attackStyle, boolean lmsFight)
+	{
+		if (attackStyle == null)
+		{
+			return 0;
+		}
+		return (lmsFight ? lmsOffensivePray : offensivePray)[attackStyle.ordinal()];
+	}
+
+	// same as AssumedPrayers.assumedDefencePrayerModifier
+	public double getDefencePrayerModifier(AttackStyle incomingAttackStyle)
+	{
+		return incomingAttackStyle != null ? defencePrayerModifier[incomingAttackStyle.ordinal()] : STEEL_SKIN_DEF_PRAYER_MODIFIER;
+	}
+}
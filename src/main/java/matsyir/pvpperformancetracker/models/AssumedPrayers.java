@@ -60,6 +60,11 @@ public final class AssumedPrayers
 	 * Assumed offensive prayer sprite for an opponent attack of the given style.
 	 */
 	public static int assumedOffensivePray(AttackStyle attackStyle, FightType fightType, int prayerLevel, int defenceLevel)
+	{
+		return assumedOffensivePray(attackStyle, fightType.isLmsFight(), prayerLevel, defenceLevel);
+	}
+
+	public static int assumedOffensivePray(AttackStyle attackStyle, boolean lmsFight, int prayerLevel, int defenceLevel)
 	{
 		if (attackStyle == null)
 		{
@@ -76,13 +81,13 @@ public final class AssumedPrayers
 		{
 			return prayerLevel >= RIGOUR_LEVEL && defenceLevel >= DEFENCE_LEVEL_REQ
 				? SpriteID.PRAYER_RIGOUR
-				: (fightType.isLmsFight() || prayerLevel < DEADEYE_LEVEL ? SpriteID.PRAYER_EAGLE_EYE : SpriteID.PRAYER_DEADEYE);
+				: (lmsFight || prayerLevel < DEADEYE_LEVEL ? SpriteID.PRAYER_EAGLE_EYE : SpriteID.PRAYER_DEADEYE);
 		}
 		if (attackStyle == AttackStyle.MAGIC)
 		{
 			return prayerLevel >= AUGURY_LEVEL && defenceLevel >= DEFENCE_LEVEL_REQ
 				? SpriteID.PRAYER_AUGURY
-				: (fightType.isLmsFight() || prayerLevel < MYSTIC_VIGOR_LEVEL ? SpriteID.PRAYER_MYSTIC_MIGHT : SpriteID.PRAYER_MYSTIC_VIGOUR);
+				: (lmsFight || prayerLevel < MYSTIC_VIGOR_LEVEL ? SpriteID.PRAYER_MYSTIC_MIGHT : SpriteID.PRAYER_MYSTIC_VIGOUR);
 		}
 		return 0;
 	}
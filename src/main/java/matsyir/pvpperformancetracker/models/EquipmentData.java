@@ -24,10 +24,9 @@
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 package matsyir.pvpperformancetracker.models;
-import java.util.HashMap;
-import java.util.Map;
 import lombok.Getter;
 import matsyir.pvpperformancetracker.PvpPerformanceTrackerPlugin;
+import matsyir.pvpperformancetracker.utils.IntLookupTable;
 import matsyir.pvpperformancetracker.utils.PvpUtils;
 import net.runelite.api.ItemID;
 import net.runelite.api.kit.KitType;
@@ -197,7 +196,7 @@ public enum EquipmentData
 	ABYSSAL_DAGGER(ItemID.ABYSSAL_DAGGER, ItemID.ABYSSAL_DAGGER_P, ItemID.ABYSSAL_DAGGER_P_13269, ItemID.ABYSSAL_DAGGER_P_13271, 27861, ItemID.ABYSSAL_DAGGER_BHP, ItemID.ABYSSAL_DAGGER_BHP_27865, ItemID.ABYSSAL_DAGGER_BHP_27867),
 	;
 
-	private static final Map<Integer, EquipmentData> itemData = new HashMap<>();
+	private static final IntLookupTable<EquipmentData> itemData;
 
 	@Getter
 	private final int itemId; // main id to be used for stat lookups
@@ -224,20 +223,28 @@ public enum EquipmentData
 
 	// get currently selected weapon ammo, based on weapon used & configured bolt choice.
 	public static RangeAmmoData getWeaponAmmo(EquipmentData weapon, boolean isLmsFight)
+	{
+		return getWeaponAmmo(weapon, isLmsFight, PvpPerformanceTrackerPlugin.CONFIG.boltChoice(),
+			PvpPerformanceTrackerPlugin.CONFIG.strongBoltChoice(), PvpPerformanceTrackerPlugin.CONFIG.bpDartChoice());
+	}
+
+	// same as above, but with explicit ammo choices rather than the current config's.
+	public static RangeAmmoData getWeaponAmmo(EquipmentData weapon, boolean isLmsFight, RangeAmmoData.BoltAmmo boltChoice,
+		RangeAmmoData.StrongBoltAmmo strongBoltChoice, RangeAmmoData.DartAmmo bpDartChoice)
 	{
 		RangeAmmoData wepAmmo;
 
 		if (ArrayUtils.contains(RangeAmmoData.BoltAmmo.WEAPONS_USING, weapon))
 		{
-			wepAmmo = PvpPerformanceTrackerPlugin.CONFIG.boltChoice();
+			wepAmmo = boltChoice;
 		}
 		else if (ArrayUtils.contains(RangeAmmoData.StrongBoltAmmo.WEAPONS_USING, weapon))
 		{
-			wepAmmo = PvpPerformanceTrackerPlugin.CONFIG.strongBoltChoice();
+			wepAmmo = strongBoltChoice;
 		}
 		else if (ArrayUtils.contains(RangeAmmoData.DartAmmo.WEAPONS_USING, weapon))
 		{
-			wepAmmo = PvpPerformanceTrackerPlugin.CONFIG.bpDartChoice();
+			wepAmmo = bpDartChoice;
 		}
 		else if (weapon == HEAVY_BALLISTA || weapon == LIGHT_BALLISTA)
 		{
@@ -280,17 +287,19 @@ public enum EquipmentData
 
 	static
 	{
+		IntLookupTable.Builder<EquipmentData> builder = IntLookupTable.builder();
 		for (EquipmentData data : EquipmentData.values())
 		{
-			itemData.putIfAbsent(data.getItemId(), data);
+			builder.putIfAbsent(data.getItemId(), data);
 			if (data.additionalIds != null && data.additionalIds.length > 0)
 			{
 				for (int id : data.additionalIds)
 				{
-					itemData.putIfAbsent(id, data);
+					builder.putIfAbsent(id, data);
 				}
 			}
 		}
+		itemData = builder.build();
 	}
 
 	public enum VoidStyle
@@ -32,6 +32,7 @@ import java.time.Instant;
 import joptsimple.internal.Strings;
 import lombok.Getter;
 import lombok.Setter;
+import matsyir.pvpperformancetracker.controllers.DamageCalcResult;
 import matsyir.pvpperformancetracker.controllers.PvpDamageCalc;
 import static matsyir.pvpperformancetracker.PvpPerformanceTrackerPlugin.PLUGIN;
 import static matsyir.pvpperformancetracker.utils.NumberFormatter.nf1;
@@ -190,6 +191,13 @@ public class FightLogEntry implements Comparable<FightLogEntry>
 	@Setter
 	private boolean isGmaulSpecial = false;
 
+	// number of gmaul hits that landed together with this spec, when there were 2 or more. The hit range and expected
+	// damage then cover all of them, so recalculated single-hit values get scaled by it too. 0 if never scaled.
+	@Expose
+	@SerializedName("GMH")
+	@Getter
+	private int gmaulHitCount;
+
 	// Recorded opponent health ratio and scale at the moment of the hitsplat
 	private int recordedHealthRatio = -1;
 	private int recordedHealthScale = -1;
@@ -216,6 +224,10 @@ public class FightLogEntry implements Comparable<FightLogEntry>
 	@Expose
 	@Getter @Setter
 	private boolean isPartOfTickGroup = false;
+	// exact chance that the whole tick group KOs from the HP before its first hit, set on the group's last entry
+	@Expose
+	@Getter @Setter
+	private Double groupKoChance = null;
 
 	// Transient fields for handling multi-tick Dragon Claws special attacks
 	@Getter
@@ -418,6 +430,35 @@ public class FightLogEntry implements Comparable<FightLogEntry>
 		return Math.max(1, damageRollHitCount);
 	}
 
+	// overwrite the calculated stats with a re-calculation, e.g. from FightHistoryRecalculator.
+	public void applyDamageCalcResult(DamageCalcResult result)
+	{
+		this.expectedDamage = result.getAverageHit();
+		this.accuracy = result.getAccuracy();
+		this.minHit = result.getMinHit();
+		this.maxHit = result.getMaxHit();
+		this.damageRollDistribution = result.getDamageRollDistribution();
+		this.damageRollHitCount = result.getDamageRollHitCount();
+		if (gmaulHitCount >= 2)
+		{
+			scaleDamage(gmaulHitCount);
+		}
+	}
+
+	// Scale this gmaul spec's hit range & expected damage to cover every gmaul hit that landed on the same tick
+	public void scaleToGmaulHits(int gmaulHitCount)
+	{
+		this.gmaulHitCount = gmaulHitCount;
+		scaleDamage(gmaulHitCount);
+	}
+
+	private void scaleDamage(int multiplier)
+	{
+		this.minHit *= multiplier;
+		this.maxHit *= multiplier;
+		this.expectedDamage *= multiplier;
+	}
+
 	public String toChatMessage()
 	{
 		Color darkRed = new Color(127, 0, 0); // same color as default clan chat color
@@ -56,4 +56,42 @@ public enum FightType
 	{
 		return ArrayUtils.contains(LMS_TYPES, this);
 	}
+
+	// the LMS build using the given (boosted) defence level
+	public static FightType getLmsTypeForDefence(int defLevel)
+	{
+		return defLevel <= LMS_1DEF.combatLevelsForType.def ? LMS_1DEF :
+			defLevel <= LMS_ZERK.combatLevelsForType.def ? LMS_ZERK :
+			LMS_MAXMED;
+	}
+
+	// The LMS build of a player only known by their combat level, e.g. a spectated fighter. The builds' combat levels
+	// are estimated from their levels, then shifted to match a player whose build is known, so the prayer level &
+	// boosts the estimate leaves out cancel out.
+	public static FightType getLmsTypeForCombatLevel(int combatLevel, int knownCombatLevel, FightType knownType)
+	{
+		double offset = knownCombatLevel - knownType.getEstimatedCombatLevel();
+		FightType closest = knownType;
+		double closestDiff = Double.MAX_VALUE;
+		for (FightType type : LMS_TYPES)
+		{
+			double diff = Math.abs(type.getEstimatedCombatLevel() + offset - combatLevel);
+			if (diff < closestDiff)
+			{
+				closest = type;
+				closestDiff = diff;
+			}
+		}
+		return closest;
+	}
+
+	// combat level formula without prayer, only meant to compare the LMS builds with each-other
+	private double getEstimatedCombatLevel()
+	{
+		CombatLevels levels = combatLevelsForType;
+		double melee = 0.325 * (levels.atk + levels.str);
+		double ranged = 0.325 * Math.floor(levels.range * 1.5);
+		double magic = 0.325 * Math.floor(levels.mage * 1.5);
+		return 0.25 * (levels.def + levels.hp) + Math.max(melee, Math.max(ranged, magic));
+	}
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.models;
+
+import lombok.Getter;
+
+// Immutable snapshot of the client state that the event handlers & overlay keep reading: the LMS varbit, whether the
+// loaded map regions are at LMS, and the local player's levels. Each part is re-taken only when its input changes
+// (VarbitChanged, a map load, StatChanged), and the tick once per GameTick, so handlers and the overlay's render()
+// read fields instead of re-querying the client or scanning map regions. The assumed prayers follow the local
+// prayer & defence levels, so they're resolved along with them.
+@Getter
+public final class GameTickContext
+{
+	public static final GameTickContext EMPTY = new GameTickContext(-1, false, false, null, 1);
+
+	private final int tick; // tick of the last GameTick
+	private final boolean inLmsMatch;
+	private final boolean atLmsIncludingFerox;
+	private final CombatLevels localLevels; // current boosted levels; null until first taken
+	private final int localPrayerLevel; // real (unboosted) prayer level
+	private final AssumedPrayerTable assumedPrayers;
+
+	public GameTickContext(int tick, boolean inLmsMatch, boolean atLmsIncludingFerox, CombatLevels localLevels, int localPrayerLevel)
+	{
+		this.tick = tick;
+		this.inLmsMatch = inLmsMatch;
+		this.atLmsIncludingFerox = atLmsIncludingFerox;
+		this.localLevels = localLevels;
+		this.localPrayerLevel = localPrayerLevel;
+		this.assumedPrayers = AssumedPrayerTable.forLevels(localPrayerLevel, localLevels != null ? localLevels.def : 1);
+	}
+
+	public GameTickContext withTick(int tick)
+	{
+		return new GameTickContext(tick, inLmsMatch, atLmsIncludingFerox, localLevels, localPrayerLevel);
+	}
+
+	public GameTickContext withInLmsMatch(boolean inLmsMatch)
+	{
+		return new GameTickContext(tick, inLmsMatch, atLmsIncludingFerox, localLevels, localPrayerLevel);
+	}
+
+	public GameTickContext withAtLmsIncludingFerox(boolean atLmsIncludingFerox)
+	{
+		return new GameTickContext(tick, inLmsMatch, atLmsIncludingFerox, localLevels, localPrayerLevel);
+	}
+
+	public GameTickContext withLocalLevels(CombatLevels localLevels, int localPrayerLevel)
+	{
+		return new GameTickContext(tick, inLmsMatch, atLmsIncludingFerox, localLevels, localPrayerLevel);
+	}
+}
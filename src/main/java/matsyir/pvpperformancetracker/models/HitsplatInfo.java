@@ -26,16 +26,21 @@
 package matsyir.pvpperformancetracker.models;
 
 import lombok.Getter;
-import net.runelite.api.events.HitsplatApplied;
+import net.runelite.api.Actor;
 
 /**
- * Helper class to store a HitsplatApplied event along with the
- * opponent's health ratio/scale polled shortly after the event occurred.
+ * Helper class to store a buffered hitsplat along with the
+ * actor's health ratio/scale polled shortly after the hitsplat occurred.
+ * Instances are pooled by the HitsplatRingBuffer and re-used once their tick expires.
  */
 public class HitsplatInfo
 {
 	@Getter
-	private final HitsplatApplied event;
+	private Actor actor;
+	@Getter
+	private int amount;
+	@Getter
+	private int hitsplatType;
 
 	// health ratio/scale at the time of the hitsplat
 	@Getter
@@ -43,9 +48,14 @@ public class HitsplatInfo
 	@Getter
 	private int healthScale = -1;
 
-	public HitsplatInfo(HitsplatApplied event)
+	// (Re-)initialize this pooled instance for a new hitsplat, resetting any previously polled HP.
+	public void set(Actor actor, int amount, int hitsplatType)
 	{
-		this.event = event;
+		this.actor = actor;
+		this.amount = amount;
+		this.hitsplatType = hitsplatType;
+		this.healthRatio = -1;
+		this.healthScale = -1;
 	}
 
 	// Called to store the HP state
@@ -54,4 +64,10 @@ public class HitsplatInfo
 		this.healthRatio = ratio;
 		this.healthScale = scale;
 	}
-} 
\ No newline at end of file
+
+	// drop the actor reference so expired slots don't keep players alive
+	public void clear()
+	{
+		set(null, 0, 0);
+	}
+}
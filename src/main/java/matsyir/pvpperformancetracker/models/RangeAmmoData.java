@@ -27,6 +27,8 @@ package matsyir.pvpperformancetracker.models;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 import lombok.Getter;
+import matsyir.pvpperformancetracker.utils.IntLookupTable;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
 public interface RangeAmmoData
@@ -58,40 +60,12 @@ public interface RangeAmmoData
 
 	static RangeAmmoData fromId(int itemId)
 	{
-		for (BoltAmmo ammo : BoltAmmo.values())
-		{
-			if (ammo.getItemId() == itemId)
-			{
-				return ammo;
-			}
-		}
-		for (StrongBoltAmmo ammo : StrongBoltAmmo.values())
-		{
-			if (ammo.getItemId() == itemId)
-			{
-				return ammo;
-			}
-		}
-		for (DartAmmo ammo : DartAmmo.values())
-		{
-			if (ammo.getItemId() == itemId)
-			{
-				return ammo;
-			}
-		}
-		for (OtherAmmo ammo : OtherAmmo.values())
-		{
-			if (ammo.getItemId() == itemId)
-			{
-				return ammo;
-			}
-		}
-		return null;
+		return Lookup.BY_ITEM_ID.get(itemId);
 	}
 
 	static boolean usesSeekingArrowUpgrade(RangeAmmoData ammo, boolean isLmsFight)
 	{
-		return !isLmsFight && Arrays.stream(SEEKING_ARROW_AMMO).anyMatch(seekingArrowAmmo -> seekingArrowAmmo == ammo);
+		return !isLmsFight && ArrayUtils.contains(SEEKING_ARROW_AMMO, ammo);
 	}
 
 	static int getSeekingArrowAccuracyBonus(RangeAmmoData ammo, boolean isLmsFight)
@@ -299,4 +273,28 @@ public interface RangeAmmoData
 			return String.join(" ", words);
 		}
 	}
+
+	// item id -> ammo over all the ammo enums, built once. Earlier enums win for shared ids, same as the old scan order.
+	final class Lookup
+	{
+		private static final IntLookupTable<RangeAmmoData> BY_ITEM_ID;
+
+		static
+		{
+			IntLookupTable.Builder<RangeAmmoData> builder = IntLookupTable.builder();
+			for (RangeAmmoData[] ammos : new RangeAmmoData[][] {
+				BoltAmmo.values(), StrongBoltAmmo.values(), DartAmmo.values(), OtherAmmo.values() })
+			{
+				for (RangeAmmoData ammo : ammos)
+				{
+					builder.putIfAbsent(ammo.getItemId(), ammo);
+				}
+			}
+			BY_ITEM_ID = builder.build();
+		}
+
+		private Lookup()
+		{
+		}
+	}
 }
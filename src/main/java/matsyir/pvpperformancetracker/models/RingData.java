@@ -25,6 +25,7 @@
 package matsyir.pvpperformancetracker.models;
 
 import lombok.Getter;
+import matsyir.pvpperformancetracker.utils.IntLookupTable;
 import net.runelite.api.ItemID;
 
 @Getter
@@ -42,6 +43,8 @@ public enum RingData
 	RING_OF_SHADOWS("Ring of Shadows", ItemID.RING_OF_SHADOWS),
 	NONE("None", -1);
 
+	private static final IntLookupTable<RingData> DATA;
+
 	private String name;
 	private int itemId;
 
@@ -57,15 +60,19 @@ public enum RingData
 		return name;
 	}
 
-	public static RingData fromId(int itemId)
+	static
 	{
+		IntLookupTable.Builder<RingData> builder = IntLookupTable.builder();
 		for (RingData ring : values())
 		{
-			if (ring.itemId == itemId)
-			{
-				return ring;
-			}
+			builder.putIfAbsent(ring.itemId, ring);
 		}
-		return NONE;
+		DATA = builder.build();
+	}
+
+	public static RingData fromId(int itemId)
+	{
+		RingData ring = DATA.get(itemId);
+		return ring != null ? ring : NONE;
 	}
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.utils;
+
+import java.util.Arrays;
+
+// Convolution of damage probability vectors, i.e. the distribution of the sum of independent damage rolls.
+// Small supports (e.g. a single hit convolved with another) use a direct loop, larger ones (long attack sequences)
+// a radix-2 FFT. Work buffers are pooled per thread, so repeated convolutions such as multi-hit powers only
+// allocate their final result.
+final class Convolution
+{
+	// when the shorter side is at most this long, the direct O(n*m) loop is cheaper than three FFTs
+	static final int DIRECT_MAX_SUPPORT = 64;
+
+	private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+	private Convolution()
+	{
+	}
+
+	static double[] convolve(double[] left, double[] right)
+	{
+		double[] result = new double[left.length + right.length - 1];
+		convolveInto(left, left.length, right, right.length, result);
+		return result;
+	}
+
+	// distribution of the sum of count independent rolls of base, by repeated squaring
+	static double[] power(double[] base, int count)
+	{
+		if (count <= 1)
+		{
+			return count == 1 ? base.clone() : new double[] {1.0};
+		}
+
+		int resultLength = (base.length - 1) * count + 1;
+		Buffers buffers = BUFFERS.get();
+		double[] result = buffers.scratch(0, resultLength);
+		double[] square = buffers.scratch(1, resultLength);
+		double[] spare = buffers.scratch(2, resultLength);
+
+		result[0] = 1.0;
+		int resultLen = 1;
+		System.arraycopy(base, 0, square, 0, base.length);
+		int squareLen = base.length;
+		for (int remaining = count; ; )
+		{
+			if ((remaining & 1) != 0)
+			{
+				resultLen = convolveInto(result, resultLen, square, squareLen, spare);
+				double[] swap = result;
+				result = spare;
+				spare = swap;
+			}
+			remaining >>= 1;
+			if (remaining == 0)
+			{
+				break;
+			}
+			squareLen = convolveInto(square, squareLen, square, squareLen, spare);
+			double[] swap = square;
+			square = spare;
+			spare = swap;
+		}
+		return Arrays.copyOf(result, resultLen);
+	}
+
+	// writes left * right into out (which must not be either input), returning the result's length
+	private static int convolveInto(double[] left, int leftLen, double[] right, int rightLen, double[] out)
+	{
+		int resultLen = leftLen + rightLen - 1;
+		if (Math.min(leftLen, rightLen) <= DIRECT_MAX_SUPPORT)
+		{
+			Arrays.fill(out, 0, resultLen, 0.0);
+			for (int i = 0; i < leftLen; i++)
+			{
+				if (left[i] <= 0.0)
+				{
+					continue;
+				}
+				for (int j = 0; j < rightLen; j++)
+				{
+					if (right[j] > 0.0)
+					{
+						out[i + j] += left[i] * right[j];
+					}
+				}
+			}
+		}
+		else
+		{
+			fftConvolveInto(left, leftLen, right, rightLen, out, resultLen);
+		}
+		return resultLen;
+	}
+
+	private static void fftConvolveInto(double[] left, int leftLen, double[] right, int rightLen, double[] out, int resultLen)
+	{
+		int n = Integer.highestOneBit(resultLen - 1) << 1;
+		Buffers buffers = BUFFERS.get();
+		buffers.prepareFft(n);
+		double[] leftRe = buffers.leftRe;
+		double[] leftIm = buffers.leftIm;
+		double[] rightRe = buffers.rightRe;
+		double[] rightIm = buffers.rightIm;
+
+		System.arraycopy(left, 0, leftRe, 0, leftLen);
+		Arrays.fill(leftRe, leftLen, n, 0.0);
+		Arrays.fill(leftIm, 0, n, 0.0);
+		System.arraycopy(right, 0, rightRe, 0, rightLen);
+		Arrays.fill(rightRe, rightLen, n, 0.0);
+		Arrays.fill(rightIm, 0, n, 0.0);
+
+		fft(leftRe, leftIm, n, buffers, false);
+		fft(rightRe, rightIm, n, buffers, false);
+		for (int i = 0; i < n; i++)
+		{
+			double re = leftRe[i] * rightRe[i] - leftIm[i] * rightIm[i];
+			double im = leftRe[i] * rightIm[i] + leftIm[i] * rightRe[i];
+			leftRe[i] = re;
+			leftIm[i] = im;
+		}
+		fft(leftRe, leftIm, n, buffers, true);
+
+		for (int i = 0; i < resultLen; i++)
+		{
+			// rounding leaves tiny negative values where the probability is 0
+			out[i] = Math.max(0.0, leftRe[i] / n);
+		}
+	}
+
+	// iterative in-place radix-2 FFT; n must be a power of two, with buffers prepared for it
+	private static void fft(double[] re, double[] im, int n, Buffers buffers, boolean inverse)
+	{
+		for (int i = 1, j = 0; i < n; i++)
+		{
+			int bit = n >> 1;
+			for (; (j & bit) != 0; bit >>= 1)
+			{
+				j ^= bit;
+			}
+			j ^= bit;
+			if (i < j)
+			{
+				double t = re[i];
+				re[i] = re[j];
+				re[j] = t;
+				t = im[i];
+				im[i] = im[j];
+				im[j] = t;
+			}
+		}
+
+		double[] cos = buffers.cos;
+		double[] sin = buffers.sin;
+		double sign = inverse ? 1 : -1;
+		for (int len = 2; len <= n; len <<= 1)
+		{
+			int half = len >> 1;
+			int step = n / len;
+			for (int start = 0; start < n; start += len)
+			{
+				for (int k = 0; k < half; k++)
+				{
+					double wRe = cos[k * step];
+					double wIm = sign * sin[k * step];
+					int a = start + k;
+					int b = a + half;
+					double tRe = re[b] * wRe - im[b] * wIm;
+					double tIm = re[b] * wIm + im[b] * wRe;
+					re[b] = re[a] - tRe;
+					im[b] = im[a] - tIm;
+					re[a] += tRe;
+					im[a] += tIm;
+				}
+			}
+		}
+	}
+
+	private static final class Buffers
+	{
+		private final double[][] scratch = new double[3][];
+		private double[] leftRe = new double[0];
+		private double[] leftIm = new double[0];
+		private double[] rightRe = new double[0];
+		private double[] rightIm = new double[0];
+		private double[] cos = new double[0];
+		private double[] sin = new double[0];
+		private int twiddleSize = 0;
+
+		private double[] scratch(int index, int length)
+		{
+			if (scratch[index] == null || scratch[index].length < length)
+			{
+				scratch[index] = new double[length];
+			}
+			return scratch[index];
+		}
+
+		private void prepareFft(int n)
+		{
+			if (leftRe.length < n)
+			{
+				leftRe = new double[n];
+				leftIm = new double[n];
+				rightRe = new double[n];
+				rightIm = new double[n];
+			}
+			if (twiddleSize != n)
+			{
+				if (cos.length < n / 2)
+				{
+					cos = new double[n / 2];
+					sin = new double[n / 2];
+				}
+				for (int k = 0; k < n / 2; k++)
+				{
+					double angle = 2 * Math.PI * k / n;
+					cos[k] = Math.cos(angle);
+					sin[k] = Math.sin(angle);
+				}
+				twiddleSize = n;
+			}
+		}
+	}
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Probability distribution of the damage an attack deals, with precomputed tails so the chance of dealing at least
+// some amount of damage (i.e. the KO chance against that much HP) is a single array lookup.
+// Distributions are immutable and cached by their inputs, since the same attacks (same gear & levels, so the same
+// accuracy & hit range) keep coming up in a fight, and again whenever a fight's KO chances are re-scored.
+// Distributions can be added together (see Convolution) to get the total damage of several hits or whole attack
+// sequences, e.g. a spec followed by the rest of its tick group, so the KO chance of the sequence is exact.
+// Tails are summed from the highest damage down, so a KO chance can differ in the last bits from summing the same
+// probabilities upwards from the HP needed; they're equal up to floating point rounding, not bit for bit.
+public final class DamageDistribution
+{
+	// always deals 0 damage: the identity for plus()
+	public static final DamageDistribution NONE = new DamageDistribution(new double[] {1.0});
+
+	private static final int CACHE_SIZE = 512;
+	private static final Map<Key, DamageDistribution> CACHE = new LinkedHashMap<Key, DamageDistribution>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, DamageDistribution> eldest)
+		{
+			return size() > CACHE_SIZE;
+		}
+	};
+	// re-used for lookups so cache hits don't allocate, only accessed while holding the CACHE lock
+	private static final Key PROBE = new Key();
+
+	private final double[] probabilities; // index = damage
+	private final double[] tails; // tails[damage] = chance of dealing at least damage; one longer than probabilities
+
+	DamageDistribution(double[] probabilities)
+	{
+		this.probabilities = probabilities;
+		int maxDamage = probabilities.length - 1;
+		tails = new double[maxDamage + 2];
+		for (int damage = maxDamage; damage >= 0; damage--)
+		{
+			tails[damage] = tails[damage + 1] + probabilities[damage];
+		}
+	}
+
+	/**
+	 * Distribution of a single standard hit: on a successful accuracy roll, a uniform roll from minHit to maxHit;
+	 * a failed accuracy roll deals 0.
+	 *
+	 * @return The distribution, or null if maxHit is negative.
+	 */
+	public static DamageDistribution uniform(double accuracy, int minHit, int maxHit)
+	{
+		if (maxHit < 0)
+		{
+			return null;
+		}
+
+		DamageDistribution cached = getCached(accuracy, minHit, maxHit, 1, maxHit, true);
+		if (cached != null)
+		{
+			return cached;
+		}
+
+		double[] dist = new double[maxHit + 1];
+		double acc = Math.max(0.0, Math.min(1.0, accuracy));
+		int clampedMin = Math.max(0, Math.min(minHit, maxHit));
+		double hitProb = acc / (maxHit - clampedMin + 1);
+		for (int damage = clampedMin; damage <= maxHit; damage++)
+		{
+			dist[damage] += hitProb;
+		}
+		dist[0] += 1.0 - acc;
+		return putCached(accuracy, minHit, maxHit, 1, maxHit, true, new DamageDistribution(dist));
+	}
+
+	/**
+	 * Distribution of a single hit: on a successful accuracy roll, a uniform roll from 0 to maxHit raised to minHit,
+	 * then capped to maxHitCap (no cap if it's 0 or less); a failed accuracy roll deals 0.
+	 *
+	 * @return The distribution, or null if maxHit is negative.
+	 */
+	public static DamageDistribution capped(double accuracy, int minHit, int maxHit, int maxHitCap)
+	{
+		return get(accuracy, minHit, maxHit, 1, maxHitCap);
+	}
+
+	/**
+	 * Distribution of the total damage of hitCount hits that each roll a share of the total min & max hit, clamped
+	 * to the minimum like capped().
+	 *
+	 * @return The distribution, or null if the per-hit max hit is negative.
+	 */
+	public static DamageDistribution multiHitClamped(double accuracy, int minHitTotal, int maxHitTotal, int hitCount)
+	{
+		hitCount = Math.max(1, hitCount);
+		int perHitMin = Math.max(0, minHitTotal / hitCount);
+		int perHitMax = Math.max(perHitMin, maxHitTotal / hitCount);
+		return get(accuracy, perHitMin, perHitMax, hitCount, perHitMax);
+	}
+
+	private static DamageDistribution get(double accuracy, int minHit, int maxHit, int hitCount, int maxHitCap)
+	{
+		if (maxHit < 0)
+		{
+			return null;
+		}
+
+		DamageDistribution cached = getCached(accuracy, minHit, maxHit, hitCount, maxHitCap, false);
+		if (cached != null)
+		{
+			return cached;
+		}
+
+		double[] perHit = buildCapped(accuracy, minHit, maxHit, maxHitCap);
+		return putCached(accuracy, minHit, maxHit, hitCount, maxHitCap, false,
+			new DamageDistribution(hitCount > 1 ? Convolution.power(perHit, hitCount) : perHit));
+	}
+
+	private static DamageDistribution getCached(double accuracy, int minHit, int maxHit, int hitCount, int maxHitCap,
+		boolean uniform)
+	{
+		synchronized (CACHE)
+		{
+			PROBE.set(accuracy, minHit, maxHit, hitCount, maxHitCap, uniform);
+			return CACHE.get(PROBE);
+		}
+	}
+
+	// stores the distribution under a new key, since the probe is re-used
+	private static DamageDistribution putCached(double accuracy, int minHit, int maxHit, int hitCount, int maxHitCap,
+		boolean uniform, DamageDistribution distribution)
+	{
+		Key key = new Key();
+		key.set(accuracy, minHit, maxHit, hitCount, maxHitCap, uniform);
+		synchronized (CACHE)
+		{
+			CACHE.put(key, distribution);
+		}
+		return distribution;
+	}
+
+	// distribution of this attack's damage plus another independent attack's damage
+	public DamageDistribution plus(DamageDistribution other)
+	{
+		if (other.probabilities.length == 1 && other.probabilities[0] == 1.0)
+		{
+			return this;
+		}
+		if (probabilities.length == 1 && probabilities[0] == 1.0)
+		{
+			return other;
+		}
+		return new DamageDistribution(Convolution.convolve(probabilities, other.probabilities));
+	}
+
+	// distribution of the total damage of count independent repeats of this attack
+	public DamageDistribution times(int count)
+	{
+		if (count <= 0)
+		{
+			return NONE;
+		}
+		return count == 1 ? this : new DamageDistribution(Convolution.power(probabilities, count));
+	}
+
+	public int getMaxDamage()
+	{
+		return probabilities.length - 1;
+	}
+
+	public double getProbability(int damage)
+	{
+		return damage >= 0 && damage < probabilities.length ? probabilities[damage] : 0;
+	}
+
+	// chance of dealing at least the given damage
+	public double getTail(int damage)
+	{
+		if (damage <= 0)
+		{
+			return tails[0];
+		}
+		return damage < tails.length ? tails[damage] : 0;
+	}
+
+	// The damage dealt for a uniformly random u in [0, 1), for simulating rolls: the highest damage that has a
+	// higher chance than u of being reached.
+	public int sample(double u)
+	{
+		int low = 0;
+		int high = probabilities.length - 1;
+		while (low < high)
+		{
+			int mid = (low + high + 1) >>> 1;
+			if (tails[mid] > u)
+			{
+				low = mid;
+			}
+			else
+			{
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	private static double[] buildCapped(double accuracy, int minHit, int maxHit, int maxHitCap)
+	{
+		int effectiveCap = maxHitCap > 0 ? maxHitCap : maxHit;
+		int maxDamage = Math.min(maxHit, effectiveCap);
+
+		double[] dist = new double[maxDamage + 1];
+		double acc = Math.max(0.0, Math.min(1.0, accuracy));
+
+		if (acc <= 0.0)
+		{
+			dist[0] = 1.0;
+			return dist;
+		}
+
+		int clampedMin = Math.max(0, minHit);
+		clampedMin = Math.min(clampedMin, maxHit);
+		clampedMin = Math.min(clampedMin, effectiveCap);
+
+		int rollCount = maxHit + 1;
+		double hitProb = acc / rollCount;
+
+		for (int roll = 0; roll <= maxHit; roll++)
+		{
+			int dmg = roll < clampedMin ? clampedMin : roll;
+			if (dmg > maxDamage)
+			{
+				dmg = maxDamage;
+			}
+			dist[dmg] += hitProb;
+		}
+
+		dist[0] += 1.0 - acc;
+		return dist;
+	}
+
+	// accuracy is keyed exactly rather than rounded, so cached distributions give the same KO chances as
+	// calculating them fresh. Repeated attacks produce identical accuracies, so this doesn't cost hits in practice.
+	// Mutable so the probe can be re-used: keys stored in the cache are never modified after being put.
+	private static final class Key
+	{
+		private long accuracyBits;
+		private int minHit;
+		private int maxHit;
+		private int hitCount;
+		private int maxHitCap;
+		private boolean uniform;
+		private int hash;
+
+		private void set(double accuracy, int minHit, int maxHit, int hitCount, int maxHitCap, boolean uniform)
+		{
+			this.accuracyBits = Double.doubleToLongBits(accuracy);
+			this.minHit = minHit;
+			this.maxHit = maxHit;
+			this.hitCount = hitCount;
+			this.maxHitCap = maxHitCap;
+			this.uniform = uniform;
+
+			int h = Long.hashCode(accuracyBits);
+			h = 31 * h + minHit;
+			h = 31 * h + maxHit;
+			h = 31 * h + hitCount;
+			h = 31 * h + maxHitCap;
+			hash = 31 * h + (uniform ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (!(o instanceof Key))
+			{
+				return false;
+			}
+			Key other = (Key) o;
+			return accuracyBits == other.accuracyBits && minHit == other.minHit && maxHit == other.maxHit
+				&& hitCount == other.hitCount && maxHitCap == other.maxHitCap && uniform == other.uniform;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+	}
+}
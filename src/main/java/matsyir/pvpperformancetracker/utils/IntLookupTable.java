@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Immutable int -> value lookup for the static item & animation tables, which are hit on every event.
+// Open addressing over a primitive key array, so lookups don't box the key or allocate, unlike a Map<Integer, T>.
+// Built once (usually in a static block) through a Builder; at most half full, so probes stay short.
+public final class IntLookupTable<T>
+{
+	private final int[] keys;
+	private final Object[] values;
+	private final int mask;
+	private final int size;
+
+	private IntLookupTable(Map<Integer, T> entries)
+	{
+		int capacity = 2;
+		while (capacity < entries.size() * 2)
+		{
+			capacity <<= 1;
+		}
+
+		keys = new int[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		size = entries.size();
+		for (Map.Entry<Integer, T> entry : entries.entrySet())
+		{
+			int slot = slotFor(entry.getKey());
+			while (values[slot] != null)
+			{
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = entry.getKey();
+			values[slot] = entry.getValue();
+		}
+	}
+
+	// the value for the key, or null if there is none.
+	@SuppressWarnings("unchecked")
+	public T get(int key)
+	{
+		int slot = slotFor(key);
+		Object value;
+		while ((value = values[slot]) != null)
+		{
+			if (keys[slot] == key)
+			{
+				return (T) value;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	private int slotFor(int key)
+	{
+		// spread sequential ids (most item & animation ids are close together) over the table
+		int hash = key * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+	public static <T> Builder<T> builder()
+	{
+		return new Builder<>();
+	}
+
+	public static final class Builder<T>
+	{
+		private final Map<Integer, T> entries = new LinkedHashMap<>();
+
+		private Builder()
+		{
+		}
+
+		// the first value put for a key is kept.
+		public Builder<T> putIfAbsent(int key, T value)
+		{
+			if (value == null)
+			{
+				throw new IllegalArgumentException("IntLookupTable values can't be null");
+			}
+			entries.putIfAbsent(key, value);
+			return this;
+		}
+
+		public IntLookupTable<T> build()
+		{
+			return new IntLookupTable<>(entries);
+		}
+	}
+}
@@ -29,11 +29,11 @@ import javax.swing.JMenuItem;
 import joptsimple.internal.Strings;
 import lombok.extern.slf4j.Slf4j;
 import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
 import net.runelite.api.HeadIcon;
 import net.runelite.api.PlayerComposition;
 import net.runelite.api.Skill;
 import net.runelite.api.SpriteID;
-import java.util.Arrays;
 import net.runelite.client.util.LinkBrowser;
 
 @Slf4j
@@ -98,25 +98,42 @@ public class PvpUtils
 			return null;
 		}
 
-		double[] dist = buildMultiHitClampedDamageDistribution(accuracy, minHitTotal, maxHitTotal, hitCount);
-		if (dist == null || dist.length == 0)
+		DamageDistribution dist = DamageDistribution.multiHitClamped(accuracy, minHitTotal, maxHitTotal, hitCount);
+		if (dist == null || estimatedOpponentHp > dist.getMaxDamage())
 		{
 			return null;
 		}
 
-		int hpNeeded = Math.max(0, estimatedOpponentHp);
-		if (hpNeeded >= dist.length)
+		return Math.max(0.0, Math.min(dist.getTail(estimatedOpponentHp), 1.0));
+	}
+
+	/**
+	 * Damage distribution of a logged attack, based on its damage roll distribution. Dark bow attacks are two
+	 * independently rolled & capped arrows. Dragon claws specials use their logged roll, since their swing cases
+	 * only matter split across two ticks (see calculateClawsTwoPhaseKo).
+	 *
+	 * @return The distribution, or null if the attack has no usable max hit.
+	 */
+	public static DamageDistribution getDamageDistribution(FightLogEntry entry)
+	{
+		if (entry.getAnimationData() == AnimationData.RANGED_DARK_BOW || entry.getAnimationData() == AnimationData.RANGED_DARK_BOW_SPEC)
 		{
-			return null;
+			DamageDistribution arrow = DamageDistribution.capped(entry.getAccuracy(), Math.max(0, entry.getMinHit() / 2),
+				Math.max(0, entry.getMaxHit() / 2), DBOW_MAX_HIT_CAP);
+			return arrow != null ? arrow.times(2) : null;
 		}
 
-		double chance = 0.0;
-		for (int damage = hpNeeded; damage < dist.length; damage++)
+		switch (entry.getDamageRollDistribution())
 		{
-			chance += dist[damage];
+			case CLAMPED_TO_MINIMUM:
+				return DamageDistribution.capped(entry.getAccuracy(), entry.getMinHit(), entry.getMaxHit(), entry.getMaxHit());
+			case MULTI_HIT_CLAMPED_TO_MINIMUM:
+				return DamageDistribution.multiHitClamped(entry.getAccuracy(), entry.getMinHit(), entry.getMaxHit(),
+					entry.getDamageRollHitCount());
+			case STANDARD:
+			default:
+				return DamageDistribution.uniform(entry.getAccuracy(), entry.getMinHit(), entry.getMaxHit());
 		}
-
-		return Math.max(0.0, Math.min(chance, 1.0));
 	}
 
 	/**
@@ -128,8 +145,8 @@ public class PvpUtils
 		{
 			return 1;
 		}
-		// Sum the hitsplat groups defined in AnimationData
-		return Arrays.stream(data.getHitsplatGroupPattern()).sum();
+		// Sum of the hitsplat groups defined in AnimationData, precomputed per animation
+		return data.getExpectedHits();
 	}
 
 	/**
@@ -210,68 +227,8 @@ public class PvpUtils
 			swingAccuracy = 1.0 - Math.pow(1.0 - accSpec, 0.25);
 		}
 
-		double missChance = 1.0 - swingAccuracy;
-		double p1 = swingAccuracy;
-		double p2 = missChance * swingAccuracy;
-		double p3 = missChance * missChance * swingAccuracy;
-		double p4 = missChance * missChance * missChance * swingAccuracy;
-
-		double inverseCount = 1.0 / (baseMax + 1);
-		double ko = 0.0;
-
-		for (int roll = 0; roll <= baseMax; roll++)
-		{
-			int halfCeil = (roll + 1) / 2;
-			int halfFloor = roll / 2;
-			int quarterFloor = roll / 4;
-			int threeQuarterCeil = (int) Math.ceil(0.75 * roll);
-			int threeQuarterFloor = (int) Math.floor(0.75 * roll);
-
-			// Case E1: first swing connects (two hits tick k, two hits tick k+1)
-			{
-				int h1 = roll;
-				int h2 = halfCeil;
-				int h3 = quarterFloor;
-				int used = h1 + h2 + h3;
-				int remainder = Math.max(0, 2 * roll - used);
-				int damageTick1 = h1 + h2;
-				int damageTick2 = h3 + remainder;
-				double contribution = p1 * inverseCount * (damageTick1 >= hpBefore
-					? 1.0
-					: (damageTick2 >= (hpBefore - damageTick1 + healBetween) ? 1.0 : 0.0));
-				ko += contribution;
-			}
-
-			// Case E2: second swing connects (phase 1 does no damage)
-			{
-				int damageTick1 = roll;
-				int damageTick2 = roll;
-				double contribution = p2 * inverseCount * (damageTick1 >= hpBefore
-					? 1.0
-					: (damageTick2 >= (hpBefore - damageTick1 + healBetween) ? 1.0 : 0.0));
-				ko += contribution;
-			}
-
-			// Case E3: third swing connects (all damage tick k+1)
-			{
-				int damageTick1 = 0;
-				int damageTick2 = threeQuarterCeil + threeQuarterFloor;
-				double contribution = p3 * inverseCount * (damageTick1 >= hpBefore
-					? 1.0
-					: (damageTick2 >= (hpBefore - damageTick1 + healBetween) ? 1.0 : 0.0));
-				ko += contribution;
-			}
-
-			// Case E4: fourth swing connects (all damage tick k+1)
-			{
-				int damageTick1 = 0;
-				int damageTick2 = threeQuarterCeil + threeQuarterFloor;
-				double contribution = p4 * inverseCount * (damageTick1 >= hpBefore
-					? 1.0
-					: (damageTick2 >= (hpBefore - damageTick1 + healBetween) ? 1.0 : 0.0));
-				ko += contribution;
-			}
-		}
+		// the KO chance for each base roll & swing case comes from a shared table, see SpecKoTables
+		double ko = SpecKoTables.clawsKo(swingAccuracy, baseMax, hpBefore, healBetween);
 
 		if (ko < 0.0)
 		{
@@ -303,46 +260,8 @@ public class PvpUtils
 		}
 
 		int perArrowMin = Math.max(0, minHitTotal / 2);
-		double[] dist = buildCappedDamageDistribution(acc, perArrowMin, perArrowMax, DBOW_MAX_HIT_CAP);
-		if (dist == null || dist.length == 0)
-		{
-			return null;
-		}
-
-		int maxDamage = dist.length - 1;
-		double[] tail = new double[maxDamage + 2];
-		for (int dmg = maxDamage; dmg >= 0; dmg--)
-		{
-			tail[dmg] = tail[dmg + 1] + dist[dmg];
-		}
-
-		double ko = 0.0;
-		for (int d1 = 0; d1 <= maxDamage; d1++)
-		{
-			double p1 = dist[d1];
-			if (p1 <= 0.0)
-			{
-				continue;
-			}
-
-			if (d1 >= hpBefore)
-			{
-				ko += p1;
-				continue;
-			}
-
-			int hpNeeded = hpBefore - d1 + Math.max(0, healBetween);
-			if (hpNeeded <= 0)
-			{
-				ko += p1;
-				continue;
-			}
-
-			if (hpNeeded <= maxDamage)
-			{
-				ko += p1 * tail[hpNeeded];
-			}
-		}
+		// the rolls & heal between only decide which outcomes KO, so their part comes from a shared table, see SpecKoTables
+		double ko = SpecKoTables.darkBowKo(acc, perArrowMin, perArrowMax, DBOW_MAX_HIT_CAP, hpBefore, healBetween);
 
 		if (ko < 0.0)
 		{
@@ -355,94 +274,6 @@ public class PvpUtils
 		return ko;
 	}
 
-	private static double[] buildCappedDamageDistribution(double accuracy, int minHit, int maxHit, int maxHitCap)
-	{
-		if (maxHit < 0)
-		{
-			return null;
-		}
-
-		int effectiveCap = maxHitCap > 0 ? maxHitCap : maxHit;
-		int maxDamage = Math.min(maxHit, effectiveCap);
-		if (maxDamage < 0)
-		{
-			return null;
-		}
-
-		double[] dist = new double[maxDamage + 1];
-		double acc = Math.max(0.0, Math.min(1.0, accuracy));
-
-		if (acc <= 0.0)
-		{
-			dist[0] = 1.0;
-			return dist;
-		}
-
-		int clampedMin = Math.max(0, minHit);
-		clampedMin = Math.min(clampedMin, maxHit);
-		clampedMin = Math.min(clampedMin, effectiveCap);
-
-		int rollCount = maxHit + 1;
-		double hitProb = acc / rollCount;
-
-		for (int roll = 0; roll <= maxHit; roll++)
-		{
-			int dmg = roll < clampedMin ? clampedMin : roll;
-			if (dmg > effectiveCap)
-			{
-				dmg = effectiveCap;
-			}
-			if (dmg > maxDamage)
-			{
-				dmg = maxDamage;
-			}
-			dist[dmg] += hitProb;
-		}
-
-		dist[0] += 1.0 - acc;
-		return dist;
-	}
-
-	private static double[] buildMultiHitClampedDamageDistribution(double accuracy, int minHitTotal, int maxHitTotal, int hitCount)
-	{
-		hitCount = Math.max(1, hitCount);
-		int perHitMin = Math.max(0, minHitTotal / hitCount);
-		int perHitMax = Math.max(perHitMin, maxHitTotal / hitCount);
-
-		double[] perHit = buildCappedDamageDistribution(accuracy, perHitMin, perHitMax, perHitMax);
-		if (perHit == null || perHit.length == 0)
-		{
-			return null;
-		}
-
-		double[] total = new double[] {1.0};
-		for (int hit = 0; hit < hitCount; hit++)
-		{
-			total = convolve(total, perHit);
-		}
-		return total;
-	}
-
-	private static double[] convolve(double[] left, double[] right)
-	{
-		double[] result = new double[left.length + right.length - 1];
-		for (int i = 0; i < left.length; i++)
-		{
-			if (left[i] <= 0.0)
-			{
-				continue;
-			}
-			for (int j = 0; j < right.length; j++)
-			{
-				if (right[j] > 0.0)
-				{
-					result[i + j] += left[i] * right[j];
-				}
-			}
-		}
-		return result;
-	}
-
     public static int getSpriteForSkill(Skill skill)
     {
         switch (skill)
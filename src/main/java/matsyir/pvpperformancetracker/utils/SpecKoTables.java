@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026, Matsyir <https://github.com/Matsyir>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package matsyir.pvpperformancetracker.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Lazily built KO tables for the two-phase specials (dragon claws & dark bow), shared by every fight.
+// In both, whether an attack KOs depends on the rolls, HP before & heal between, while the accuracy only weights
+// the outcomes: a table stores the accuracy-independent part for every HP at one (hit range, heal between), and a
+// KO chance is a table lookup plus a few multiplications with the accuracy. This is exact for every accuracy, so
+// there's no need to interpolate between sampled accuracies.
+final class SpecKoTables
+{
+	private static final int CACHE_SIZE = 256;
+
+	private static final Map<Long, ClawsTable> CLAWS_TABLES = lruMap();
+	private static final Map<Long, DarkBowTable> DARK_BOW_TABLES = lruMap();
+
+	private SpecKoTables()
+	{
+	}
+
+	private static <T> Map<Long, T> lruMap()
+	{
+		return new LinkedHashMap<Long, T>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, T> eldest)
+			{
+				return size() > CACHE_SIZE;
+			}
+		};
+	}
+
+	// inputs are hit & HP values, which fit in 16 bits each
+	private static long key(int a, int b, int c, int d)
+	{
+		return ((long) (a & 0xFFFF) << 48) | ((long) (b & 0xFFFF) << 32) | ((long) (c & 0xFFFF) << 16) | (d & 0xFFFF);
+	}
+
+	// see PvpUtils.calculateClawsTwoPhaseKo; baseMax > 0, hpBefore > 0
+	static double clawsKo(double swingAccuracy, int baseMax, int hpBefore, int healBetween)
+	{
+		ClawsTable table;
+		long key = key(baseMax, healBetween, 0, 0);
+		synchronized (CLAWS_TABLES)
+		{
+			table = CLAWS_TABLES.get(key);
+			if (table == null)
+			{
+				table = new ClawsTable(baseMax, healBetween);
+				CLAWS_TABLES.put(key, table);
+			}
+		}
+
+		double missChance = 1.0 - swingAccuracy;
+		double p1 = swingAccuracy;
+		double p2 = missChance * swingAccuracy;
+		double p3 = missChance * missChance * swingAccuracy;
+		double p4 = missChance * missChance * missChance * swingAccuracy;
+		return (p1 * table.koRolls(0, hpBefore) + p2 * table.koRolls(1, hpBefore)
+			+ p3 * table.koRolls(2, hpBefore) + p4 * table.koRolls(3, hpBefore)) / (baseMax + 1);
+	}
+
+	// see PvpUtils.calculateDarkBowTwoPhaseKo; perArrowMax > 0, hpBefore > 0, accuracy within [0, 1]
+	static double darkBowKo(double accuracy, int perArrowMin, int perArrowMax, int maxHitCap, int hpBefore, int healBetween)
+	{
+		DarkBowTable table;
+		int heal = Math.max(0, healBetween);
+		long key = key(perArrowMin, perArrowMax, maxHitCap, heal);
+		synchronized (DARK_BOW_TABLES)
+		{
+			table = DARK_BOW_TABLES.get(key);
+			if (table == null)
+			{
+				table = new DarkBowTable(perArrowMin, perArrowMax, maxHitCap, heal);
+				DARK_BOW_TABLES.put(key, table);
+			}
+		}
+		return table.ko(accuracy, hpBefore);
+	}
+
+	// For each of the 4 claw swing cases (which swing connects first), the number of base rolls that KO at each HP.
+	// A roll's KO threshold is the highest HP it KOs: the phase 1 damage, or the total minus the heal between.
+	private static final class ClawsTable
+	{
+		private final int[][] koRolls; // [case][hpBefore], up to the highest threshold
+
+		private ClawsTable(int baseMax, int healBetween)
+		{
+			int[][] thresholds = new int[4][baseMax + 1];
+			int maxThreshold = 0;
+			for (int roll = 0; roll <= baseMax; roll++)
+			{
+				int halfCeil = (roll + 1) / 2;
+				int quarterFloor = roll / 4;
+				int threeQuarterCeil = (int) Math.ceil(0.75 * roll);
+				int threeQuarterFloor = (int) Math.floor(0.75 * roll);
+
+				// first swing connects: two hits tick k, two hits tick k+1
+				int remainder = Math.max(0, 2 * roll - (roll + halfCeil + quarterFloor));
+				thresholds[0][roll] = threshold(roll + halfCeil, quarterFloor + remainder, healBetween);
+				// second swing connects: one hit each tick
+				thresholds[1][roll] = threshold(roll, roll, healBetween);
+				// third & fourth swings connect: all damage tick k+1
+				thresholds[2][roll] = threshold(0, threeQuarterCeil + threeQuarterFloor, healBetween);
+				thresholds[3][roll] = thresholds[2][roll];
+				for (int c = 0; c < 4; c++)
+				{
+					maxThreshold = Math.max(maxThreshold, thresholds[c][roll]);
+				}
+			}
+
+			koRolls = new int[4][maxThreshold + 2];
+			for (int c = 0; c < 4; c++)
+			{
+				for (int roll = 0; roll <= baseMax; roll++)
+				{
+					if (thresholds[c][roll] > 0)
+					{
+						koRolls[c][thresholds[c][roll]]++;
+					}
+				}
+				for (int hp = maxThreshold; hp > 0; hp--)
+				{
+					koRolls[c][hp] += koRolls[c][hp + 1];
+				}
+			}
+		}
+
+		private static int threshold(int damageTick1, int damageTick2, int healBetween)
+		{
+			return Math.max(damageTick1, damageTick1 + damageTick2 - healBetween);
+		}
+
+		private int koRolls(int swingCase, int hpBefore)
+		{
+			return hpBefore < koRolls[swingCase].length ? koRolls[swingCase][hpBefore] : 0;
+		}
+	}
+
+	// With per-arrow damage (1 - acc) at 0 plus acc times a fixed shape u, and t(h) the chance that u deals at
+	// least h, an attack KOs with chance acc * (1 - acc) * t(hp + heal) + acc * t(hp) + acc^2 * sum(u(d) * t(hp - d + heal))
+	// (the sum being over d < hp): first arrow misses, first arrow alone KOs, or both arrows hit.
+	private static final class DarkBowTable
+	{
+		private final double[] missThenKo; // t(hp + heal)
+		private final double[] firstKo; // t(hp)
+		private final double[] bothKo; // sum over d < hp of u(d) * t(hp - d + heal)
+
+		private DarkBowTable(int perArrowMin, int perArrowMax, int maxHitCap, int healBetween)
+		{
+			// u & t: the distribution of an arrow that always hits
+			DamageDistribution hit = DamageDistribution.capped(1.0, perArrowMin, perArrowMax, maxHitCap);
+			int maxDamage = hit.getMaxDamage();
+
+			// an attack can't KO above 2 * maxDamage HP
+			int maxHp = 2 * maxDamage;
+			missThenKo = new double[maxHp + 1];
+			firstKo = new double[maxHp + 1];
+			bothKo = new double[maxHp + 1];
+			for (int hp = 1; hp <= maxHp; hp++)
+			{
+				missThenKo[hp] = hit.getTail(hp + healBetween);
+				firstKo[hp] = hit.getTail(hp);
+				double both = 0;
+				for (int d = 0; d < hp && d <= maxDamage; d++)
+				{
+					both += hit.getProbability(d) * hit.getTail(hp - d + healBetween);
+				}
+				bothKo[hp] = both;
+			}
+		}
+
+		private double ko(double accuracy, int hpBefore)
+		{
+			if (hpBefore >= firstKo.length)
+			{
+				return 0;
+			}
+			return accuracy * (1.0 - accuracy) * missThenKo[hpBefore] + accuracy * firstKo[hpBefore]
+				+ accuracy * accuracy * bothKo[hpBefore];
+		}
+	}
+}
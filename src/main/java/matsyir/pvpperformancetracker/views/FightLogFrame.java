@@ -333,7 +333,18 @@ public class FightLogFrame extends JFrame
 			Integer maxHp = fightEntry.getOpponentMaxHp();
 			stats[i][COLIDX_DEF_HP] = (hp != null && maxHp != null) ? hp + "/" + maxHp : (hp != null ? String.valueOf(hp) : "-");
 			Double koChance = fightEntry.getKoChance();
-			stats[i][COLIDX_KO_CHANCE] = koChance != null ? nfPercent.format(koChance) : "-";
+			String koChanceText = koChance != null ? nfPercent.format(koChance) : "-";
+			Double groupKoChance = fightEntry.getGroupKoChance();
+			if (groupKoChance != null)
+			{
+				JLabel koChanceLabel = new JLabel(koChanceText);
+				koChanceLabel.setToolTipText("KO chance of the whole tick group: " + nfPercent.format(groupKoChance));
+				stats[i][COLIDX_KO_CHANCE] = koChanceLabel;
+			}
+			else
+			{
+				stats[i][COLIDX_KO_CHANCE] = koChanceText;
+			}
 			stats[i][COLIDX_SPEC] = fightEntry.getAnimationData().isSpecial ? "✔" : "";
 			stats[i][COLIDX_OFF_PRAY] = fightEntry.success() ? "✔" : "";
 
@@ -167,6 +167,9 @@ public class TotalStatsPanel extends JPanel
 	// but we can still copy the fields into a new JMenuItem
 	public static final JMenuItem toggleSocialButtonsMenuItem = new JMenuItem("<html>&#128065;&nbsp;Toggle Social Button Visibility");
 	public static final JMenuItem resetPvpHubHiddenNameMenuItem = new JMenuItem("<html>&#8635;&nbsp;Regenerate <u>PvP-Hub</u> Hidden Name");;
+	private static final String RECALCULATE_FIGHT_HISTORY_TEXT = "<html>&#8635;&nbsp;Re-calculate Fight History";
+	public static final JMenuItem recalculateFightHistoryMenuItem = new JMenuItem(RECALCULATE_FIGHT_HISTORY_TEXT);
+	public static final JMenuItem simulateFightHistoryMenuItem = new JMenuItem("<html>&#9861;&nbsp;Simulate Fight History Luck");
 
 	public TotalStatsPanel()
 	{
@@ -246,12 +249,31 @@ public class TotalStatsPanel extends JPanel
 			}
 		});
 
+		// create "re-calculate fight history" right click option, to update old fights after changing the calc settings.
+		recalculateFightHistoryMenuItem.setForeground(PvpColorScheme.ORANGE_TEXT_ACTION);
+		recalculateFightHistoryMenuItem.setToolTipText(RECALCULATE_FIGHT_HISTORY_TEXT +
+			":<br>Re-calculates the expected damage & hit ranges of all fights using your current settings (levels, ring & ammo).");
+		recalculateFightHistoryMenuItem.addActionListener(e ->
+		{
+			PLUGIN.recalculateFightHistory();
+		});
+
+		// create "simulate fight history luck" right click option, to compare the wins to how many were expected.
+		simulateFightHistoryMenuItem.setToolTipText(
+			"<html>Replays every fight many times with random damage rolls, to compare your wins to the expected wins.");
+		simulateFightHistoryMenuItem.addActionListener(e ->
+		{
+			PLUGIN.simulateFightHistory();
+		});
+
 		// TODO: Create "Configure Settings" popup menu/context menu item to open/show config panel
 		//  Can't figure out how but would like to in the future. Esp. since there is a warning to setup config.
 
 		popupMenu.add(viewWiki);
 		popupMenu.add(toggleSocialButtonsMenuItem);
 		popupMenu.add(resetPvpHubHiddenNameMenuItem);
+		popupMenu.add(recalculateFightHistoryMenuItem);
+		popupMenu.add(simulateFightHistoryMenuItem);
 		popupMenu.add(removeAllFights);
 		popupMenu.add(removeFightsPermanentlyKeepingFavorites);
 		popupMenu.add(removeAllFightsPermanently);
@@ -905,6 +927,20 @@ public class TotalStatsPanel extends JPanel
 	}
 
 	// resets only data, not ui
+	// should be called on the swing EDT, see PvpPerformanceTrackerPlugin.recalculateFightHistory
+	public static void setRecalculateFightHistoryProgress(int done, int total)
+	{
+		if (done >= total)
+		{
+			recalculateFightHistoryMenuItem.setText(RECALCULATE_FIGHT_HISTORY_TEXT);
+			recalculateFightHistoryMenuItem.setEnabled(true);
+			return;
+		}
+
+		recalculateFightHistoryMenuItem.setText(RECALCULATE_FIGHT_HISTORY_TEXT + " (" + (done * 100 / total) + "%)");
+		recalculateFightHistoryMenuItem.setEnabled(false);
+	}
+
 	public void reset()
 	{
 		numFights = 0;
@@ -0,0 +1,54 @@
+package matsyir.pvpperformancetracker;
+
+import matsyir.pvpperformancetracker.models.AnimationData.AttackStyle;
+import matsyir.pvpperformancetracker.models.AssumedPrayerTable;
+import matsyir.pvpperformancetracker.models.AssumedPrayers;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AssumedPrayerTableTest
+{
+	@Test
+	public void matchesAssumedPrayersForAllLevels()
+	{
+		for (int prayerLevel = 1; prayerLevel <= 99; prayerLevel++)
+		{
+			for (int defenceLevel = 1; defenceLevel <= 120; defenceLevel++)
+			{
+				AssumedPrayerTable table = AssumedPrayerTable.forLevels(prayerLevel, defenceLevel);
+				String levels = "prayer " + prayerLevel + ", def " + defenceLevel;
+				for (AttackStyle style : AttackStyle.values())
+				{
+					assertEquals(levels, AssumedPrayers.assumedOffensivePray(style, false, prayerLevel, defenceLevel),
+						table.getOffensivePray(style, false));
+					assertEquals(levels, AssumedPrayers.assumedOffensivePray(style, true, prayerLevel, defenceLevel),
+						table.getOffensivePray(style, true));
+					assertEquals(levels, AssumedPrayers.assumedDefencePrayerModifier(style, prayerLevel, defenceLevel),
+						table.getDefencePrayerModifier(style), 0);
+				}
+				assertEquals(levels, AssumedPrayers.assumedDefensiveAugury(prayerLevel, defenceLevel), table.isDefensiveAugury());
+			}
+		}
+	}
+
+	@Test
+	public void nullStyleMatchesAssumedPrayers()
+	{
+		AssumedPrayerTable table = AssumedPrayerTable.forLevels(99, 99);
+
+		assertEquals(0, table.getOffensivePray(null, false));
+		assertEquals(AssumedPrayers.STEEL_SKIN_DEF_PRAYER_MODIFIER, table.getDefencePrayerModifier(null), 0);
+	}
+
+	@Test
+	public void tablesAreSharedWithinALevelBucket()
+	{
+		assertSame(AssumedPrayerTable.forLevels(77, 70), AssumedPrayerTable.forLevels(99, 99));
+		assertSame(AssumedPrayerTable.ALL_UNLOCKED, AssumedPrayerTable.forLevels(99, 99));
+		assertSame(AssumedPrayerTable.forLevels(1, 1), AssumedPrayerTable.forLevels(61, 69));
+		assertTrue(AssumedPrayerTable.ALL_UNLOCKED.isDefensiveAugury());
+	}
+}
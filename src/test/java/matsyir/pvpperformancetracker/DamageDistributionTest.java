@@ -0,0 +1,172 @@
+package matsyir.pvpperformancetracker;
+
+import matsyir.pvpperformancetracker.utils.DamageDistribution;
+import matsyir.pvpperformancetracker.utils.PvpUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DamageDistributionTest
+{
+	@Test
+	public void cappedRaisesRollsToMinAndCollapsesRollsAboveCap()
+	{
+		// rolls 0-9 at 80% accuracy: 0-2 become 3, 6-9 become 6
+		DamageDistribution dist = DamageDistribution.capped(0.8, 3, 9, 6);
+
+		assertEquals(6, dist.getMaxDamage());
+		assertEquals(0.2, dist.getProbability(0), 1e-12);
+		assertEquals(0.8 * 4 / 10, dist.getProbability(3), 1e-12);
+		assertEquals(0.8 / 10, dist.getProbability(4), 1e-12);
+		assertEquals(0.8 * 4 / 10, dist.getProbability(6), 1e-12);
+		assertEquals(1.0, dist.getTail(0), 1e-12);
+		assertEquals(0.8, dist.getTail(1), 1e-12);
+		assertEquals(0.8 * 4 / 10, dist.getTail(6), 1e-12);
+		assertEquals(0.0, dist.getTail(7), 0);
+	}
+
+	@Test
+	public void multiHitTailsMatchSummedProbabilities()
+	{
+		DamageDistribution dist = DamageDistribution.multiHitClamped(0.65, 8, 41, 3);
+
+		assertEquals(39, dist.getMaxDamage());
+		for (int damage = 0; damage <= dist.getMaxDamage() + 1; damage++)
+		{
+			double sum = 0;
+			for (int d = damage; d <= dist.getMaxDamage(); d++)
+			{
+				sum += dist.getProbability(d);
+			}
+			assertEquals(sum, dist.getTail(damage), 1e-12);
+		}
+		assertEquals(1.0, dist.getTail(0), 1e-12);
+	}
+
+	@Test
+	public void distributionsAreCached()
+	{
+		assertSame(DamageDistribution.multiHitClamped(0.5, 4, 30, 2), DamageDistribution.multiHitClamped(0.5, 4, 30, 2));
+		assertSame(DamageDistribution.capped(0.5, 0, 30, 48), DamageDistribution.capped(0.5, 0, 30, 48));
+		assertNull(DamageDistribution.capped(0.5, 0, -1, 0));
+	}
+
+	@Test
+	public void cachedDistributionsAreKeyedOnEveryInput()
+	{
+		DamageDistribution uniform = DamageDistribution.uniform(0.5, 4, 30);
+		assertSame(uniform, DamageDistribution.uniform(0.5, 4, 30));
+		assertNotSame(uniform, DamageDistribution.capped(0.5, 4, 30, 30));
+		assertNotSame(uniform, DamageDistribution.uniform(0.25, 4, 30));
+		assertNotSame(uniform, DamageDistribution.uniform(0.5, 5, 30));
+		assertEquals(0.5 / 27, DamageDistribution.uniform(0.5, 4, 30).getProbability(4), 1e-12);
+	}
+
+	@Test
+	public void clampedKoChanceMatchesSingleHitUniformRoll()
+	{
+		// raised to a min of 10, so every successful hit does at least 10
+		assertEquals(0.7, PvpUtils.calculateClampedKoChance(0.7, 10, 30, 10), 1e-12);
+		assertEquals(0.7 * 20 / 31, PvpUtils.calculateClampedKoChance(0.7, 10, 30, 11), 1e-12);
+		assertEquals(0.7 * 6 / 31, PvpUtils.calculateClampedKoChance(0.7, 10, 30, 25), 1e-12);
+		assertNull(PvpUtils.calculateClampedKoChance(0.7, 10, 30, 31));
+	}
+
+	@Test
+	public void darkBowKoChanceAddsHealingToTheSecondArrow()
+	{
+		// 2 arrows of 0-20, 100% accuracy, both needed: P(a + b >= 30)
+		double expected = 0;
+		for (int a = 0; a <= 20; a++)
+		{
+			for (int b = 0; b <= 20; b++)
+			{
+				expected += (a + b >= 30 ? 1.0 : 0.0) / (21 * 21);
+			}
+		}
+		assertEquals(expected, PvpUtils.calculateDarkBowTwoPhaseKo(1.0, 0, 40, 30, 0), 1e-12);
+
+		double healed = 0;
+		for (int a = 0; a <= 20; a++)
+		{
+			for (int b = 0; b <= 20; b++)
+			{
+				healed += (a >= 30 || b >= 30 - a + 5 ? 1.0 : 0.0) / (21 * 21);
+			}
+		}
+		assertEquals(healed, PvpUtils.calculateDarkBowTwoPhaseKo(1.0, 0, 40, 30, 5), 1e-12);
+	}
+
+	@Test
+	public void plusMatchesDirectConvolution()
+	{
+		// small supports are convolved directly, larger ones (both sides over 64) through an FFT
+		assertConvolution(DamageDistribution.uniform(0.7, 0, 30), DamageDistribution.capped(0.55, 5, 44, 0));
+		assertConvolution(DamageDistribution.uniform(0.7, 0, 80), DamageDistribution.multiHitClamped(0.55, 30, 150, 2));
+		assertConvolution(DamageDistribution.uniform(0.9, 20, 200), DamageDistribution.uniform(0.3, 0, 400));
+	}
+
+	@Test
+	public void timesMatchesRepeatedPlus()
+	{
+		DamageDistribution hit = DamageDistribution.uniform(0.62, 0, 45);
+		DamageDistribution repeated = DamageDistribution.NONE;
+		for (int count = 1; count <= 9; count++)
+		{
+			repeated = repeated.plus(hit);
+			DamageDistribution power = hit.times(count);
+			assertEquals(repeated.getMaxDamage(), power.getMaxDamage());
+			for (int damage = 0; damage <= power.getMaxDamage(); damage++)
+			{
+				assertEquals(repeated.getProbability(damage), power.getProbability(damage), 1e-12);
+			}
+			assertEquals(1.0, power.getTail(0), 1e-9);
+		}
+		assertSame(DamageDistribution.NONE, hit.times(0));
+	}
+
+	@Test
+	public void sampleInvertsTheTails()
+	{
+		DamageDistribution dist = DamageDistribution.capped(0.8, 3, 9, 6);
+
+		// 0-0.2 of u misses, then each damage takes its own probability, highest damage first
+		assertEquals(6, dist.sample(0));
+		assertEquals(6, dist.sample(0.8 * 4 / 10 - 1e-9));
+		assertEquals(5, dist.sample(0.8 * 4 / 10 + 1e-9));
+		assertEquals(3, dist.sample(0.79));
+		assertEquals(0, dist.sample(0.81));
+		assertEquals(0, dist.sample(0.999));
+
+		int[] counts = new int[dist.getMaxDamage() + 1];
+		int samples = 100_000;
+		for (int i = 0; i < samples; i++)
+		{
+			counts[dist.sample((i + 0.5) / samples)]++;
+		}
+		for (int damage = 0; damage <= dist.getMaxDamage(); damage++)
+		{
+			assertEquals(dist.getProbability(damage), (double) counts[damage] / samples, 1e-4);
+		}
+	}
+
+	private static void assertConvolution(DamageDistribution left, DamageDistribution right)
+	{
+		DamageDistribution sum = left.plus(right);
+		assertEquals(left.getMaxDamage() + right.getMaxDamage(), sum.getMaxDamage());
+		for (int damage = 0; damage <= sum.getMaxDamage(); damage++)
+		{
+			double expected = 0;
+			for (int d = 0; d <= Math.min(damage, left.getMaxDamage()); d++)
+			{
+				expected += left.getProbability(d) * right.getProbability(damage - d);
+			}
+			assertEquals(expected, sum.getProbability(damage), 1e-12);
+			assertTrue(sum.getProbability(damage) >= 0);
+		}
+	}
+}
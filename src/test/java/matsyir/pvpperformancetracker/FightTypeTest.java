@@ -0,0 +1,34 @@
+package matsyir.pvpperformancetracker;
+
+import matsyir.pvpperformancetracker.models.FightType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FightTypeTest
+{
+	@Test
+	public void lmsBuildsAreFoundFromDefence()
+	{
+		assertEquals(FightType.LMS_1DEF, FightType.getLmsTypeForDefence(1));
+		assertEquals(FightType.LMS_ZERK, FightType.getLmsTypeForDefence(45));
+		assertEquals(FightType.LMS_ZERK, FightType.getLmsTypeForDefence(50));
+		assertEquals(FightType.LMS_MAXMED, FightType.getLmsTypeForDefence(85));
+		assertEquals(FightType.LMS_MAXMED, FightType.getLmsTypeForDefence(99));
+	}
+
+	@Test
+	public void lmsBuildsAreFoundFromCombatLevelsRelativeToAKnownBuild()
+	{
+		// the same combat level as the known player is the same build
+		assertEquals(FightType.LMS_MAXMED, FightType.getLmsTypeForCombatLevel(126, 126, FightType.LMS_MAXMED));
+		assertEquals(FightType.LMS_ZERK, FightType.getLmsTypeForCombatLevel(110, 110, FightType.LMS_ZERK));
+
+		// builds are roughly 15 combat levels apart
+		assertEquals(FightType.LMS_ZERK, FightType.getLmsTypeForCombatLevel(110, 126, FightType.LMS_MAXMED));
+		assertEquals(FightType.LMS_1DEF, FightType.getLmsTypeForCombatLevel(96, 126, FightType.LMS_MAXMED));
+		assertEquals(FightType.LMS_MAXMED, FightType.getLmsTypeForCombatLevel(126, 96, FightType.LMS_1DEF));
+		assertEquals(FightType.LMS_1DEF, FightType.getLmsTypeForCombatLevel(80, 110, FightType.LMS_ZERK));
+		assertEquals(FightType.LMS_MAXMED, FightType.getLmsTypeForCombatLevel(138, 110, FightType.LMS_ZERK));
+	}
+}
@@ -0,0 +1,78 @@
+package matsyir.pvpperformancetracker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import matsyir.pvpperformancetracker.utils.IntLookupTable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class IntLookupTableTest
+{
+	@Test
+	public void getReturnsPutValues()
+	{
+		IntLookupTable<String> table = IntLookupTable.<String>builder()
+			.putIfAbsent(4151, "whip")
+			.putIfAbsent(11235, "dark bow")
+			.putIfAbsent(-1, "none")
+			.build();
+
+		assertEquals("whip", table.get(4151));
+		assertEquals("dark bow", table.get(11235));
+		assertEquals("none", table.get(-1));
+		assertNull(table.get(0));
+		assertNull(table.get(4152));
+		assertEquals(3, table.size());
+	}
+
+	@Test
+	public void firstValuePutForAKeyIsKept()
+	{
+		IntLookupTable<String> table = IntLookupTable.<String>builder()
+			.putIfAbsent(1, "first")
+			.putIfAbsent(1, "second")
+			.build();
+
+		assertEquals("first", table.get(1));
+		assertEquals(1, table.size());
+	}
+
+	@Test
+	public void emptyTableHasNoValues()
+	{
+		IntLookupTable<String> table = IntLookupTable.<String>builder().build();
+
+		assertNull(table.get(0));
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	public void matchesAMapForManyKeys()
+	{
+		Random random = new Random(17);
+		Map<Integer, Integer> expected = new HashMap<>();
+		IntLookupTable.Builder<Integer> builder = IntLookupTable.builder();
+		// sequential ids like item & animation ids, plus random ones
+		for (int i = 0; i < 2000; i++)
+		{
+			int key = i < 1000 ? 20000 + i : random.nextInt();
+			expected.putIfAbsent(key, i);
+			builder.putIfAbsent(key, i);
+		}
+		IntLookupTable<Integer> table = builder.build();
+
+		assertEquals(expected.size(), table.size());
+		for (Map.Entry<Integer, Integer> entry : expected.entrySet())
+		{
+			assertEquals(entry.getValue(), table.get(entry.getKey()));
+		}
+		for (int i = 0; i < 1000; i++)
+		{
+			int key = random.nextInt();
+			assertEquals(expected.get(key), table.get(key));
+		}
+	}
+}
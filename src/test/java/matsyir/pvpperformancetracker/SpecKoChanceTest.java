@@ -0,0 +1,166 @@
+package matsyir.pvpperformancetracker;
+
+import matsyir.pvpperformancetracker.utils.PvpUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+// The two-phase spec KO chances come from precomputed tables; these check them against the original
+// per-roll implementations, which are kept here as the reference.
+public class SpecKoChanceTest
+{
+	private static final double[] ACCURACIES = {0.0, 0.013, 0.25, 0.4137, 0.5, 0.777, 0.95, 1.0};
+	private static final double TOLERANCE = 1e-14;
+
+	@Test
+	public void clawsMatchReference()
+	{
+		for (int specMaxHit = 1; specMaxHit <= 100; specMaxHit++)
+		{
+			for (int hp = 1; hp <= 110; hp++)
+			{
+				for (int heal = 0; heal <= 24; heal += 3)
+				{
+					for (double accuracy : ACCURACIES)
+					{
+						Double expected = referenceClawsKo(accuracy, specMaxHit, hp, heal);
+						Double actual = PvpUtils.calculateClawsTwoPhaseKo(accuracy, specMaxHit, hp, heal);
+						if (expected == null)
+						{
+							assertNull(actual);
+						}
+						else
+						{
+							assertEquals(specMaxHit + "/" + hp + "/" + heal + "/" + accuracy, expected, actual, TOLERANCE);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void darkBowMatchesReference()
+	{
+		for (int maxHit = 1; maxHit <= 110; maxHit++)
+		{
+			for (int minHit = 0; minHit <= 16; minHit += 8)
+			{
+				for (int hp = 1; hp <= 110; hp++)
+				{
+					for (int heal = -2; heal <= 24; heal += 3)
+					{
+						for (double accuracy : ACCURACIES)
+						{
+							Double expected = referenceDarkBowKo(accuracy, minHit, maxHit, hp, heal);
+							Double actual = PvpUtils.calculateDarkBowTwoPhaseKo(accuracy, minHit, maxHit, hp, heal);
+							if (expected == null)
+							{
+								assertNull(actual);
+							}
+							else
+							{
+								assertEquals(minHit + "-" + maxHit + "/" + hp + "/" + heal + "/" + accuracy, expected, actual, TOLERANCE);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static Double referenceClawsKo(double specAccuracy, int specMaxHit, int hpBefore, int healBetween)
+	{
+		if (specMaxHit <= 0 || hpBefore <= 0)
+		{
+			return null;
+		}
+
+		double accSpec = Math.max(0.0, Math.min(1.0, specAccuracy));
+		int baseMax = Math.max(0, (specMaxHit - 1) / 2);
+		if (baseMax <= 0)
+		{
+			return null;
+		}
+
+		double swingAccuracy = accSpec <= 0.0 ? 0.0 : accSpec >= 1.0 ? 1.0 : 1.0 - Math.pow(1.0 - accSpec, 0.25);
+		double missChance = 1.0 - swingAccuracy;
+		double[] caseChances = {swingAccuracy, missChance * swingAccuracy, missChance * missChance * swingAccuracy,
+			missChance * missChance * missChance * swingAccuracy};
+
+		double inverseCount = 1.0 / (baseMax + 1);
+		double ko = 0.0;
+		for (int roll = 0; roll <= baseMax; roll++)
+		{
+			int halfCeil = (roll + 1) / 2;
+			int quarterFloor = roll / 4;
+			int threeQuarter = (int) Math.ceil(0.75 * roll) + (int) Math.floor(0.75 * roll);
+			int remainder = Math.max(0, 2 * roll - (roll + halfCeil + quarterFloor));
+			int[][] ticks = {{roll + halfCeil, quarterFloor + remainder}, {roll, roll}, {0, threeQuarter}, {0, threeQuarter}};
+			for (int c = 0; c < 4; c++)
+			{
+				int damageTick1 = ticks[c][0];
+				int damageTick2 = ticks[c][1];
+				ko += caseChances[c] * inverseCount * (damageTick1 >= hpBefore
+					? 1.0
+					: (damageTick2 >= (hpBefore - damageTick1 + healBetween) ? 1.0 : 0.0));
+			}
+		}
+		return Math.max(0.0, Math.min(1.0, ko));
+	}
+
+	private static Double referenceDarkBowKo(double accuracy, int minHitTotal, int maxHitTotal, int hpBefore, int healBetween)
+	{
+		if (maxHitTotal <= 0 || hpBefore <= 0)
+		{
+			return null;
+		}
+
+		double acc = Math.max(0.0, Math.min(1.0, accuracy));
+		int perArrowMax = Math.max(0, maxHitTotal / 2);
+		if (perArrowMax <= 0)
+		{
+			return null;
+		}
+
+		int perArrowMin = Math.max(0, minHitTotal / 2);
+		int maxDamage = Math.min(perArrowMax, 48);
+		double[] dist = new double[maxDamage + 1];
+		if (acc <= 0.0)
+		{
+			dist[0] = 1.0;
+		}
+		else
+		{
+			int clampedMin = Math.min(Math.min(perArrowMin, perArrowMax), 48);
+			for (int roll = 0; roll <= perArrowMax; roll++)
+			{
+				dist[Math.min(Math.max(roll, clampedMin), maxDamage)] += acc / (perArrowMax + 1);
+			}
+			dist[0] += 1.0 - acc;
+		}
+
+		double[] tail = new double[maxDamage + 2];
+		for (int dmg = maxDamage; dmg >= 0; dmg--)
+		{
+			tail[dmg] = tail[dmg + 1] + dist[dmg];
+		}
+
+		double ko = 0.0;
+		for (int d1 = 0; d1 <= maxDamage; d1++)
+		{
+			if (d1 >= hpBefore)
+			{
+				ko += dist[d1];
+				continue;
+			}
+			int hpNeeded = hpBefore - d1 + Math.max(0, healBetween);
+			if (hpNeeded <= maxDamage)
+			{
+				ko += dist[d1] * tail[hpNeeded];
+			}
+		}
+		return Math.max(0.0, Math.min(1.0, ko));
+	}
+}
@@ -0,0 +1,108 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.CombatLevels;
+import matsyir.pvpperformancetracker.models.RingData;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DamageCalcCacheTest
+{
+	private static final CombatLevels LEVELS = new CombatLevels(99, 99, 99, 99, 99, 99);
+	private static final DamageCalcResult RESULT =
+		new DamageCalcResult(10.5, 0.6, 0, 30, PvpDamageCalc.DamageRollDistribution.STANDARD, 1);
+
+	@Test
+	public void identicalAttackHitsTheCache()
+	{
+		DamageCalcCache cache = new DamageCalcCache(8);
+		int[] attackerGear = { 1, 2, 3 };
+		int[] defenderGear = { 4, 5, 6 };
+
+		assertNull(lookup(cache, attackerGear, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0));
+		cache.put(RESULT);
+
+		for (int i = 0; i < 30; i++)
+		{
+			assertSame(RESULT, lookup(cache, new int[] { 1, 2, 3 }, new int[] { 4, 5, 6 },
+				AnimationData.MELEE_DAGGER_SLASH, true, 0));
+		}
+		assertEquals(30, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void anyDifferingInputMisses()
+	{
+		DamageCalcCache cache = new DamageCalcCache(8);
+		int[] attackerGear = { 1, 2, 3 };
+		int[] defenderGear = { 4, 5, 6 };
+		lookup(cache, attackerGear, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0);
+		cache.put(RESULT);
+
+		assertNull(lookup(cache, attackerGear, defenderGear, AnimationData.MELEE_DAGGER_SLASH, false, 0));
+		assertNull(lookup(cache, attackerGear, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 2));
+		assertNull(lookup(cache, attackerGear, defenderGear, AnimationData.RANGED_SHORTBOW, true, 0));
+		assertNull(lookup(cache, attackerGear, new int[] { 4, 5, 7 }, AnimationData.MELEE_DAGGER_SLASH, true, 0));
+		assertNull(cache.get(attackerGear, RingData.NONE, defenderGear, RingData.BERSERKER_RING_I, null,
+			AnimationData.MELEE_DAGGER_SLASH, true, -1, 0, new CombatLevels(75, 99, 99, 99, 99, 99), LEVELS, 99, false, false));
+	}
+
+	@Test
+	public void storedSignatureIsNotAffectedByMutatedGear()
+	{
+		DamageCalcCache cache = new DamageCalcCache(8);
+		int[] attackerGear = { 1, 2, 3 };
+		int[] defenderGear = { 4, 5, 6 };
+		lookup(cache, attackerGear, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0);
+		cache.put(RESULT);
+
+		attackerGear[0] = 9;
+
+		assertNull(lookup(cache, attackerGear, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0));
+		assertSame(RESULT, lookup(cache, new int[] { 1, 2, 3 }, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0));
+	}
+
+	@Test
+	public void leastRecentlyUsedSignatureIsEvicted()
+	{
+		DamageCalcCache cache = new DamageCalcCache(2);
+		int[] defenderGear = { 4, 5, 6 };
+		lookup(cache, new int[] { 1 }, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0);
+		cache.put(RESULT);
+		lookup(cache, new int[] { 2 }, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0);
+		cache.put(RESULT);
+		// touch 1 so that 2 becomes the eldest
+		lookup(cache, new int[] { 1 }, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0);
+		lookup(cache, new int[] { 3 }, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0);
+		cache.put(RESULT);
+
+		assertEquals(2, cache.size());
+		assertSame(RESULT, lookup(cache, new int[] { 1 }, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0));
+		assertNull(lookup(cache, new int[] { 2 }, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0));
+	}
+
+	@Test
+	public void invalidateDropsCachedResults()
+	{
+		DamageCalcCache cache = new DamageCalcCache(8);
+		int[] attackerGear = { 1, 2, 3 };
+		int[] defenderGear = { 4, 5, 6 };
+		lookup(cache, attackerGear, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0);
+		cache.put(RESULT);
+
+		DamageCalcCache.invalidate();
+
+		assertNull(lookup(cache, attackerGear, defenderGear, AnimationData.MELEE_DAGGER_SLASH, true, 0));
+	}
+
+	private static DamageCalcResult lookup(DamageCalcCache cache, int[] attackerGear, int[] defenderGear,
+		AnimationData animationData, boolean success, int soulreaperStacks)
+	{
+		return cache.get(attackerGear, RingData.NONE, defenderGear, RingData.BERSERKER_RING_I, null, animationData,
+			success, -1, soulreaperStacks, LEVELS, LEVELS, 99, false, false);
+	}
+}
@@ -0,0 +1,222 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FightHistoryRecalculatorTest
+{
+	private static final int SYNTHETIC_FIGHT_COUNT = 10_000;
+
+	@Test
+	public void resultsAreAppliedToEntriesAndTotals() throws Exception
+	{
+		FightPerformance fight = newFight();
+		FightLogEntry competitorAttack = newEntry(10, true, AnimationData.MAGIC_ANCIENT_MULTI_TARGET);
+		FightLogEntry opponentLog = newEntry(8, false, AnimationData.MELEE_DAGGER_SLASH);
+		FightLogEntry opponentAttack = newEntry(12, true, AnimationData.MELEE_DAGGER_SLASH);
+		fight.competitor.getFightLogEntries().add(competitorAttack);
+		fight.opponent.getFightLogEntries().add(opponentLog);
+		fight.opponent.getFightLogEntries().add(opponentAttack);
+
+		List<FightLogEntry> defenderLogs = new ArrayList<>();
+		ForkJoinPool pool = new ForkJoinPool(2);
+		FightHistoryRecalculator recalculator = new FightHistoryRecalculator(pool, Runnable::run);
+		recalculator.recalculate(listOf(fight), (f, attack, defenderLog) ->
+		{
+			synchronized (defenderLogs)
+			{
+				defenderLogs.add(defenderLog);
+			}
+			return new DamageCalcResult(attack.getTick(), 0.5, 1, 2 * attack.getTick(),
+				PvpDamageCalc.DamageRollDistribution.STANDARD, 1);
+		}, (done, total) -> { }).join();
+		pool.shutdown();
+
+		assertEquals(10, competitorAttack.getExpectedDamage(), 0);
+		assertEquals(20, competitorAttack.getMaxHit());
+		assertEquals(12, opponentAttack.getExpectedDamage(), 0);
+		// incomplete entries only hold levels & prayers, they aren't attacks
+		assertEquals(0, opponentLog.getExpectedDamage(), 0);
+		assertEquals(10, fight.competitor.getExpectedDamage(), 0);
+		assertEquals(0.5, fight.competitor.getMagicHitCountExpected(), 0);
+		assertEquals(12, fight.opponent.getExpectedDamage(), 0);
+		assertEquals(0, fight.opponent.getMagicHitCountExpected(), 0);
+
+		// each attack uses the defender's latest log at the time of the attack.
+		assertEquals(2, defenderLogs.size());
+		assertEquals(1, defenderLogs.stream().filter(l -> l == opponentLog).count());
+		assertEquals(1, defenderLogs.stream().filter(l -> l == competitorAttack).count());
+	}
+
+	@Test
+	public void multiHitGmaulSpecsStayScaledToEveryHit()
+	{
+		FightPerformance fight = newFight();
+		FightLogEntry gmaul = newEntry(10, true, AnimationData.MELEE_GRANITE_MAUL_SPEC);
+		gmaul.scaleToGmaulHits(2);
+		fight.competitor.getFightLogEntries().add(gmaul);
+
+		FightHistoryRecalculator recalculator = new FightHistoryRecalculator(ForkJoinPool.commonPool(), Runnable::run);
+		recalculator.recalculate(listOf(fight), (f, attack, defenderLog) ->
+			new DamageCalcResult(20, 0.5, 5, 40, PvpDamageCalc.DamageRollDistribution.STANDARD, 1),
+			(done, total) -> { }).join();
+
+		assertEquals(40, gmaul.getExpectedDamage(), 0);
+		assertEquals(10, gmaul.getMinHit());
+		assertEquals(80, gmaul.getMaxHit());
+		assertEquals(40, fight.competitor.getExpectedDamage(), 0);
+	}
+
+	@Test
+	public void koChancesAreRescoredAgainstTheTrackedHp()
+	{
+		FightPerformance fight = newFight();
+		FightLogEntry scored = newEntry(10, true, AnimationData.MELEE_DAGGER_SLASH);
+		scored.setDisplayHpBefore(30);
+		scored.setDisplayKoChance(0.9);
+		scored.setKoChance(0.9);
+		scored.setGroupKoChance(0.95);
+		FightLogEntry unscored = newEntry(12, true, AnimationData.MELEE_DAGGER_SLASH);
+		fight.competitor.getFightLogEntries().add(scored);
+		fight.competitor.getFightLogEntries().add(unscored);
+
+		FightHistoryRecalculator recalculator = new FightHistoryRecalculator(ForkJoinPool.commonPool(), Runnable::run);
+		recalculator.recalculate(listOf(fight), (f, attack, defenderLog) ->
+			new DamageCalcResult(20, 0.5, 0, 40, PvpDamageCalc.DamageRollDistribution.STANDARD, 1),
+			(done, total) -> { }).join();
+
+		// 11 of the 41 rolls reach 30 hp
+		assertEquals(0.5 * 11 / 41, scored.getKoChance(), 0.000001);
+		assertEquals(0.5 * 11 / 41, scored.getDisplayKoChance(), 0.000001);
+		assertNull(scored.getGroupKoChance());
+		assertNull(unscored.getKoChance());
+		assertNull(unscored.getDisplayKoChance());
+	}
+
+	@Test
+	public void emptyHistoryCompletesImmediately()
+	{
+		AtomicInteger progressCalls = new AtomicInteger();
+		FightHistoryRecalculator recalculator = new FightHistoryRecalculator(ForkJoinPool.commonPool(), Runnable::run);
+		recalculator.recalculate(new ArrayList<>(), (f, attack, defenderLog) -> null, (done, total) ->
+		{
+			assertEquals(0, done);
+			assertEquals(0, total);
+			progressCalls.incrementAndGet();
+		}).join();
+
+		assertEquals(1, progressCalls.get());
+	}
+
+	@Test
+	public void defenderLogIsTheLatestAtTheAttackTick() throws Exception
+	{
+		FightPerformance fight = newFight();
+		FightLogEntry early = newEntry(5, false, AnimationData.MELEE_DAGGER_SLASH);
+		FightLogEntry onTick = newEntry(10, false, AnimationData.MELEE_DAGGER_SLASH);
+		FightLogEntry later = newEntry(11, false, AnimationData.MELEE_DAGGER_SLASH);
+		fight.opponent.getFightLogEntries().add(early);
+		fight.opponent.getFightLogEntries().add(onTick);
+		fight.opponent.getFightLogEntries().add(later);
+		fight.competitor.getFightLogEntries().add(newEntry(3, true, AnimationData.RANGED_SHORTBOW));
+		fight.competitor.getFightLogEntries().add(newEntry(10, true, AnimationData.RANGED_SHORTBOW));
+
+		List<FightLogEntry> seen = new ArrayList<>();
+		FightHistoryRecalculator.calculateAttacks(fight, fight.competitor, fight.opponent, (f, attack, defenderLog) ->
+		{
+			seen.add(defenderLog);
+			return null;
+		});
+
+		assertEquals(2, seen.size());
+		assertNull(seen.get(0));
+		assertSame(onTick, seen.get(1));
+	}
+
+	@Test(timeout = 60_000)
+	public void recalculatesLargeHistories() throws Exception
+	{
+		List<FightPerformance> fights = new ArrayList<>();
+		for (int i = 0; i < SYNTHETIC_FIGHT_COUNT; i++)
+		{
+			FightPerformance fight = newFight();
+			for (int tick = 0; tick < 40; tick += 4)
+			{
+				fight.competitor.getFightLogEntries().add(newEntry(tick, true, AnimationData.MELEE_DAGGER_SLASH));
+				fight.opponent.getFightLogEntries().add(newEntry(tick + 2, true, AnimationData.MAGIC_ANCIENT_MULTI_TARGET));
+			}
+			fights.add(fight);
+		}
+
+		AtomicInteger lastDone = new AtomicInteger();
+		AtomicInteger lastTotal = new AtomicInteger();
+		DamageCalcResult result = new DamageCalcResult(3, 0.25, 0, 10, PvpDamageCalc.DamageRollDistribution.STANDARD, 1);
+		FightHistoryRecalculator recalculator = new FightHistoryRecalculator(ForkJoinPool.commonPool(), Runnable::run);
+		recalculator.recalculate(fights, (f, attack, defenderLog) -> result, (done, total) ->
+		{
+			lastDone.accumulateAndGet(done, Math::max);
+			lastTotal.set(total);
+		}).join();
+
+		assertEquals(SYNTHETIC_FIGHT_COUNT, lastDone.get());
+		assertEquals(SYNTHETIC_FIGHT_COUNT, lastTotal.get());
+		assertFalse(recalculator.isRunning());
+		for (FightPerformance fight : fights)
+		{
+			assertEquals(30, fight.competitor.getExpectedDamage(), 0.0001);
+			assertEquals(2.5, fight.opponent.getMagicHitCountExpected(), 0.0001);
+		}
+	}
+
+	@Test
+	public void cancelledRunsAreNotApplied() throws Exception
+	{
+		FightPerformance fight = newFight();
+		FightLogEntry attack = newEntry(1, true, AnimationData.MELEE_DAGGER_SLASH);
+		fight.competitor.getFightLogEntries().add(attack);
+
+		List<Runnable> pendingApplies = new ArrayList<>();
+		FightHistoryRecalculator recalculator = new FightHistoryRecalculator(ForkJoinPool.commonPool(), pendingApplies::add);
+		recalculator.recalculate(listOf(fight), (f, a, defenderLog) -> new DamageCalcResult(50, 1, 0, 50,
+			PvpDamageCalc.DamageRollDistribution.STANDARD, 1), (done, total) -> { }).join();
+		recalculator.cancel();
+		pendingApplies.forEach(Runnable::run);
+
+		assertEquals(0, attack.getExpectedDamage(), 0);
+		assertEquals(0, fight.competitor.getExpectedDamage(), 0);
+	}
+
+	private static List<FightPerformance> listOf(FightPerformance fight)
+	{
+		List<FightPerformance> fights = new ArrayList<>();
+		fights.add(fight);
+		return fights;
+	}
+
+	private static FightPerformance newFight()
+	{
+		FightPerformance fight = new FightPerformance();
+		fight.competitor = new Fighter("competitor");
+		fight.opponent = new Fighter("opponent");
+		return fight;
+	}
+
+	private static FightLogEntry newEntry(int tick, boolean fullEntry, AnimationData animationData)
+	{
+		return TestEntries.newEntry()
+			.tick(tick)
+			.fullEntry(fullEntry)
+			.animation(animationData)
+			.build();
+	}
+}
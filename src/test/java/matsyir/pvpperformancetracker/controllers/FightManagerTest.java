@@ -0,0 +1,223 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+import net.runelite.api.Player;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FightManagerTest
+{
+	private static final int HITSPLAT_WINDOW = 5;
+
+	private final Player localPlayer = newPlayer("competitor", 0);
+
+	@Test
+	public void eventsAreRoutedToTheirOpponentsFight()
+	{
+		FightManager manager = new FightManager(HITSPLAT_WINDOW, 50);
+		Player[] opponents = new Player[40];
+		TrackedFight[] fights = new TrackedFight[opponents.length];
+		for (int i = 0; i < opponents.length; i++)
+		{
+			opponents[i] = newPlayer("opponent" + i, 10 + i);
+			fights[i] = manager.start(newFight(opponents[i]));
+		}
+
+		for (int i = 0; i < opponents.length; i++)
+		{
+			assertSame(fights[i], manager.getFightByOpponent(opponents[i]));
+			assertSame(fights[i], manager.getFightByOpponentName("opponent" + i));
+		}
+		for (int i = 0; i < 200; i++)
+		{
+			assertNull(manager.getFightByOpponent(newPlayer("bystander" + i, 100 + i)));
+		}
+		// the local player is the competitor of every fight, never an opponent
+		assertNull(manager.getFightByOpponent(localPlayer));
+		assertEquals(opponents.length, manager.size());
+	}
+
+	@Test
+	public void fightsHaveTheirOwnHitsplatBuffers()
+	{
+		FightManager manager = new FightManager(HITSPLAT_WINDOW, 50);
+		TrackedFight first = manager.start(newFight(newPlayer("first", 10)));
+		TrackedFight second = manager.start(newFight(newPlayer("second", 11)));
+
+		first.getHitsplatBuffer().add(100, localPlayer, 12, 0);
+
+		assertEquals(1, first.getHitsplatBuffer().size(100));
+		assertEquals(0, second.getHitsplatBuffer().size(100));
+	}
+
+	@Test
+	public void primaryFollowsStartedAndAttackedFights() throws Exception
+	{
+		FightManager manager = new FightManager(HITSPLAT_WINDOW, 50);
+		TrackedFight first = manager.start(newFight(newPlayer("first", 10)));
+		assertSame(first, manager.getPrimary());
+
+		// an unstarted primary fight is replaced by the next one
+		TrackedFight second = manager.start(newFight(newPlayer("second", 11)));
+		assertSame(second, manager.getPrimary());
+
+		setAttackCount(second.getFight().getCompetitor(), 1);
+		TrackedFight third = manager.start(newFight(newPlayer("third", 12)));
+		assertSame(second, manager.getPrimary());
+
+		manager.setPrimary(first);
+		assertSame(first, manager.getPrimary());
+
+		manager.end(first);
+		assertSame(third, manager.getPrimary());
+		assertNull(manager.getFightByOpponent(first.getFight().getOpponent().getPlayer()));
+	}
+
+	@Test
+	public void fightsBeyondTheLimitAreNotTracked()
+	{
+		FightManager manager = new FightManager(HITSPLAT_WINDOW, 2);
+		manager.start(newFight(newPlayer("first", 10)));
+		manager.start(newFight(newPlayer("second", 11)));
+
+		assertNull(manager.start(newFight(newPlayer("third", 12))));
+		assertEquals(2, manager.size());
+	}
+
+	@Test
+	public void respawnedOpponentIsRefiledUnderNewIndex()
+	{
+		FightManager manager = new FightManager(HITSPLAT_WINDOW, 50);
+		TrackedFight tracked = manager.start(newFight(newPlayer("opponent", 10)));
+
+		Player relogged = newPlayer("opponent", 300);
+		assertNull(manager.getFightByOpponent(relogged));
+
+		manager.onPlayerSpawned(relogged);
+
+		assertSame(tracked, manager.getFightByOpponent(relogged));
+		assertNull(manager.getFightByOpponent(newPlayer("someone else", 10)));
+	}
+
+	@Test
+	public void spectatedFightsAreFoundByEitherFighter() throws Exception
+	{
+		FightManager manager = new FightManager(HITSPLAT_WINDOW, 10);
+		Player first = newPlayer("first", 20);
+		Player second = newPlayer("second", 21);
+		FightPerformance fight = new FightPerformance();
+		fight.competitor = new Fighter("first");
+		fight.competitor.setPlayer(first);
+		fight.opponent = new Fighter("second");
+		fight.opponent.setPlayer(second);
+		Field spectated = FightPerformance.class.getDeclaredField("isSpectated");
+		spectated.setAccessible(true);
+		spectated.set(fight, true);
+
+		TrackedFight tracked = manager.start(fight);
+
+		assertSame(tracked, manager.getFightByFighter(first));
+		assertSame(tracked, manager.getFightByFighter(second));
+		assertSame(tracked, manager.getFightByOpponent(second));
+		assertNull(manager.getFightByOpponent(first));
+
+		manager.end(tracked);
+		assertNull(manager.getFightByFighter(first));
+		assertNull(manager.getFightByFighter(second));
+	}
+
+	@Test
+	public void localHitsplatsGoToTheFightsExpectingThem() throws Exception
+	{
+		FightManager manager = new FightManager(HITSPLAT_WINDOW, 50);
+		TrackedFight first = manager.start(newFight(newPlayer("first", 10)));
+		TrackedFight second = manager.start(newFight(newPlayer("second", 11)));
+		TrackedFight third = manager.start(newFight(newPlayer("third", 12)));
+		manager.setPrimary(first);
+		second.getFight().getOpponent().getPendingAttacks().add(newAttack(98, 1));
+		third.getFight().getOpponent().getPendingAttacks().add(newAttack(99, 2));
+
+		// each fight gets as many hitsplats as its opponent's attacks can deal on the tick, the rest go to the primary
+		TrackedFight[] expected = {second, third, third, first};
+		for (TrackedFight tracked : expected)
+		{
+			TrackedFight routed = manager.getFightForLocalHitsplat(localPlayer, 100);
+			assertSame(tracked, routed);
+			routed.getHitsplatBuffer().add(100, localPlayer, 5, 0);
+		}
+
+		// hitsplats on the opponents themselves don't count towards the local player's
+		second.getHitsplatBuffer().add(101, second.getFight().getOpponent().getPlayer(), 5, 0);
+		assertSame(second, manager.getFightForLocalHitsplat(localPlayer, 101));
+	}
+
+	@Test
+	public void clearEndsEveryFight()
+	{
+		FightManager manager = new FightManager(HITSPLAT_WINDOW, 50);
+		Player opponent = newPlayer("opponent", 10);
+		manager.start(newFight(opponent));
+		manager.start(newFight(newPlayer("other", 11)));
+
+		manager.clear();
+
+		assertTrue(manager.isEmpty());
+		assertNull(manager.getPrimary());
+		assertNull(manager.getFightByOpponent(opponent));
+	}
+
+	private FightPerformance newFight(Player opponentPlayer)
+	{
+		FightPerformance fight = new FightPerformance();
+		fight.competitor = new Fighter("competitor");
+		fight.competitor.setPlayer(localPlayer);
+		fight.opponent = new Fighter(opponentPlayer.getName());
+		fight.opponent.setPlayer(opponentPlayer);
+		return fight;
+	}
+
+	private static FightLogEntry newAttack(int tick, int expectedHits)
+	{
+		return TestEntries.newEntry()
+			.tick(tick)
+			.hitsplatMatchTick(-1)
+			.expectedHits(expectedHits)
+			.build();
+	}
+
+	private static void setAttackCount(Fighter fighter, int attackCount) throws Exception
+	{
+		Field field = Fighter.class.getDeclaredField("attackCount");
+		field.setAccessible(true);
+		field.set(fighter, attackCount);
+	}
+
+	private static Player newPlayer(String name, int index)
+	{
+		return (Player) Proxy.newProxyInstance(
+			Player.class.getClassLoader(),
+			new Class<?>[]{Player.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "getName":
+						return name;
+					case "getId":
+						return index;
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return null;
+				}
+			});
+	}
+}
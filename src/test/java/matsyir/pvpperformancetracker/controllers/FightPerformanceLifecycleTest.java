@@ -0,0 +1,105 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.api.AnimationID;
+import net.runelite.api.Player;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FightPerformanceLifecycleTest
+{
+	private final AtomicInteger competitorAnimation = new AtomicInteger(-1);
+	private final AtomicInteger opponentAnimation = new AtomicInteger(-1);
+
+	@Test
+	public void deathAnimationsAreRecognized()
+	{
+		assertTrue(FightPerformance.isDeathAnimation(AnimationID.DEATH));
+		assertTrue(FightPerformance.isDeathAnimation(10629));
+		assertTrue(FightPerformance.isDeathAnimation(11902));
+		assertFalse(FightPerformance.isDeathAnimation(-1));
+		assertFalse(FightPerformance.isDeathAnimation(0));
+		assertFalse(FightPerformance.isDeathAnimation(808));
+	}
+
+	@Test
+	public void fightBecomesInactiveAfterDeadlineTick() throws Exception
+	{
+		FightPerformance fight = newFight(135);
+
+		assertEquals(FightPerformance.LifecycleState.PENDING, fight.updateLifecycle(120));
+		assertEquals(FightPerformance.LifecycleState.PENDING, fight.updateLifecycle(135));
+
+		setField(Fighter.class, fight.competitor, "attackCount", 1);
+		assertEquals(FightPerformance.LifecycleState.ACTIVE, fight.updateLifecycle(135));
+
+		assertEquals(FightPerformance.LifecycleState.INACTIVE, fight.updateLifecycle(136));
+		// ended fights stay ended
+		assertEquals(FightPerformance.LifecycleState.INACTIVE, fight.updateLifecycle(120));
+	}
+
+	@Test
+	public void tickCountGoingBackwardsEndsTheFight() throws Exception
+	{
+		FightPerformance fight = newFight(1000);
+
+		assertEquals(FightPerformance.LifecycleState.INACTIVE, fight.updateLifecycle(5));
+	}
+
+	@Test
+	public void deathIsObservedOnTheTickItPlays() throws Exception
+	{
+		FightPerformance fight = newFight(135);
+
+		assertEquals(FightPerformance.LifecycleState.PENDING, fight.updateLifecycle(120));
+		opponentAnimation.set(AnimationID.DEATH);
+
+		assertEquals(FightPerformance.LifecycleState.DEATH_OBSERVED, fight.updateLifecycle(121));
+		assertTrue(fight.opponent.isDead());
+		assertFalse(fight.competitor.isDead());
+	}
+
+	private FightPerformance newFight(int inactivityDeadlineTick) throws Exception
+	{
+		FightPerformance fight = new FightPerformance();
+		fight.competitor = new Fighter("competitor");
+		fight.competitor.setPlayer(newPlayer(competitorAnimation));
+		fight.opponent = new Fighter("opponent");
+		fight.opponent.setPlayer(newPlayer(opponentAnimation));
+		setField(FightPerformance.class, fight, "inactivityDeadlineTick", inactivityDeadlineTick);
+		return fight;
+	}
+
+	private static void setField(Class<?> type, Object target, String fieldName, Object value) throws Exception
+	{
+		Field field = type.getDeclaredField(fieldName);
+		field.setAccessible(true);
+		field.set(target, value);
+	}
+
+	private static Player newPlayer(AtomicInteger animation)
+	{
+		return (Player) Proxy.newProxyInstance(
+			Player.class.getClassLoader(),
+			new Class<?>[]{Player.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "getAnimation":
+						return animation.get();
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return null;
+				}
+			});
+	}
+}
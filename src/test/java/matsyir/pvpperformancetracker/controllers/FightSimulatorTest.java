@@ -0,0 +1,185 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FightSimulatorTest
+{
+	private static final int SYNTHETIC_FIGHT_COUNT = 1_000;
+
+	@Test
+	public void certainHitsAlwaysGiveTheSameOutcome() throws Exception
+	{
+		// the competitor always hits 30 every 4 ticks, the opponent always hits 20: the competitor kills on tick 8.
+		FightPerformance fight = newFight();
+		for (int tick = 0; tick < 20; tick += 4)
+		{
+			fight.competitor.getFightLogEntries().add(newAttack("competitor", tick, 1, 30, 30));
+			fight.opponent.getFightLogEntries().add(newAttack("opponent", tick + 1, 1, 20, 20));
+		}
+		fight.competitor.addDamageDealt(99);
+		fight.opponent.died();
+
+		FightSimulator.FightResult result = FightSimulator.Replay.fromFight(fight).simulate(500, new SplittableRandom(1));
+
+		assertEquals(500, result.getSimulations());
+		assertEquals(500, result.getCompetitorWins());
+		assertEquals(0, result.getDraws());
+		assertEquals(1, result.getCompetitorWinRate(), 0);
+		assertEquals(0, result.getLuck(), 0);
+		// every attack is rolled, so the competitor always deals 150 in the replays, more than they really dealt.
+		assertEquals(0, result.getDamagePercentile(), 0);
+	}
+
+	@Test
+	public void killsOnTheSameTickAreDraws() throws Exception
+	{
+		FightPerformance fight = newFight();
+		fight.competitor.getFightLogEntries().add(newAttack("competitor", 5, 1, 99, 99));
+		fight.opponent.getFightLogEntries().add(newAttack("opponent", 5, 1, 99, 99));
+		fight.competitor.died();
+
+		FightSimulator.FightResult result = FightSimulator.Replay.fromFight(fight).simulate(100, new SplittableRandom(1));
+
+		assertEquals(100, result.getDraws());
+		assertEquals(0.5, result.getExpectedScore(), 0);
+		assertEquals(-0.5, result.getLuck(), 0);
+	}
+
+	@Test
+	public void healingAndRecordedMaxHpExtendTheFight() throws Exception
+	{
+		// 3 certain hits of 40 on a 99 hp opponent would kill, but not once they healed 30.
+		FightPerformance fight = newFight();
+		for (int tick = 0; tick < 12; tick += 4)
+		{
+			FightLogEntry attack = newAttack("competitor", tick, 1, 40, 40);
+			TestEntries.setField(attack, "opponentMaxHp", 99);
+			fight.competitor.getFightLogEntries().add(attack);
+		}
+		fight.opponent.addHpHealed(30);
+
+		FightSimulator.FightResult result = FightSimulator.Replay.fromFight(fight).simulate(100, new SplittableRandom(1));
+
+		assertEquals(100, result.getDraws());
+		assertEquals(0, result.getLuck(), 0);
+	}
+
+	@Test
+	public void winRateMatchesTheKoChance() throws Exception
+	{
+		// a single 50% accurate 0-20 hit on a 15 hp opponent: KOs 50% * 6/21 of the time.
+		FightPerformance fight = newFight();
+		FightLogEntry attack = newAttack("competitor", 0, 0.5, 0, 20);
+		TestEntries.setField(attack, "opponentMaxHp", 15);
+		fight.competitor.getFightLogEntries().add(attack);
+		fight.opponent.died();
+
+		FightSimulator.FightResult result = FightSimulator.Replay.fromFight(fight).simulate(200_000, new SplittableRandom(7));
+
+		double koChance = 0.5 * 6 / 21;
+		assertEquals(koChance, result.getCompetitorWinRate(), 0.005);
+		assertEquals(0, result.getOpponentWins());
+		assertEquals(1 - (koChance + 0.5 * (1 - koChance)), result.getLuck(), 0.005);
+	}
+
+	@Test(timeout = 60_000)
+	public void sameSeedGivesTheSameReportForLargeHistories() throws Exception
+	{
+		List<FightPerformance> fights = new ArrayList<>();
+		for (int i = 0; i < SYNTHETIC_FIGHT_COUNT; i++)
+		{
+			FightPerformance fight = newFight();
+			for (int tick = 0; tick < 100; tick += 4)
+			{
+				fight.competitor.getFightLogEntries().add(newAttack("competitor", tick, 0.6, 0, 30 + i % 10));
+				fight.opponent.getFightLogEntries().add(newAttack("opponent", tick + 2, 0.7, 0, 25));
+			}
+			if (i % 2 == 0)
+			{
+				fight.opponent.died();
+			}
+			else
+			{
+				fight.competitor.died();
+			}
+			fights.add(fight);
+		}
+
+		FightSimulator.Report first = simulate(fights, 2_000, 42);
+		FightSimulator.Report second = simulate(fights, 2_000, 42);
+
+		assertEquals(SYNTHETIC_FIGHT_COUNT, first.getFights().size());
+		assertEquals(SYNTHETIC_FIGHT_COUNT * 2_000L, first.getTotalSimulations());
+		assertEquals(SYNTHETIC_FIGHT_COUNT / 2.0, first.getActualScore(), 0);
+		assertTrue(first.getSimulationsPerSecond() > 0);
+		assertEquals(first.getActualScore() - first.getExpectedScore(), first.getLuck(), 1e-9);
+		for (int i = 0; i < SYNTHETIC_FIGHT_COUNT; i++)
+		{
+			FightSimulator.FightResult a = first.getFights().get(i);
+			FightSimulator.FightResult b = second.getFights().get(i);
+			assertEquals(a.getCompetitorWins(), b.getCompetitorWins());
+			assertEquals(a.getOpponentWins(), b.getOpponentWins());
+			assertEquals(a.getDamageAtOrBelowActual(), b.getDamageAtOrBelowActual());
+		}
+	}
+
+	@Test
+	public void cancelledRunsAreNotReported() throws Exception
+	{
+		FightPerformance fight = newFight();
+		fight.competitor.getFightLogEntries().add(newAttack("competitor", 0, 0.5, 0, 20));
+
+		List<Runnable> pendingReports = new ArrayList<>();
+		AtomicReference<FightSimulator.Report> report = new AtomicReference<>();
+		FightSimulator simulator = new FightSimulator(ForkJoinPool.commonPool(), pendingReports::add);
+		List<FightPerformance> fights = new ArrayList<>();
+		fights.add(fight);
+		simulator.simulate(fights, 100, 1, report::set).join();
+		assertTrue(simulator.isRunning());
+		simulator.cancel();
+		pendingReports.forEach(Runnable::run);
+
+		assertNull(report.get());
+		assertFalse(simulator.isRunning());
+	}
+
+	private static FightSimulator.Report simulate(List<FightPerformance> fights, int simulations, long seed)
+	{
+		AtomicReference<FightSimulator.Report> report = new AtomicReference<>();
+		FightSimulator simulator = new FightSimulator(ForkJoinPool.commonPool(), Runnable::run);
+		simulator.simulate(fights, simulations, seed, report::set).join();
+		assertFalse(simulator.isRunning());
+		assertNotNull(report.get());
+		return report.get();
+	}
+
+	private static FightPerformance newFight()
+	{
+		FightPerformance fight = new FightPerformance();
+		fight.competitor = new Fighter("competitor");
+		fight.opponent = new Fighter("opponent");
+		return fight;
+	}
+
+	private static FightLogEntry newAttack(String attackerName, int tick, double accuracy, int minHit, int maxHit)
+	{
+		return TestEntries.newEntry()
+			.attacker(attackerName)
+			.tick(tick)
+			.accuracy(accuracy)
+			.hitRange(minHit, maxHit)
+			.build();
+	}
+}
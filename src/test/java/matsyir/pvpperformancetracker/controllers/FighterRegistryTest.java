@@ -0,0 +1,144 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.api.Player;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FighterRegistryTest
+{
+	private static final int CROWD_SIZE = 500;
+	private static final int EVENTS_PER_PLAYER = 20;
+
+	private final AtomicInteger nameLookups = new AtomicInteger();
+
+	@Test
+	public void crowdIsRejectedWithoutNameLookups()
+	{
+		Player competitorPlayer = newPlayer("competitor", 1);
+		Player opponentPlayer = newPlayer("opponent", 2);
+		FightPerformance fight = newFight(competitorPlayer, opponentPlayer);
+		FighterRegistry registry = new FighterRegistry();
+		registry.register(fight);
+
+		Player[] crowd = new Player[CROWD_SIZE];
+		for (int i = 0; i < crowd.length; i++)
+		{
+			crowd[i] = newPlayer("bystander" + i, 100 + i);
+		}
+
+		nameLookups.set(0);
+		int fighterEvents = 0;
+		for (int event = 0; event < EVENTS_PER_PLAYER; event++)
+		{
+			for (Player player : crowd)
+			{
+				assertNull(registry.getFighter(player));
+			}
+			if (registry.getFighter(competitorPlayer) == fight.getCompetitor())
+			{
+				fighterEvents++;
+			}
+			if (registry.getFighter(opponentPlayer) == fight.getOpponent())
+			{
+				fighterEvents++;
+			}
+		}
+
+		assertEquals(EVENTS_PER_PLAYER * 2, fighterEvents);
+		assertEquals(0, nameLookups.get());
+	}
+
+	@Test
+	public void recreatedPlayerIsMatchedByIndexAndRebound()
+	{
+		Player opponentPlayer = newPlayer("opponent", 2);
+		FightPerformance fight = newFight(newPlayer("competitor", 1), opponentPlayer);
+		FighterRegistry registry = new FighterRegistry();
+		registry.register(fight);
+
+		Player recreated = newPlayer("opponent", 2);
+		assertSame(fight.getOpponent(), registry.getFighter(recreated));
+
+		nameLookups.set(0);
+		assertSame(fight.getOpponent(), registry.getFighter(recreated));
+		assertEquals(0, nameLookups.get());
+	}
+
+	@Test
+	public void reusedIndexOfAnotherPlayerIsRejected()
+	{
+		FightPerformance fight = newFight(newPlayer("competitor", 1), newPlayer("opponent", 2));
+		FighterRegistry registry = new FighterRegistry();
+		registry.register(fight);
+
+		assertNull(registry.getFighter(newPlayer("someone else", 2)));
+	}
+
+	@Test
+	public void spawnedFighterIsReboundToItsNewIndex()
+	{
+		FightPerformance fight = newFight(newPlayer("competitor", 1), newPlayer("opponent", 2));
+		FighterRegistry registry = new FighterRegistry();
+		registry.register(fight);
+
+		Player relogged = newPlayer("opponent", 55);
+		assertNull(registry.getFighter(relogged));
+
+		registry.onPlayerSpawned(relogged);
+
+		assertSame(fight.getOpponent(), registry.getFighter(relogged));
+		assertSame(fight.getOpponent(), registry.getFighter(newPlayer("opponent", 55)));
+	}
+
+	@Test
+	public void clearedRegistryMatchesNothing()
+	{
+		Player competitorPlayer = newPlayer("competitor", 1);
+		FighterRegistry registry = new FighterRegistry();
+		registry.register(newFight(competitorPlayer, newPlayer("opponent", 2)));
+
+		registry.clear();
+
+		assertNull(registry.getFighter(competitorPlayer));
+		assertNull(registry.getFighter(null));
+	}
+
+	private static FightPerformance newFight(Player competitorPlayer, Player opponentPlayer)
+	{
+		FightPerformance fight = new FightPerformance();
+		fight.competitor = new Fighter("competitor");
+		fight.competitor.setPlayer(competitorPlayer);
+		fight.opponent = new Fighter("opponent");
+		fight.opponent.setPlayer(opponentPlayer);
+		return fight;
+	}
+
+	private Player newPlayer(String name, int index)
+	{
+		return (Player) Proxy.newProxyInstance(
+			Player.class.getClassLoader(),
+			new Class<?>[]{Player.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "getName":
+						nameLookups.incrementAndGet();
+						return name;
+					case "getId":
+						return index;
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return null;
+				}
+			});
+	}
+}
@@ -0,0 +1,135 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import matsyir.pvpperformancetracker.models.EquipmentData.VoidStyle;
+import matsyir.pvpperformancetracker.models.RingData;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GearBonusCacheTest
+{
+	private int calculations = 0;
+	private int voidResolutions = 0;
+	private boolean resolved = true;
+
+	private GearBonusCache newCache(int capacity)
+	{
+		return new GearBonusCache(capacity, 2,
+			(itemIds, ringUsed, bonuses) ->
+			{
+				calculations++;
+				bonuses[0] = itemIds[0];
+				bonuses[1] = ringUsed == null ? -1 : ringUsed.ordinal();
+				return resolved;
+			},
+			itemIds ->
+			{
+				voidResolutions++;
+				return itemIds[0] == 1 ? VoidStyle.VOID_MELEE : VoidStyle.NONE;
+			});
+	}
+
+	@Test
+	public void repeatedGearIsOnlyCalculatedOnce()
+	{
+		GearBonusCache cache = newCache(16);
+		int[] gear = { 1, 2, 3 };
+
+		GearBonusCache.Entry first = cache.get(gear, RingData.BERSERKER_RING_I);
+		for (int i = 0; i < 50; i++)
+		{
+			assertSame(first, cache.get(new int[] { 1, 2, 3 }, RingData.BERSERKER_RING_I));
+		}
+
+		assertEquals(1, calculations);
+		assertEquals(1, voidResolutions);
+		assertEquals(VoidStyle.VOID_MELEE, first.getVoidStyle());
+		assertEquals(50, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(50 / 51.0, cache.getHitRate(), 0.0001);
+	}
+
+	@Test
+	public void ringIsPartOfTheKey()
+	{
+		GearBonusCache cache = newCache(16);
+		int[] gear = { 4, 5, 6 };
+
+		GearBonusCache.Entry berserker = cache.get(gear, RingData.BERSERKER_RING_I);
+		GearBonusCache.Entry noRing = cache.get(gear, RingData.NONE);
+
+		assertNotSame(berserker, noRing);
+		assertEquals(RingData.NONE.ordinal(), noRing.getBonuses()[1]);
+		assertEquals(2, calculations);
+	}
+
+	@Test
+	public void changedGearIsRecalculated()
+	{
+		GearBonusCache cache = newCache(16);
+		int[] gear = { 7, 8, 9 };
+
+		cache.get(gear, RingData.NONE);
+		gear[0] = 10; // compositions are re-used and mutated in place by the client
+
+		assertEquals(10, cache.get(gear, RingData.NONE).getBonuses()[0]);
+		assertEquals(7, cache.get(new int[] { 7, 8, 9 }, RingData.NONE).getBonuses()[0]);
+	}
+
+	@Test
+	public void cacheIsBoundedByCapacity()
+	{
+		GearBonusCache cache = newCache(4);
+		for (int i = 0; i < 100; i++)
+		{
+			assertEquals(i, cache.get(new int[] { i, i }, RingData.NONE).getBonuses()[0]);
+		}
+
+		// only 4 slots: most of the earlier sets were evicted and have to be recalculated.
+		int missesBefore = (int) cache.getMissCount();
+		for (int i = 0; i < 100; i++)
+		{
+			cache.get(new int[] { i, i }, RingData.NONE);
+		}
+		assertEquals(100, missesBefore);
+		assertTrue(cache.getMissCount() - missesBefore >= 96);
+	}
+
+	@Test
+	public void incompleteBonusesAreNotCached()
+	{
+		GearBonusCache cache = newCache(16);
+		int[] gear = { 3, 4 };
+
+		resolved = false;
+		GearBonusCache.Entry incomplete = cache.get(gear, RingData.NONE);
+		assertEquals(3, incomplete.getBonuses()[0]);
+		assertNotSame(incomplete, cache.get(gear, RingData.NONE));
+		assertEquals(2, calculations);
+
+		resolved = true;
+		GearBonusCache.Entry complete = cache.get(gear, RingData.NONE);
+		assertSame(complete, cache.get(gear, RingData.NONE));
+		assertEquals(3, calculations);
+	}
+
+	@Test
+	public void clearResetsEntriesAndCounters()
+	{
+		GearBonusCache cache = newCache(16);
+		int[] gear = { 1, 2 };
+		cache.get(gear, RingData.NONE);
+		cache.get(gear, RingData.NONE);
+
+		cache.clear();
+
+		assertEquals(0, cache.getHitCount());
+		assertEquals(0, cache.getMissCount());
+		assertEquals(0, cache.getHitRate(), 0);
+		cache.get(gear, RingData.NONE);
+		assertEquals(2, calculations);
+	}
+}
@@ -0,0 +1,243 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+import matsyir.pvpperformancetracker.models.HitsplatInfo;
+import matsyir.pvpperformancetracker.utils.DamageDistribution;
+import net.runelite.api.Player;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HitsplatMatcherTest
+{
+	private static final int MAX_HP = 99;
+
+	@Test
+	public void attacksLandingOnTheSameTickCascadeDisplayHp() throws Exception
+	{
+		FightPerformance fight = newFight();
+		Player opponentPlayer = newPlayer("opponent");
+		FightLogEntry first = newEntry("competitor", 100, 30);
+		FightLogEntry second = newEntry("competitor", 101, 60);
+		fight.competitor.getPendingAttacks().add(first);
+		fight.competitor.getPendingAttacks().add(second);
+
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		buffer.add(102, opponentPlayer, 10, 0).setHp(55, 100);
+		buffer.add(102, opponentPlayer, 5, 0).setHp(50, 100); // 49 hp after both hits
+		List<HitsplatInfo> hits = new ArrayList<>();
+		hits.add(buffer.get(102, 0));
+		hits.add(buffer.get(102, 1));
+
+		new HitsplatMatcher(new HashMap<>()).matchTick(fight, hits, 102, 103, MAX_HP);
+
+		assertTrue(first.isKoChanceCalculated());
+		assertTrue(second.isKoChanceCalculated());
+		assertEquals(10, (int) first.getActualDamageSum());
+		assertEquals(5, (int) second.getActualDamageSum());
+		assertEquals(64, (int) first.getDisplayHpBefore());
+		assertEquals(54, (int) first.getDisplayHpAfter());
+		assertEquals(54, (int) second.getDisplayHpBefore());
+		assertEquals(49, (int) second.getDisplayHpAfter());
+		assertTrue(first.isPartOfTickGroup());
+		assertNull(first.getDisplayKoChance());
+		assertEquals(0.5 * 7 / 61, second.getDisplayKoChance(), 0.000001);
+		assertEquals(1, fight.getCompetitorKoChanceCount());
+		assertEquals(0, fight.competitor.getPendingAttacks().size());
+	}
+
+	@Test
+	public void tickGroupsGetTheExactKoChanceOfTheirCombinedDamage() throws Exception
+	{
+		FightPerformance fight = newFight();
+		Player opponentPlayer = newPlayer("opponent");
+		FightLogEntry first = newEntry("competitor", 100, 70);
+		FightLogEntry second = newEntry("competitor", 101, 70);
+		fight.competitor.getPendingAttacks().add(first);
+		fight.competitor.getPendingAttacks().add(second);
+
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		buffer.add(102, opponentPlayer, 10, 0).setHp(55, 100);
+		buffer.add(102, opponentPlayer, 5, 0).setHp(50, 100); // 64 hp before both hits
+		List<HitsplatInfo> hits = new ArrayList<>();
+		hits.add(buffer.get(102, 0));
+		hits.add(buffer.get(102, 1));
+
+		new HitsplatMatcher(new HashMap<>()).matchTick(fight, hits, 102, 103, MAX_HP);
+
+		// each hit keeps its own KO chance against the HP it actually hit
+		DamageDistribution hit = DamageDistribution.uniform(0.5, 0, 70);
+		assertEquals(hit.getTail(64), first.getDisplayKoChance(), 0.000001);
+		assertEquals(hit.getTail(54), second.getDisplayKoChance(), 0.000001);
+		assertNull(first.getGroupKoChance());
+		assertEquals(hit.plus(hit).getTail(64), second.getGroupKoChance(), 0.000001);
+		assertEquals(2, fight.getCompetitorKoChanceCount());
+	}
+
+	@Test
+	public void hitsOnUntrackedPlayersAreIgnored() throws Exception
+	{
+		FightPerformance fight = newFight();
+		FightLogEntry attack = newEntry("competitor", 100, 30);
+		fight.competitor.getPendingAttacks().add(attack);
+
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		buffer.add(101, newPlayer("someone else"), 10, 0).setHp(50, 100);
+		List<HitsplatInfo> hits = new ArrayList<>();
+		hits.add(buffer.get(101, 0));
+
+		new HitsplatMatcher(new HashMap<>()).matchTick(fight, hits, 101, 102, MAX_HP);
+
+		assertEquals(0, attack.getMatchedHitsCount());
+		assertEquals(1, fight.competitor.getPendingAttacks().size());
+	}
+
+	@Test
+	public void steadyStateTicksDoNotAllocate() throws Exception
+	{
+		final int warmupTicks = 5_000;
+		final int measuredTicks = 20_000;
+		final int firstTick = 1_000;
+
+		FightPerformance fight = newFight();
+		// as for a live fight, every matched attack also updates the win prediction
+		WinPredictor winPredictor = new WinPredictor(MAX_HP, MAX_HP, MAX_HP, MAX_HP);
+		Field winPredictorField = FightPerformance.class.getDeclaredField("winPredictor");
+		winPredictorField.setAccessible(true);
+		winPredictorField.set(fight, winPredictor);
+		Player opponentPlayer = newPlayer("opponent");
+		HitsplatMatcher matcher = new HitsplatMatcher(new HashMap<>());
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		List<HitsplatInfo> hits = new ArrayList<>();
+		FightLogEntry[] attacks = new FightLogEntry[warmupTicks + measuredTicks];
+		for (int i = 0; i < attacks.length; i++)
+		{
+			// max hit below the opponent's hp: no KO chance, so nothing is boxed into the log entry
+			attacks[i] = newEntry("competitor", firstTick + i, 20);
+		}
+
+		runTicks(fight, matcher, buffer, hits, opponentPlayer, attacks, 0, warmupTicks, firstTick);
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+		runTicks(fight, matcher, buffer, hits, opponentPlayer, attacks, warmupTicks, attacks.length, firstTick);
+		long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+		assertTrue(attacks[attacks.length - 1].isKoChanceCalculated());
+		assertEquals(94, (int) attacks[attacks.length - 1].getDisplayHpBefore());
+		// the opponent's modeled hp has long run out
+		winPredictor.endTick();
+		assertEquals(1.0, fight.getCompetitorWinProbability(), 0.000001);
+		assertEquals("bytes allocated per tick", 0, allocated / measuredTicks);
+	}
+
+	@Test
+	public void steadyStateTickGroupsDoNotAllocate() throws Exception
+	{
+		final int warmupTicks = 5_000;
+		final int measuredTicks = 20_000;
+		final int firstTick = 1_000;
+
+		FightPerformance fight = newFight();
+		Player opponentPlayer = newPlayer("opponent");
+		HitsplatMatcher matcher = new HitsplatMatcher(new HashMap<>());
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		List<HitsplatInfo> hits = new ArrayList<>();
+		FightLogEntry[] attacks = new FightLogEntry[2 * (warmupTicks + measuredTicks)];
+		for (int i = 0; i < attacks.length; i++)
+		{
+			// two attacks landing per tick, together still below the opponent's hp
+			attacks[i] = newEntry("competitor", firstTick + i / 2, 20);
+		}
+
+		runTicks(fight, matcher, buffer, hits, opponentPlayer, attacks, 2, 0, warmupTicks, firstTick);
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+		runTicks(fight, matcher, buffer, hits, opponentPlayer, attacks, 2, warmupTicks, warmupTicks + measuredTicks, firstTick);
+		long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+		FightLogEntry last = attacks[attacks.length - 1];
+		assertTrue(last.isPartOfTickGroup());
+		// scored from a known hp, which the group's 40 max can't reach
+		assertTrue(last.getDisplayHpBefore() > 40);
+		assertNull(last.getGroupKoChance());
+		assertEquals("bytes allocated per tick", 0, allocated / measuredTicks);
+	}
+
+	private static void runTicks(FightPerformance fight, HitsplatMatcher matcher, HitsplatRingBuffer buffer, List<HitsplatInfo> hits,
+		Player opponentPlayer, FightLogEntry[] attacks, int from, int to, int firstTick)
+	{
+		runTicks(fight, matcher, buffer, hits, opponentPlayer, attacks, 1, from, to, firstTick);
+	}
+
+	private static void runTicks(FightPerformance fight, HitsplatMatcher matcher, HitsplatRingBuffer buffer, List<HitsplatInfo> hits,
+		Player opponentPlayer, FightLogEntry[] attacks, int attacksPerTick, int from, int to, int firstTick)
+	{
+		for (int i = from; i < to; i++)
+		{
+			int tick = firstTick + i + 1;
+			hits.clear();
+			for (int a = 0; a < attacksPerTick; a++)
+			{
+				fight.competitor.getPendingAttacks().add(attacks[i * attacksPerTick + a]);
+				buffer.add(tick, opponentPlayer, 5, 0).setHp(90, 100);
+				hits.add(buffer.get(tick, a));
+			}
+			matcher.matchTick(fight, hits, tick, tick + 1, MAX_HP);
+		}
+	}
+
+	private static FightPerformance newFight()
+	{
+		FightPerformance fight = new FightPerformance();
+		fight.competitor = new Fighter("competitor");
+		fight.opponent = new Fighter("opponent");
+		return fight;
+	}
+
+	private static FightLogEntry newEntry(String attackerName, int tick, int maxHit)
+	{
+		return TestEntries.newEntry()
+			.attacker(attackerName)
+			.expectedHits(1)
+			.tick(tick)
+			.hitsplatMatchTick(tick)
+			.hitsplatTick(-1)
+			.actualDamageSum(0)
+			.accuracy(0.5)
+			.hitRange(0, maxHit)
+			.build();
+	}
+
+	private static Player newPlayer(String name)
+	{
+		return (Player) Proxy.newProxyInstance(
+			Player.class.getClassLoader(),
+			new Class<?>[]{Player.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "getName":
+						return name;
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return null;
+				}
+			});
+	}
+}
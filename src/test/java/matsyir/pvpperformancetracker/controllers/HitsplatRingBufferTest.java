@@ -0,0 +1,153 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import matsyir.pvpperformancetracker.models.HitsplatInfo;
+import net.runelite.api.Actor;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class HitsplatRingBufferTest
+{
+	@Test
+	public void bufferedHitsplatsAreReadableWithinWindow()
+	{
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+
+		buffer.add(100, null, 12, 1);
+		buffer.add(100, null, 30, 1);
+		buffer.add(103, null, 7, 1);
+
+		assertEquals(2, buffer.size(100));
+		assertEquals(12, buffer.get(100, 0).getAmount());
+		assertEquals(30, buffer.get(100, 1).getAmount());
+		assertEquals(1, buffer.size(103));
+		assertEquals(0, buffer.size(101));
+	}
+
+	@Test
+	public void slotExpiresWhenNewerTickReusesIt()
+	{
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		HitsplatInfo first = buffer.add(100, null, 12, 1);
+		first.setHp(10, 30);
+
+		HitsplatInfo reused = buffer.add(106, null, 4, 1);
+
+		assertEquals(0, buffer.size(100));
+		assertEquals(1, buffer.size(106));
+		assertSame(first, reused);
+		assertEquals(4, reused.getAmount());
+		assertEquals(-1, reused.getHealthRatio());
+		assertEquals(-1, reused.getHealthScale());
+	}
+
+	@Test
+	public void slotGrowsForLargeBursts()
+	{
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		for (int i = 0; i < 40; i++)
+		{
+			buffer.add(50, null, i, 1);
+		}
+
+		assertEquals(40, buffer.size(50));
+		for (int i = 0; i < 40; i++)
+		{
+			assertEquals(i, buffer.get(50, i).getAmount());
+		}
+	}
+
+	@Test
+	public void clearEmptiesAllSlots()
+	{
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		HitsplatInfo info = buffer.add(10, null, 5, 1);
+		buffer.add(11, null, 6, 1);
+
+		buffer.clear();
+
+		assertEquals(0, buffer.size(10));
+		assertEquals(0, buffer.size(11));
+		assertNull(info.getActor());
+		assertEquals(0, info.getAmount());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void expiredTickCannotBeRead()
+	{
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		buffer.add(100, null, 12, 1);
+		buffer.add(106, null, 4, 1);
+
+		buffer.get(100, 0);
+	}
+
+	@Test
+	public void hpIsSampledOncePerActorForTheWholeTick()
+	{
+		AtomicInteger polls = new AtomicInteger();
+		Actor opponent = newActor(40, 30, polls);
+		Actor player = newActor(12, 30, polls);
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		buffer.add(100, opponent, 20, 1);
+		buffer.add(100, opponent, 15, 1);
+		buffer.add(100, player, 9, 1);
+
+		assertEquals(3, buffer.sampleHp(100));
+
+		// one ratio + one scale poll per actor
+		assertEquals(4, polls.get());
+		assertEquals(40, buffer.get(100, 0).getHealthRatio());
+		assertEquals(40, buffer.get(100, 1).getHealthRatio());
+		assertEquals(30, buffer.get(100, 1).getHealthScale());
+		assertEquals(12, buffer.get(100, 2).getHealthRatio());
+	}
+
+	@Test
+	public void onlyHitsplatsAddedAfterTheLastSampleAreSampled()
+	{
+		AtomicInteger polls = new AtomicInteger();
+		Actor opponent = newActor(40, 30, polls);
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		buffer.add(100, opponent, 20, 1);
+		buffer.sampleHp(100);
+		buffer.get(100, 0).setHp(35, 30);
+
+		buffer.add(100, opponent, 15, 1);
+
+		assertEquals(1, buffer.sampleHp(100));
+		assertEquals(35, buffer.get(100, 0).getHealthRatio());
+		assertEquals(40, buffer.get(100, 1).getHealthRatio());
+		assertEquals(0, buffer.sampleHp(100));
+		assertEquals(0, buffer.sampleHp(99));
+	}
+
+	private static Actor newActor(int healthRatio, int healthScale, AtomicInteger polls)
+	{
+		return (Actor) Proxy.newProxyInstance(
+			Actor.class.getClassLoader(),
+			new Class<?>[]{Actor.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "getHealthRatio":
+						polls.incrementAndGet();
+						return healthRatio;
+					case "getHealthScale":
+						polls.incrementAndGet();
+						return healthScale;
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return null;
+				}
+			});
+	}
+}
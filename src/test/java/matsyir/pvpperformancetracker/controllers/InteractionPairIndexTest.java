@@ -0,0 +1,86 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.lang.reflect.Proxy;
+import net.runelite.api.Player;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InteractionPairIndexTest
+{
+	@Test
+	public void pairIsDetectedOnceBothTargetEachOther()
+	{
+		InteractionPairIndex index = new InteractionPairIndex();
+		Player first = newPlayer(10);
+		Player second = newPlayer(11);
+
+		assertFalse(index.recordInteraction(first, second));
+		assertTrue(index.recordInteraction(second, first));
+	}
+
+	@Test
+	public void retargetingBreaksThePair()
+	{
+		InteractionPairIndex index = new InteractionPairIndex();
+		Player first = newPlayer(10);
+		Player second = newPlayer(11);
+		Player third = newPlayer(12);
+
+		index.recordInteraction(first, second);
+		index.recordInteraction(first, third);
+
+		assertFalse(index.recordInteraction(second, first));
+		assertTrue(index.recordInteraction(third, first));
+	}
+
+	@Test
+	public void clearedInteractionsDoNotPair()
+	{
+		InteractionPairIndex index = new InteractionPairIndex();
+		Player first = newPlayer(10);
+		Player second = newPlayer(11);
+
+		index.recordInteraction(first, second);
+		index.recordInteraction(first, null);
+		assertFalse(index.recordInteraction(second, first));
+
+		index.recordInteraction(first, second);
+		index.remove(first);
+		assertFalse(index.recordInteraction(second, first));
+	}
+
+	@Test
+	public void crowdTargetingOnePlayerFormsNoPair()
+	{
+		InteractionPairIndex index = new InteractionPairIndex();
+		Player target = newPlayer(0);
+		for (int i = 1; i < 500; i++)
+		{
+			assertFalse(index.recordInteraction(newPlayer(i), target));
+		}
+		assertFalse(index.recordInteraction(target, target));
+	}
+
+	private static Player newPlayer(int playerIndex)
+	{
+		return (Player) Proxy.newProxyInstance(
+			Player.class.getClassLoader(),
+			new Class<?>[]{Player.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "getId":
+						return playerIndex;
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return null;
+				}
+			});
+	}
+}
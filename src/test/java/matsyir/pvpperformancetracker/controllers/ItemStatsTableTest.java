@@ -0,0 +1,141 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.function.IntFunction;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ItemStatsTableTest
+{
+	private static final int WHIP = 4151;
+	private static final int BANDOS_CHESTPLATE = 11832;
+	private static final int NO_STATS_ITEM = 995;
+
+	@Test
+	public void itemsAreOnlyLoadedOnce()
+	{
+		CountingLoader loader = new CountingLoader();
+		ItemStatsTable table = new ItemStatsTable(loader);
+		int[] totals = new int[ItemStatsTable.BONUS_COUNT];
+
+		for (int i = 0; i < 100; i++)
+		{
+			table.addBonuses(WHIP, totals);
+			table.addBonuses(NO_STATS_ITEM, totals);
+		}
+
+		assertEquals(2, loader.calls);
+	}
+
+	@Test
+	public void bonusesAreSummedIntoTotals()
+	{
+		ItemStatsTable table = new ItemStatsTable(new CountingLoader());
+		int[] totals = new int[ItemStatsTable.BONUS_COUNT];
+
+		assertTrue(table.addBonuses(WHIP, totals));
+		assertTrue(table.addBonuses(BANDOS_CHESTPLATE, totals));
+		assertFalse(table.addBonuses(NO_STATS_ITEM, totals));
+
+		int[] expected = new int[ItemStatsTable.BONUS_COUNT];
+		for (int i = 0; i < expected.length; i++)
+		{
+			expected[i] = statFor(WHIP, i) + statFor(BANDOS_CHESTPLATE, i);
+		}
+		assertArrayEquals(expected, totals);
+	}
+
+	@Test
+	public void unknownAndInvalidItemsHaveNoStats()
+	{
+		ItemStatsTable table = new ItemStatsTable(new CountingLoader());
+
+		assertNull(table.getBonuses(NO_STATS_ITEM));
+		assertNull(table.getBonuses(-1));
+	}
+
+	@Test
+	public void returnedBonusesAreCopies()
+	{
+		ItemStatsTable table = new ItemStatsTable(new CountingLoader());
+
+		table.getBonuses(WHIP)[0] = -999;
+
+		assertEquals(statFor(WHIP, 0), table.getBonuses(WHIP)[0]);
+	}
+
+	@Test
+	public void tableGrowsForItemsBeyondInitialCapacity()
+	{
+		ItemStatsTable table = new ItemStatsTable(new CountingLoader(), 16);
+
+		assertEquals(statFor(BANDOS_CHESTPLATE, 5), table.getBonuses(BANDOS_CHESTPLATE)[5]);
+		assertEquals(statFor(WHIP, 5), table.getBonuses(WHIP)[5]);
+	}
+
+	@Test
+	public void unresolvedItemsAreRetried()
+	{
+		CountingLoader loader = new CountingLoader();
+		ItemStatsTable table = new ItemStatsTable(loader);
+		int[] totals = new int[ItemStatsTable.BONUS_COUNT];
+
+		loader.unresolved = true;
+		assertFalse(table.addBonuses(WHIP, totals));
+		assertFalse(table.isResolved(WHIP));
+		assertFalse(table.addBonuses(WHIP, totals));
+		assertEquals(2, loader.calls);
+
+		loader.unresolved = false;
+		assertTrue(table.addBonuses(WHIP, totals));
+		assertTrue(table.isResolved(WHIP));
+		assertEquals(statFor(WHIP, 0), totals[0]);
+		assertEquals(3, loader.calls);
+	}
+
+	@Test
+	public void itemsWithoutStatsAreResolved()
+	{
+		ItemStatsTable table = new ItemStatsTable(new CountingLoader());
+
+		assertFalse(table.isResolved(NO_STATS_ITEM));
+		assertFalse(table.addBonuses(NO_STATS_ITEM, new int[ItemStatsTable.BONUS_COUNT]));
+		assertTrue(table.isResolved(NO_STATS_ITEM));
+	}
+
+	private static int statFor(int itemId, int bonusIndex)
+	{
+		return itemId % 100 + bonusIndex;
+	}
+
+	private static class CountingLoader implements IntFunction<int[]>
+	{
+		private int calls;
+		private boolean unresolved;
+
+		@Override
+		public int[] apply(int itemId)
+		{
+			calls++;
+			if (unresolved)
+			{
+				return null;
+			}
+			if (itemId == NO_STATS_ITEM)
+			{
+				return ItemStatsTable.NO_BONUSES;
+			}
+
+			int[] stats = new int[ItemStatsTable.BONUS_COUNT];
+			for (int i = 0; i < stats.length; i++)
+			{
+				stats[i] = statFor(itemId, i);
+			}
+			return stats;
+		}
+	}
+}
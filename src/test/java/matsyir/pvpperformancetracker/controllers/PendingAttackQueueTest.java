@@ -0,0 +1,115 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PendingAttackQueueTest
+{
+	@Test
+	public void candidatesAreOrderedByMatchTickThenAnimationTick() throws Exception
+	{
+		PendingAttackQueue queue = new PendingAttackQueue();
+		FightLogEntry late = newEntry(AnimationData.MELEE_DAGGER_SLASH, 1, 101, 101);
+		FightLogEntry early = newEntry(AnimationData.MELEE_DAGGER_SLASH, 1, 100, 100);
+		FightLogEntry sameMatchEarlierAnim = newEntry(AnimationData.RANGED_SHORTBOW, 1, 99, 101);
+		queue.add(late);
+		queue.add(early);
+		queue.add(sameMatchEarlierAnim);
+
+		List<FightLogEntry> candidates = new ArrayList<>();
+		queue.collectCandidates(102, candidates);
+
+		assertEquals(3, candidates.size());
+		assertSame(early, candidates.get(0));
+		assertSame(sameMatchEarlierAnim, candidates.get(1));
+		assertSame(late, candidates.get(2));
+	}
+
+	@Test
+	public void expectedHitsRespectEachStylesMatchWindow() throws Exception
+	{
+		PendingAttackQueue queue = new PendingAttackQueue();
+		queue.add(newEntry(AnimationData.MELEE_DAGGER_SLASH, 2, 100, 100));
+		queue.add(newEntry(AnimationData.MAGIC_ANCIENT_MULTI_TARGET, 1, 100, 100));
+
+		assertEquals(3, queue.getExpectedHitsLandingOn(99));
+		assertEquals(3, queue.getExpectedHitsLandingOn(105));
+		// melee only has the minimum 5 tick window, magic has 6
+		assertEquals(1, queue.getExpectedHitsLandingOn(106));
+		assertEquals(0, queue.getExpectedHitsLandingOn(107));
+	}
+
+	@Test
+	public void completedAndSplashedAttacksAreNotCounted() throws Exception
+	{
+		PendingAttackQueue queue = new PendingAttackQueue();
+		FightLogEntry first = newEntry(AnimationData.MELEE_DAGGER_SLASH, 2, 100, 100);
+		FightLogEntry splash = newEntry(AnimationData.MAGIC_ANCIENT_MULTI_TARGET, 1, 100, 100);
+		TestEntries.setField(splash, "splash", true);
+		FightLogEntry second = newEntry(AnimationData.RANGED_SHORTBOW, 1, 101, 101);
+		queue.add(first);
+		queue.add(splash);
+		queue.add(second);
+
+		assertEquals(3, queue.getExpectedHitsLandingOn(101));
+
+		queue.complete(first);
+
+		assertTrue(first.isKoChanceCalculated());
+		assertEquals(1, queue.getExpectedHitsLandingOn(101));
+		List<FightLogEntry> candidates = new ArrayList<>();
+		queue.collectCandidates(101, candidates);
+		assertEquals(1, candidates.size());
+		assertSame(second, candidates.get(0));
+	}
+
+	@Test
+	public void expireDropsAttacksOutsideEveryMatchWindow() throws Exception
+	{
+		PendingAttackQueue queue = new PendingAttackQueue();
+		queue.add(newEntry(AnimationData.MAGIC_ANCIENT_MULTI_TARGET, 1, 100, 100));
+		queue.add(newEntry(AnimationData.MELEE_DAGGER_SLASH, 1, 103, 103));
+
+		queue.expire(106);
+		assertEquals(2, queue.size());
+
+		queue.expire(107);
+		assertEquals(1, queue.size());
+		assertEquals(1, queue.getExpectedHitsLandingOn(107));
+	}
+
+	@Test
+	public void queueGrowsPastInitialCapacity() throws Exception
+	{
+		PendingAttackQueue queue = new PendingAttackQueue();
+		for (int i = 0; i < 40; i++)
+		{
+			queue.add(newEntry(AnimationData.MELEE_DAGGER_SLASH, 1, 100 + i, 100 + i));
+		}
+
+		queue.expire(120);
+		assertEquals(26, queue.size());
+
+		List<FightLogEntry> candidates = new ArrayList<>();
+		queue.collectCandidates(140, candidates);
+		assertEquals(5, candidates.size());
+		assertEquals(135, candidates.get(0).getTick());
+	}
+
+	private static FightLogEntry newEntry(AnimationData animationData, int expectedHits, int tick, int hitsplatMatchTick)
+	{
+		return TestEntries.newEntry()
+			.animation(animationData)
+			.expectedHits(expectedHits)
+			.tick(tick)
+			.hitsplatMatchTick(hitsplatMatchTick)
+			.build();
+	}
+}
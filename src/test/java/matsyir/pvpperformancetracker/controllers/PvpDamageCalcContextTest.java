@@ -0,0 +1,113 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.CombatLevels;
+import matsyir.pvpperformancetracker.models.EquipmentData;
+import matsyir.pvpperformancetracker.models.RangeAmmoData;
+import matsyir.pvpperformancetracker.models.RingData;
+import net.runelite.api.PlayerComposition;
+import net.runelite.api.kit.KitType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// PLUGIN & CONFIG are never set in unit tests, so these also verify that calculate() only uses its context.
+public class PvpDamageCalcContextTest
+{
+	private static final int[] WHIP_GEAR = gearWithWeapon(EquipmentData.ABYSSAL_WHIP);
+	private static final int[] DEFENDER_GEAR = new int[KitType.values().length];
+
+	@Test
+	public void calculateOnlyUsesTheGivenContext()
+	{
+		DamageCalcResult result = calculateWhipHit(newContext(new CombatLevels(99, 99, 99, 99, 99, 99)));
+
+		assertTrue(result.getMaxHit() > 0);
+		assertTrue(result.getAccuracy() > 0 && result.getAccuracy() <= 1);
+		assertTrue(result.getAverageHit() > 0 && result.getAverageHit() < result.getMaxHit());
+	}
+
+	@Test
+	public void contextLevelsAreUsed()
+	{
+		DamageCalcResult maxed = calculateWhipHit(newContext(new CombatLevels(99, 99, 99, 99, 99, 99)));
+		DamageCalcResult pure = calculateWhipHit(newContext(new CombatLevels(60, 60, 1, 99, 99, 99)));
+
+		assertTrue(maxed.getMaxHit() > pure.getMaxHit());
+	}
+
+	@Test
+	public void parallelCalculationsMatchSequentialResult() throws Exception
+	{
+		DamageCalcContext context = newContext(new CombatLevels(99, 99, 99, 99, 99, 99));
+		DamageCalcResult expected = calculateWhipHit(context);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<Future<List<DamageCalcResult>>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++)
+			{
+				Callable<List<DamageCalcResult>> task = () ->
+				{
+					List<DamageCalcResult> results = new ArrayList<>();
+					for (int i = 0; i < 500; i++)
+					{
+						results.add(calculateWhipHit(context));
+					}
+					return results;
+				};
+				futures.add(executor.submit(task));
+			}
+
+			for (Future<List<DamageCalcResult>> future : futures)
+			{
+				for (DamageCalcResult result : future.get())
+				{
+					assertEquals(expected.getMaxHit(), result.getMaxHit());
+					assertEquals(expected.getAccuracy(), result.getAccuracy(), 0);
+					assertEquals(expected.getAverageHit(), result.getAverageHit(), 0);
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	private static DamageCalcResult calculateWhipHit(DamageCalcContext context)
+	{
+		return PvpDamageCalc.calculate(context, WHIP_GEAR, RingData.NONE, DEFENDER_GEAR, RingData.NONE, null,
+			AnimationData.MELEE_SCIM_SLASH, true, -1, 0);
+	}
+
+	private static DamageCalcContext newContext(CombatLevels levels)
+	{
+		// flat bonuses for whatever is worn, rather than the ItemManager's.
+		GearBonusCache gearBonuses = new GearBonusCache(16, ItemStatsTable.BONUS_COUNT,
+			(itemIds, ringUsed, bonuses) ->
+			{
+				bonuses[1] = 82;
+				bonuses[10] = 82;
+				return true;
+			},
+			itemIds -> EquipmentData.VoidStyle.NONE);
+		return new DamageCalcContext(levels, false, RingData.NONE, RangeAmmoData.BoltAmmo.DIAMOND_BOLTS_E,
+			RangeAmmoData.StrongBoltAmmo.OPAL_DRAGON_BOLTS_E, RangeAmmoData.DartAmmo.DRAGON_DARTS, 99, gearBonuses);
+	}
+
+	private static int[] gearWithWeapon(EquipmentData weapon)
+	{
+		int[] gear = new int[KitType.values().length];
+		gear[KitType.WEAPON.getIndex()] = weapon.getItemId() + PlayerComposition.ITEM_OFFSET;
+		return gear;
+	}
+}
@@ -5,6 +5,7 @@ import java.lang.reflect.Method;
 import matsyir.pvpperformancetracker.models.AnimationData;
 import matsyir.pvpperformancetracker.models.EquipmentData;
 import matsyir.pvpperformancetracker.models.RangeAmmoData;
+import matsyir.pvpperformancetracker.models.RingData;
 import net.runelite.api.SpriteID;
 import org.junit.Test;
 import sun.misc.Unsafe;
@@ -113,7 +114,10 @@ public class PvpDamageCalcMagicPrayerTest
 		Field unsafeField = Unsafe.class.getDeclaredField("theUnsafe");
 		unsafeField.setAccessible(true);
 		Unsafe unsafe = (Unsafe) unsafeField.get(null);
-		return (PvpDamageCalc) unsafe.allocateInstance(PvpDamageCalc.class);
+		PvpDamageCalc calc = (PvpDamageCalc) unsafe.allocateInstance(PvpDamageCalc.class);
+		setField(calc, "context", new DamageCalcContext(null, false, RingData.NONE, RangeAmmoData.BoltAmmo.DIAMOND_BOLTS_E,
+			RangeAmmoData.StrongBoltAmmo.OPAL_DRAGON_BOLTS_E, RangeAmmoData.DartAmmo.DRAGON_DARTS, 99, null));
+		return calc;
 	}
 
 	private static void setField(PvpDamageCalc calc, String fieldName, Object value) throws Exception
@@ -0,0 +1,190 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import matsyir.pvpperformancetracker.models.HitsplatInfo;
+import net.runelite.api.Actor;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ReflectedDamageIndexTest
+{
+	private static final int TICK = 1000;
+
+	private final Actor player = newActor();
+	private final Actor opponent = newActor();
+	private final Actor bystander = newActor();
+
+	@Test
+	public void vengeanceFromOpponentHitIsRemoved()
+	{
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		buffer.add(TICK, player, 40, 0);
+		buffer.add(TICK, opponent, 30, 0);
+
+		List<HitsplatInfo> hits = process(buffer, 1);
+
+		assertEquals(1, hits.size());
+		assertSame(player, hits.get(0).getActor());
+		assertEquals(40, hits.get(0).getAmount());
+	}
+
+	@Test
+	public void recoilFromPlayerHitIsRemoved()
+	{
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		buffer.add(TICK, opponent, 25, 0);
+		buffer.add(TICK, player, 3, 0);
+
+		List<HitsplatInfo> hits = process(buffer, 1);
+
+		assertEquals(1, hits.size());
+		assertSame(opponent, hits.get(0).getActor());
+	}
+
+	@Test
+	public void matchingHitIsKeptWhenAttacksExplainEveryHit()
+	{
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		buffer.add(TICK, player, 40, 0);
+		buffer.add(TICK, opponent, 30, 0);
+
+		assertEquals(2, process(buffer, 2).size());
+	}
+
+	@Test
+	public void onlyAsManyCandidatesAsNeededAreRemovedInOrder()
+	{
+		// claws spec on the opponent (4 hits), with the opponent's recoil and vengeance landing on the player
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		buffer.add(TICK, opponent, 20, 0);
+		buffer.add(TICK, opponent, 10, 0);
+		buffer.add(TICK, opponent, 5, 0);
+		buffer.add(TICK, opponent, 5, 0);
+		buffer.add(TICK, player, 3, 0);
+		buffer.add(TICK, player, 15, 0);
+		buffer.add(TICK, bystander, 3, 0);
+
+		List<HitsplatInfo> hits = process(buffer, 5);
+
+		assertEquals(5, hits.size());
+		assertEquals(legacyRemoval(buffer, 5), hits);
+	}
+
+	@Test
+	public void hitsOnUntrackedPlayersAreNeverCandidates()
+	{
+		HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+		buffer.add(TICK, player, 40, 0);
+		buffer.add(TICK, bystander, 30, 0);
+
+		assertEquals(2, process(buffer, 0).size());
+	}
+
+	@Test
+	public void matchesLegacyRemovalOnRandomTicks()
+	{
+		Random random = new Random(1234);
+		Actor[] actors = {player, opponent, bystander};
+		for (int scenario = 0; scenario < 2000; scenario++)
+		{
+			HitsplatRingBuffer buffer = new HitsplatRingBuffer(5);
+			int hitCount = 1 + random.nextInt(8);
+			for (int i = 0; i < hitCount; i++)
+			{
+				// small amounts make coincidental vengeance/recoil matches common
+				buffer.add(TICK, actors[random.nextInt(actors.length)], random.nextInt(random.nextBoolean() ? 8 : 60), 0);
+			}
+			int expectedAttackHits = random.nextInt(hitCount + 1);
+
+			assertEquals("scenario " + scenario, legacyRemoval(buffer, expectedAttackHits), process(buffer, expectedAttackHits));
+		}
+	}
+
+	private List<HitsplatInfo> process(HitsplatRingBuffer buffer, int expectedAttackHits)
+	{
+		List<HitsplatInfo> hits = bufferedHits(buffer);
+		ReflectedDamageIndex index = new ReflectedDamageIndex();
+		index.index(buffer, TICK, player, opponent);
+		index.removeReflectedHits(hits, expectedAttackHits);
+		return hits;
+	}
+
+	// the previous restart-on-removal scan, kept to verify the index reproduces its results
+	private List<HitsplatInfo> legacyRemoval(HitsplatRingBuffer buffer, int expectedAttackHits)
+	{
+		List<HitsplatInfo> hits = bufferedHits(buffer);
+		int safetyBreakCounter = 0;
+		int maxIterations = hits.size() * 2;
+		while (hits.size() > expectedAttackHits && safetyBreakCounter++ < maxIterations)
+		{
+			boolean removedHitInIteration = false;
+			Iterator<HitsplatInfo> iterator = hits.iterator();
+			while (iterator.hasNext())
+			{
+				HitsplatInfo potentialSpecialHit = iterator.next();
+				Actor target = potentialSpecialHit.getActor();
+				Actor otherPlayer = target == player ? opponent : target == opponent ? player : null;
+				boolean isCandidate = false;
+				if (otherPlayer != null)
+				{
+					for (int i = 0; i < buffer.size(TICK) && !isCandidate; i++)
+					{
+						HitsplatInfo incomingHit = buffer.get(TICK, i);
+						if (incomingHit.getActor() == otherPlayer)
+						{
+							int incomingDamage = incomingHit.getAmount();
+							isCandidate = potentialSpecialHit.getAmount() == Math.max(1, (int) Math.floor(incomingDamage * 0.75))
+								|| potentialSpecialHit.getAmount() == Math.max(1, (int) Math.floor(incomingDamage * 0.10) + 1);
+						}
+					}
+				}
+				if (isCandidate)
+				{
+					iterator.remove();
+					removedHitInIteration = true;
+					break;
+				}
+			}
+			if (!removedHitInIteration)
+			{
+				break;
+			}
+		}
+		return hits;
+	}
+
+	private static List<HitsplatInfo> bufferedHits(HitsplatRingBuffer buffer)
+	{
+		List<HitsplatInfo> hits = new ArrayList<>();
+		for (int i = 0; i < buffer.size(TICK); i++)
+		{
+			hits.add(buffer.get(TICK, i));
+		}
+		return hits;
+	}
+
+	private static Actor newActor()
+	{
+		return (Actor) Proxy.newProxyInstance(
+			Actor.class.getClassLoader(),
+			new Class<?>[]{Actor.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return null;
+				}
+			});
+	}
+}
@@ -0,0 +1,139 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.lang.reflect.Field;
+import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+import sun.misc.Unsafe;
+
+// Log entries for tests. FightLogEntry's constructors read the client & config, so entries are allocated without
+// running one and only the fields a test needs are set. Entries start as full dagger slash entries; every other
+// field is 0/null/false until set.
+final class TestEntries
+{
+	private static final Unsafe UNSAFE = getUnsafe();
+
+	private TestEntries()
+	{
+	}
+
+	static Builder newEntry()
+	{
+		return new Builder();
+	}
+
+	static void setField(FightLogEntry entry, String fieldName, Object value)
+	{
+		try
+		{
+			Field field = FightLogEntry.class.getDeclaredField(fieldName);
+			field.setAccessible(true);
+			field.set(entry, value);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new IllegalStateException("Could not set FightLogEntry." + fieldName, e);
+		}
+	}
+
+	private static Unsafe getUnsafe()
+	{
+		try
+		{
+			Field unsafeField = Unsafe.class.getDeclaredField("theUnsafe");
+			unsafeField.setAccessible(true);
+			return (Unsafe) unsafeField.get(null);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static final class Builder
+	{
+		private final FightLogEntry entry;
+
+		private Builder()
+		{
+			try
+			{
+				entry = (FightLogEntry) UNSAFE.allocateInstance(FightLogEntry.class);
+			}
+			catch (InstantiationException e)
+			{
+				throw new IllegalStateException(e);
+			}
+			fullEntry(true);
+			animation(AnimationData.MELEE_DAGGER_SLASH);
+		}
+
+		Builder attacker(String attackerName)
+		{
+			entry.attackerName = attackerName;
+			return this;
+		}
+
+		Builder tick(int tick)
+		{
+			return set("tick", tick);
+		}
+
+		Builder fullEntry(boolean fullEntry)
+		{
+			return set("isFullEntry", fullEntry);
+		}
+
+		Builder animation(AnimationData animationData)
+		{
+			return set("animationData", animationData);
+		}
+
+		Builder expectedHits(int expectedHits)
+		{
+			return set("expectedHits", expectedHits);
+		}
+
+		Builder hitsplatMatchTick(int hitsplatMatchTick)
+		{
+			return set("hitsplatMatchTick", hitsplatMatchTick);
+		}
+
+		Builder hitsplatTick(int hitsplatTick)
+		{
+			return set("hitsplatTick", hitsplatTick);
+		}
+
+		Builder actualDamageSum(int actualDamageSum)
+		{
+			return set("actualDamageSum", actualDamageSum);
+		}
+
+		Builder accuracy(double accuracy)
+		{
+			return set("accuracy", accuracy);
+		}
+
+		Builder hitRange(int minHit, int maxHit)
+		{
+			set("minHit", minHit);
+			return set("maxHit", maxHit);
+		}
+
+		Builder opponentMaxHp(int opponentMaxHp)
+		{
+			return set("opponentMaxHp", opponentMaxHp);
+		}
+
+		// any other field, by name
+		Builder set(String fieldName, Object value)
+		{
+			setField(entry, fieldName, value);
+			return this;
+		}
+
+		FightLogEntry build()
+		{
+			return entry;
+		}
+	}
+}
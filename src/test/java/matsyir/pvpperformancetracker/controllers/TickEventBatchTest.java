@@ -0,0 +1,73 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import matsyir.pvpperformancetracker.models.AnimationData;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TickEventBatchTest
+{
+	@Test
+	public void onlyFirstEventOfBatchSchedulesFlush()
+	{
+		TickEventBatch batch = new TickEventBatch();
+
+		assertTrue(batch.recordHitsplat(100));
+		assertFalse(batch.recordAnimation(null, AnimationData.RANGED_SHORTBOW, 100, 1000L, null));
+		assertFalse(batch.recordLevelsChanged());
+		assertFalse(batch.recordHpChanged());
+		assertFalse(batch.recordGhostBarrageCheck());
+
+		assertEquals(100, batch.getHitsplatHpSampleTick());
+		assertEquals(1, batch.getAnimationCount());
+		assertTrue(batch.isLevelsChanged());
+		assertTrue(batch.isHpChanged());
+		assertTrue(batch.isGhostBarrageCheckNeeded());
+
+		batch.clear();
+
+		assertTrue(batch.isEmpty());
+		assertTrue(batch.recordHpChanged());
+	}
+
+	@Test
+	public void animationsKeepRecordingOrderAndPoolGrows()
+	{
+		TickEventBatch batch = new TickEventBatch();
+		for (int i = 0; i < 10; i++)
+		{
+			batch.recordAnimation(null, i % 2 == 0 ? AnimationData.RANGED_SHORTBOW : AnimationData.MAGIC_ANCIENT_MULTI_TARGET, 100, i, i == 3 ? 7 : null);
+		}
+
+		assertEquals(10, batch.getAnimationCount());
+		for (int i = 0; i < 10; i++)
+		{
+			TickEventBatch.PendingAnimation animation = batch.getAnimation(i);
+			assertEquals(i, animation.getTime());
+			assertSame(i % 2 == 0 ? AnimationData.RANGED_SHORTBOW : AnimationData.MAGIC_ANCIENT_MULTI_TARGET, animation.getAnimationData());
+		}
+		assertEquals(Integer.valueOf(7), batch.getAnimation(3).getSoulreaperStacksVarp());
+
+		TickEventBatch.PendingAnimation pooled = batch.getAnimation(0);
+		batch.clear();
+		batch.recordAnimation(null, AnimationData.RANGED_SHORTBOW, 101, 50L, null);
+
+		assertSame(pooled, batch.getAnimation(0));
+		assertEquals(101, batch.getAnimation(0).getTick());
+		assertNull(batch.getAnimation(0).getSoulreaperStacksVarp());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void clearedAnimationsAreNotReadable()
+	{
+		TickEventBatch batch = new TickEventBatch();
+		batch.recordAnimation(null, AnimationData.RANGED_SHORTBOW, 100, 0L, null);
+		batch.clear();
+
+		batch.getAnimation(0);
+	}
+}
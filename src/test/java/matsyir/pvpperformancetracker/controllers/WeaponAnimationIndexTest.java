@@ -0,0 +1,94 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import java.util.Set;
+import matsyir.pvpperformancetracker.models.AnimationData;
+import matsyir.pvpperformancetracker.models.FightLogEntry;
+import net.runelite.api.PlayerComposition;
+import net.runelite.api.kit.KitType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WeaponAnimationIndexTest
+{
+	private static final int WHIP = 4151;
+	private static final int DARK_BOW = 11235;
+
+	@Test
+	public void recordsAnimationsPerWeapon()
+	{
+		WeaponAnimationIndex index = new WeaponAnimationIndex(16);
+		index.record(WHIP, AnimationData.MELEE_DAGGER_SLASH);
+		index.record(WHIP, AnimationData.MELEE_DAGGER_SLASH);
+		index.record(DARK_BOW, AnimationData.RANGED_DARK_BOW);
+		index.record(DARK_BOW, AnimationData.RANGED_DARK_BOW_SPEC);
+
+		assertEquals(1, index.get(WHIP).size());
+		assertEquals(2, index.get(DARK_BOW).size());
+		assertTrue(index.get(DARK_BOW).contains(AnimationData.RANGED_DARK_BOW_SPEC));
+		assertTrue(index.get(1).isEmpty());
+	}
+
+	@Test
+	public void returnedSetsAreCopies()
+	{
+		WeaponAnimationIndex index = new WeaponAnimationIndex(16);
+		index.record(WHIP, AnimationData.MELEE_DAGGER_SLASH);
+
+		Set<AnimationData> animations = index.get(WHIP);
+		animations.add(AnimationData.RANGED_SHORTBOW);
+
+		assertFalse(index.get(WHIP).contains(AnimationData.RANGED_SHORTBOW));
+	}
+
+	@Test
+	public void indexIsBoundedAndIgnoresInvalidInput()
+	{
+		WeaponAnimationIndex index = new WeaponAnimationIndex(2);
+		index.record(0, AnimationData.MELEE_DAGGER_SLASH);
+		index.record(WHIP, null);
+		assertEquals(0, index.size());
+
+		index.record(WHIP, AnimationData.MELEE_DAGGER_SLASH);
+		index.record(DARK_BOW, AnimationData.RANGED_DARK_BOW);
+		index.record(3, AnimationData.MELEE_DAGGER_SLASH);
+		assertEquals(2, index.size());
+		assertTrue(index.get(3).isEmpty());
+
+		// known weapons can still learn new attacks
+		index.record(WHIP, AnimationData.MELEE_GRANITE_MAUL_SPEC);
+		assertEquals(2, index.get(WHIP).size());
+	}
+
+	@Test
+	public void recordsAttacksFromLoggedFights() throws Exception
+	{
+		FightPerformance fight = new FightPerformance();
+		fight.competitor = new Fighter("competitor");
+		fight.opponent = new Fighter("opponent");
+		fight.competitor.getFightLogEntries().add(newEntry(WHIP, true, AnimationData.MELEE_DAGGER_SLASH));
+		fight.opponent.getFightLogEntries().add(newEntry(DARK_BOW, true, AnimationData.RANGED_DARK_BOW_SPEC));
+		// defensive logs aren't attacks
+		fight.opponent.getFightLogEntries().add(newEntry(WHIP, false, AnimationData.MELEE_GRANITE_MAUL_SPEC));
+
+		WeaponAnimationIndex index = new WeaponAnimationIndex(16);
+		index.recordFight(fight);
+
+		assertEquals(1, index.get(WHIP).size());
+		assertTrue(index.get(WHIP).contains(AnimationData.MELEE_DAGGER_SLASH));
+		assertTrue(index.get(DARK_BOW).contains(AnimationData.RANGED_DARK_BOW_SPEC));
+	}
+
+	private static FightLogEntry newEntry(int weaponId, boolean fullEntry, AnimationData animationData)
+	{
+		int[] gear = new int[KitType.values().length];
+		gear[KitType.WEAPON.getIndex()] = weaponId + PlayerComposition.ITEM_OFFSET;
+		return TestEntries.newEntry()
+			.fullEntry(fullEntry)
+			.animation(animationData)
+			.set("attackerGear", gear)
+			.build();
+	}
+}
@@ -0,0 +1,120 @@
+package matsyir.pvpperformancetracker.controllers;
+
+import matsyir.pvpperformancetracker.utils.DamageDistribution;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WinPredictorTest
+{
+	private static final double DELTA = 1e-12;
+
+	@Test
+	public void damageMovesHpDownAndKillsRollsOfAtLeastTheHp()
+	{
+		WinPredictor.HpState state = new WinPredictor.HpState(5, 99);
+		state.applyDamage(DamageDistribution.uniform(1.0, 0, 9));
+
+		assertEquals(0.5, state.getAlive(), DELTA);
+		for (int hp = 1; hp <= 5; hp++)
+		{
+			assertEquals(0.1, state.getProbability(hp), DELTA);
+		}
+		assertEquals(0.0, state.getProbability(6), 0);
+
+		state.applyDamage(DamageDistribution.uniform(0.5, 1, 1));
+		assertEquals(0.5 - 0.05, state.getAlive(), DELTA);
+		assertEquals(0.05 + 0.05, state.getProbability(4), DELTA);
+		assertEquals(0.05, state.getProbability(5), DELTA);
+	}
+
+	@Test
+	public void healsMoveAliveHpUpToTheBoostCap()
+	{
+		WinPredictor.HpState state = new WinPredictor.HpState(99, 99);
+		state.applyDamage(DamageDistribution.uniform(1.0, 10, 11));
+		state.applyHeal(30);
+
+		// 99 + 15% + 2 is the highest HP kept track of
+		assertEquals(1.0, state.getProbability(99 + 14 + 2), DELTA);
+
+		state.applyDamage(DamageDistribution.uniform(1.0, 50, 50));
+		state.applyHeal(3);
+		assertEquals(1.0, state.getProbability(115 - 50 + 3), DELTA);
+		assertEquals(1.0, state.getAlive(), DELTA);
+	}
+
+	@Test
+	public void firstToDieLoses()
+	{
+		WinPredictor predictor = new WinPredictor(99, 99, 99, 99);
+		assertEquals(0.5, predictor.getCompetitorWinProbability(), DELTA);
+
+		predictor.addAttack(false, DamageDistribution.uniform(0.5, 99, 99));
+		predictor.endTick();
+		// half the time the opponent died, otherwise both are at full HP
+		assertEquals(0.5 + 0.5 * 0.5, predictor.getCompetitorWinProbability(), DELTA);
+
+		predictor.addAttack(true, DamageDistribution.uniform(1.0, 99, 99));
+		predictor.endTick();
+		assertEquals(0.5, predictor.getCompetitorWinProbability(), DELTA);
+
+		// both can't die again, the competitor's win chance stays
+		predictor.addAttack(false, DamageDistribution.uniform(1.0, 99, 99));
+		predictor.endTick();
+		assertEquals(0.5, predictor.getCompetitorWinProbability(), DELTA);
+	}
+
+	@Test
+	public void sameTickDeathsAreSplit()
+	{
+		WinPredictor predictor = new WinPredictor(50, 99, 50, 99);
+		predictor.addAttack(true, DamageDistribution.uniform(1.0, 50, 50));
+		predictor.addAttack(false, DamageDistribution.uniform(1.0, 50, 50));
+		predictor.endTick();
+
+		assertEquals(0.5, predictor.getCompetitorWinProbability(), DELTA);
+	}
+
+	@Test
+	public void undecidedFightsFavorWhoeverHasMoreHpLeft()
+	{
+		WinPredictor predictor = new WinPredictor(99, 99, 99, 99);
+		predictor.addAttack(true, DamageDistribution.uniform(1.0, 0, 20));
+		predictor.endTick();
+		// the competitor is below the opponent unless the hit did 0
+		assertEquals(0.5 / 21, predictor.getCompetitorWinProbability(), DELTA);
+
+		// HP is compared as a fraction of max HP
+		WinPredictor fractions = new WinPredictor(60, 120, 50, 99);
+		assertTrue(fractions.getCompetitorWinProbability() < 0.5);
+	}
+
+	@Test
+	public void probabilityIsConservedOverALongFight()
+	{
+		WinPredictor predictor = new WinPredictor(99, 99, 99, 99);
+		DamageDistribution whip = DamageDistribution.uniform(0.7, 0, 30);
+		DamageDistribution claws = DamageDistribution.multiHitClamped(0.6, 0, 70, 4);
+		WinPredictor.HpState check = new WinPredictor.HpState(99, 99);
+		for (int tick = 0; tick < 200; tick++)
+		{
+			predictor.addAttack(tick % 2 == 0, tick % 8 == 0 ? claws : whip);
+			predictor.addHeal(true, tick % 3 == 0 ? 18 : 0);
+			predictor.endTick();
+			check.applyDamage(whip);
+			check.applyHeal(10);
+
+			double win = predictor.getCompetitorWinProbability();
+			assertTrue(win >= -DELTA && win <= 1 + DELTA);
+		}
+
+		double total = 1 - check.getAlive();
+		for (int hp = 1; hp <= 116; hp++)
+		{
+			total += check.getProbability(hp);
+		}
+		assertEquals(1.0, total, 1e-9);
+	}
+}